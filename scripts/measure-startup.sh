@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# Misura avvio e prima prenotazione di un'istanza, dal lancio del comando:
+#   ready      - prima risposta 200 di HEALTH_URL (default /actuator/health su BASE_URL)
+#   booking    - prima risposta di POST /api/bookings (400 va bene: conta il percorso completo)
+# Con il profilo prod l'actuator è sulla porta di management (MANAGEMENT_PORT, default 8082):
+# va pubblicata e indicata in HEALTH_URL.
+# Uso: scripts/measure-startup.sh <comando che avvia l'applicazione...>
+#   RUNS=5 scripts/measure-startup.sh docker run --rm -p 8080:8080 movie-service:standard
+#   HEALTH_URL=http://localhost:8082/actuator/health \
+#     scripts/measure-startup.sh docker run --rm -p 8080:8080 -p 8082:8082 movie-service:fast
+#   scripts/measure-startup.sh java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar app.jar
+set -u
+
+BASE_URL=${BASE_URL:-http://localhost:8080}
+HEALTH_URL=${HEALTH_URL:-$BASE_URL/actuator/health}
+RUNS=${RUNS:-3}
+BOOKING='{"screeningId":1,"userEmail":"startup@example.com","numberOfSeats":1}'
+
+if [ $# -eq 0 ]; then
+    echo "uso: $0 <comando...>" >&2
+    exit 1
+fi
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+for run in $(seq 1 "$RUNS"); do
+    start=$(now_ms)
+    "$@" > "/tmp/measure-startup-$run.log" 2>&1 &
+    pid=$!
+
+    ready=""
+    for _ in $(seq 1 1200); do
+        if [ "$(curl -s -o /dev/null -w '%{http_code}' "$HEALTH_URL")" = "200" ]; then
+            ready=$(( $(now_ms) - start ))
+            break
+        fi
+        sleep 0.05
+    done
+
+    booking=""
+    if [ -n "$ready" ]; then
+        curl -s -o /dev/null -X POST "$BASE_URL/api/bookings" -H 'Content-Type: application/json' -d "$BOOKING"
+        booking=$(( $(now_ms) - start ))
+    fi
+
+    kill "$pid" 2>/dev/null
+    wait "$pid" 2>/dev/null
+    echo "run $run: ready ${ready:-timeout} ms, prima prenotazione ${booking:-n/d} ms"
+done
@@ -0,0 +1,25 @@
+#!/usr/bin/env sh
+# Confronta un risultato JMH con la baseline: tempo medio e byte allocati per operazione.
+# Uso: src/jmh/compare-baseline.sh [risultato] [baseline] | column -t -s "$(printf "\t")"
+set -e
+
+CURRENT="${1:-target/jmh-result.json}"
+BASELINE="${2:-$(dirname "$0")/baseline.json}"
+
+jq -n -r --slurpfile base "$BASELINE" --slurpfile cur "$CURRENT" '
+  def key: (.benchmark | sub("^com\\.cinema\\.movie\\.benchmark\\."; ""))
+           + ((.params // {}) | to_entries | map(" \(.key)=\(.value)") | join(""));
+  def alloc: .secondaryMetrics["gc.alloc.rate.norm"].score // 0;
+  def delta(a; b): if a == 0 then "-" else ((b / a - 1) * 100 | round | tostring) + "%" end;
+  ($base[0] | map({(key): .}) | add) as $b
+  | (["benchmark", "baseline", "attuale", "unità", "delta", "B/op base", "B/op", "delta B/op"] | @tsv),
+    ($cur[0][] | key as $k | select($b[$k]) | $b[$k] as $old
+     | [$k,
+        ($old.primaryMetric.score * 100 | round / 100),
+        (.primaryMetric.score * 100 | round / 100),
+        .primaryMetric.scoreUnit,
+        delta($old.primaryMetric.score; .primaryMetric.score),
+        ($old | alloc | round), (alloc | round),
+        delta($old | alloc; alloc)]
+     | @tsv)
+'
@@ -0,0 +1,48 @@
+package com.cinema.movie.benchmark;
+
+import com.cinema.movie.dto.BookingRequest;
+import com.cinema.movie.entity.Booking;
+import com.cinema.movie.entity.Screening;
+import com.cinema.movie.entity.domain.BookingDomainService;
+import com.cinema.movie.service.booking.BookingFactory;
+import com.cinema.movie.service.booking.BookingMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creazione della prenotazione: prezzo totale, conferma.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingFactoryBenchmark {
+
+    @Param({"1", "8"})
+    private int seats;
+
+    private BookingFactory factory;
+    private Screening screening;
+    private BookingRequest request;
+
+    @Setup
+    public void setUp() {
+        screening = InMemoryStandIns.screening(1L, LocalDateTime.now().plusDays(1));
+        factory = new BookingFactory(
+                InMemoryStandIns.screeningRepository(Map.of(1L, screening)),
+                new BookingDomainService(),
+                new BookingMetrics(new SimpleMeterRegistry()));
+        request = new BookingRequest(1L, "user@example.com", seats);
+    }
+
+    @Benchmark
+    public Booking createBooking() {
+        return factory.createBooking(request, screening, 1L);
+    }
+}
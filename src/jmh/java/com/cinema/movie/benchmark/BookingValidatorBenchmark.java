@@ -0,0 +1,55 @@
+package com.cinema.movie.benchmark;
+
+import com.cinema.movie.dto.BookingRequest;
+import com.cinema.movie.entity.Booking;
+import com.cinema.movie.entity.Screening;
+import com.cinema.movie.entity.domain.BookingDomainService;
+import com.cinema.movie.entity.domain.ScreeningDomainService;
+import com.cinema.movie.service.booking.BookingValidator;
+import com.cinema.movie.service.user.UserIdentityService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validazione di una nuova prenotazione e di una cancellazione.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingValidatorBenchmark {
+
+    private BookingValidator validator;
+    private BookingRequest request;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        Screening screening = InMemoryStandIns.screening(1L, LocalDateTime.now().plusDays(1));
+        var identities = new UserIdentityService(InMemoryStandIns.userRepository(), InMemoryStandIns.transactionManager());
+
+        validator = new BookingValidator(
+                InMemoryStandIns.screeningRepository(Map.of(1L, screening)),
+                new BookingDomainService(),
+                new ScreeningDomainService(),
+                identities);
+        request = new BookingRequest(1L, "user@example.com", 3);
+        booking = InMemoryStandIns.booking(screening, identities.resolve("user@example.com"));
+    }
+
+    @Benchmark
+    public Screening validateNewBooking() {
+        return validator.validateAndGetScreening(request);
+    }
+
+    @Benchmark
+    public Booking validateCancellation() {
+        validator.validateCancellation(booking, "user@example.com");
+        return booking;
+    }
+}
@@ -0,0 +1,62 @@
+package com.cinema.movie.benchmark;
+
+import com.cinema.movie.service.booking.BookingLockProperties;
+import com.cinema.movie.service.booking.BookingMetrics;
+import com.cinema.movie.service.booking.DistributedLockManager;
+import com.cinema.movie.service.booking.LockCircuitBreaker;
+import com.cinema.movie.service.hotspot.HotScreeningDetector;
+import com.cinema.movie.service.hotspot.HotScreeningProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Overhead del lock per proiezione (token, chiave, script di rilascio)
+ * con Redis sostituito da una mappa in memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistributedLockManagerBenchmark {
+
+    private static final AtomicLong SCREENINGS = new AtomicLong();
+
+    private DistributedLockManager lockManager;
+
+    @Setup
+    public void setUp() {
+        var meterRegistry = new SimpleMeterRegistry();
+        var lockProperties = new BookingLockProperties(3, Duration.ofSeconds(5), Duration.ofMillis(100), 256);
+        lockManager = new DistributedLockManager(InMemoryStandIns.redisTemplate(),
+                new BookingMetrics(meterRegistry),
+                new HotScreeningDetector(new HotScreeningProperties(64, 50, Duration.ofSeconds(10)), event -> { }),
+                new LockCircuitBreaker(lockProperties, meterRegistry),
+                lockProperties);
+    }
+
+    /**
+     * Ogni thread usa una proiezione diversa: nessuna contesa sul lock.
+     */
+    @State(Scope.Thread)
+    public static class ThreadScreening {
+        final Long screeningId = SCREENINGS.incrementAndGet();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Long executeWithLock(ThreadScreening thread) {
+        return lockManager.executeWithLock(thread.screeningId, () -> thread.screeningId);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Long executeWithLockParallel(ThreadScreening thread) {
+        return lockManager.executeWithLock(thread.screeningId, () -> thread.screeningId);
+    }
+}
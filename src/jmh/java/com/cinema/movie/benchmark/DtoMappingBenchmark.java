@@ -0,0 +1,56 @@
+package com.cinema.movie.benchmark;
+
+import com.cinema.movie.dto.BookingResponse;
+import com.cinema.movie.dto.MovieResponse;
+import com.cinema.movie.entity.Booking;
+import com.cinema.movie.entity.Movie;
+import com.cinema.movie.entity.User;
+import com.cinema.movie.entity.UserBookingView;
+import com.cinema.movie.event.BookingEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping entity -> DTO sui percorsi di lettura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"0", "20"})
+    private int screenings;
+
+    private Movie movie;
+    private Booking booking;
+    private UserBookingView view;
+
+    @Setup
+    public void setUp() {
+        movie = InMemoryStandIns.movie(1L, screenings);
+        var screening = InMemoryStandIns.screening(1L, LocalDateTime.now().plusDays(1));
+        screening.setMovie(InMemoryStandIns.movie(2L, 0));
+        booking = InMemoryStandIns.booking(screening, new User(1L, "user@example.com"));
+        view = UserBookingView.from(BookingEvent.from(booking));
+    }
+
+    @Benchmark
+    public MovieResponse movieResponse() {
+        return MovieResponse.from(movie);
+    }
+
+    @Benchmark
+    public BookingResponse bookingResponseFromEntity() {
+        return BookingResponse.from(booking);
+    }
+
+    @Benchmark
+    public BookingResponse bookingResponseFromHistory() {
+        return BookingResponse.from(view, "user@example.com");
+    }
+}
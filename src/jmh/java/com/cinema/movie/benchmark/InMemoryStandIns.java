@@ -0,0 +1,153 @@
+package com.cinema.movie.benchmark;
+
+import com.cinema.movie.entity.Booking;
+import com.cinema.movie.entity.BookingStatus;
+import com.cinema.movie.entity.Movie;
+import com.cinema.movie.entity.Screening;
+import com.cinema.movie.entity.User;
+import com.cinema.movie.repository.ScreeningRepository;
+import com.cinema.movie.repository.UserRepository;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Sostituti in memoria di repository e Redis: i benchmark misurano il codice
+ * applicativo, non rete o database. I metodi non usati lanciano eccezione.
+ */
+final class InMemoryStandIns {
+
+    private InMemoryStandIns() {
+    }
+
+    /**
+     * Proiezioni in memoria; reserveSeatsAtomically riesce sempre,
+     * così lo stato resta costante tra le invocazioni.
+     */
+    static ScreeningRepository screeningRepository(Map<Long, Screening> screenings) {
+        return stub(ScreeningRepository.class, Map.of(
+                "findByIdWithAvailableSeats", args -> Optional.ofNullable(screenings.get((Long) args[0]))
+                        .filter(screening -> screening.getAvailableSeats() >= (int) args[1]),
+                "reserveSeatsAtomically", args -> screenings.containsKey((Long) args[0]) ? 1 : 0
+        ));
+    }
+
+    static UserRepository userRepository() {
+        Map<String, Long> ids = new ConcurrentHashMap<>();
+        return stub(UserRepository.class, Map.of(
+                "findIdByEmail", args -> Optional.ofNullable(ids.get((String) args[0])),
+                "saveAndFlush", args -> {
+                    User user = (User) args[0];
+                    user.setId(ids.computeIfAbsent(user.getEmail(), email -> (long) ids.size() + 1));
+                    return user;
+                }
+        ));
+    }
+
+    static PlatformTransactionManager transactionManager() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+
+    /**
+     * RedisTemplate su una mappa: SET NX e rilascio condizionato come lo script Lua.
+     */
+    static RedisTemplate<String, String> redisTemplate() {
+        Map<String, String> values = new ConcurrentHashMap<>();
+        ValueOperations<String, String> operations = stub(ValueOperations.class, Map.of(
+                "setIfAbsent", args -> values.putIfAbsent((String) args[0], (String) args[1]) == null
+        ));
+
+        return new RedisTemplate<>() {
+            @Override
+            public ValueOperations<String, String> opsForValue() {
+                return operations;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+                return (T) (values.remove(keys.getFirst(), args[0]) ? Long.valueOf(1) : Long.valueOf(0));
+            }
+        };
+    }
+
+    static Movie movie(long id, int screenings) {
+        var movie = new Movie();
+        movie.setId(id);
+        movie.setTitle("Film " + id);
+        movie.setGenre("Fantascienza");
+        movie.setDuration(150);
+        movie.setDescription("Descrizione del film " + id);
+        for (int i = 0; i < screenings; i++) {
+            var screening = screening(id * 1000 + i, LocalDateTime.now().plusDays(1).plusHours(i));
+            screening.setMovie(movie);
+            movie.getScreenings().add(screening);
+        }
+        return movie;
+    }
+
+    static Screening screening(long id, LocalDateTime startTime) {
+        var screening = new Screening();
+        screening.setId(id);
+        screening.setStartTime(startTime);
+        screening.setTotalSeats(200);
+        screening.setAvailableSeats(150);
+        screening.setPrice(new BigDecimal("9.50"));
+        return screening;
+    }
+
+    static Booking booking(Screening screening, User user) {
+        var booking = new Booking();
+        booking.setId(1L);
+        booking.setScreening(screening);
+        booking.setUser(user);
+        booking.setNumberOfSeats(3);
+        booking.setTotalPrice(new BigDecimal("28.50"));
+        booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setCreatedAt(LocalDateTime.now());
+        booking.setConfirmedAt(LocalDateTime.now());
+        return booking;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<?> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> handler = methods.get(method.getName());
+            if (handler != null) {
+                return handler.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + " in memoria";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        });
+    }
+}
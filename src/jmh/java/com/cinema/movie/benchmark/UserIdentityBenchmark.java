@@ -0,0 +1,54 @@
+package com.cinema.movie.benchmark;
+
+import com.cinema.movie.service.user.UserIdentityService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Risoluzione email -> id utente: cache in memoria contro confronto tra stringhe
+ * che la chiave numerica ha sostituito.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserIdentityBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private UserIdentityService identities;
+    private String email;
+    private String sameEmail;
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        identities = new UserIdentityService(InMemoryStandIns.userRepository(), InMemoryStandIns.transactionManager());
+        for (int i = 0; i < USERS; i++) {
+            identities.resolve("user" + i + "@example.com");
+        }
+        email = "user4242@example.com";
+        // Istanza diversa con lo stesso contenuto, come in una richiesta HTTP
+        sameEmail = new String(email.toCharArray());
+        userId = identities.findId(email).orElseThrow();
+    }
+
+    @Benchmark
+    public Optional<Long> cachedLookup() {
+        return identities.findId(sameEmail);
+    }
+
+    @Benchmark
+    public boolean ownerCheckByEmail() {
+        return email.equals(sameEmail);
+    }
+
+    @Benchmark
+    public boolean ownerCheckById() {
+        return userId.equals(identities.findId(sameEmail).orElse(null));
+    }
+}
@@ -0,0 +1,55 @@
+package com.cinema.movie.config;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Formati binari (CBOR, Smile) per i client ad alto volume.
+ * Il client li richiede con Accept: application/cbor o application/x-jackson-smile;
+ * JSON resta il default perché il suo converter li precede.
+ * Lo schema è quello dei record DTO; le date viaggiano come array numerici
+ * e i BigDecimal con la codifica decimale nativa del formato, senza passare da stringhe.
+ */
+@Configuration
+public class BinaryContentConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    public BinaryContentConfig(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        this.builders = builders;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Sostituisce i converter binari di default con mapper allineati alla configurazione Jackson di Boot
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+
+        int afterJson = 0;
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                afterJson = i + 1;
+            }
+        }
+        converters.add(afterJson, new MappingJackson2SmileHttpMessageConverter(
+                binaryBuilder().factory(new SmileFactory()).build()));
+        converters.add(afterJson, new MappingJackson2CborHttpMessageConverter(
+                binaryBuilder().factory(new CBORFactory()).build()));
+    }
+
+    private Jackson2ObjectMapperBuilder binaryBuilder() {
+        return builders.getIfAvailable(Jackson2ObjectMapperBuilder::new)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -0,0 +1,12 @@
+package com.cinema.movie.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Abilita i job periodici (refresh indici in memoria, riconciliazioni).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,157 @@
+package com.cinema.movie.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource per le transazioni readOnly: distribuisce le connessioni tra le repliche
+ * sane in round-robin e ripiega sul primario se nessuna replica è disponibile.
+ * Una replica esce dal giro se non risponde o se il suo lag supera maxLag;
+ * il controllo periodico la reinserisce quando torna in linea.
+ * I pool delle repliche appartengono a questo DataSource e vengono chiusi con lui.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final DataSource primary;
+    private final List<ReplicaNode> replicas;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    Duration maxLag, String lagQuery) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(entry -> new ReplicaNode(entry.getKey(), entry.getValue()))
+                .toList();
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+    }
+
+    private static final class ReplicaNode {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        ReplicaNode(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Repliche attualmente nel giro di lettura.
+     */
+    public List<String> healthyReplicas() {
+        return replicas.stream()
+                .filter(replica -> replica.healthy)
+                .map(replica -> replica.name)
+                .toList();
+    }
+
+    /**
+     * Controllo periodico: raggiungibilità e lag di ogni replica.
+     */
+    @Scheduled(fixedDelayString = "${cinema.datasource.routing.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (ReplicaNode replica : replicas) {
+            boolean healthy = probe(replica);
+            if (healthy != replica.healthy) {
+                log.info("Replica {} {}", replica.name, healthy ? "di nuovo disponibile" : "esclusa dalle letture");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    /**
+     * Chiude i pool delle repliche; il primario è un bean a sé e lo chiude Spring.
+     */
+    @Override
+    public void destroy() {
+        for (ReplicaNode replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Errore chiusura pool replica {}: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        int size = replicas.size();
+        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaNode replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return source.get(replica.dataSource);
+            } catch (SQLException e) {
+                // Fuori dal giro fino al prossimo controllo riuscito
+                replica.healthy = false;
+                log.warn("Replica {} non raggiungibile, lettura dal primario: {}", replica.name, e.getMessage());
+            }
+        }
+        return source.get(primary);
+    }
+
+    private boolean probe(ReplicaNode replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return false;
+            }
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return true;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery(lagQuery)) {
+                double lagSeconds = rows.next() ? rows.getDouble(1) : 0;
+                if (lagSeconds * 1000 > maxLag.toMillis()) {
+                    log.debug("Replica {} in ritardo di {}s", replica.name, lagSeconds);
+                    return false;
+                }
+                return true;
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.cinema.movie.config.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configurazione repliche di lettura (cinema.datasource.routing.*).
+ * lagQuery restituisce il ritardo della replica in secondi; vuota = nessun controllo di lag.
+ * connectionTimeout è breve: una replica che non risponde deve far ripiegare subito sul primario.
+ */
+@ConfigurationProperties(prefix = "cinema.datasource.routing")
+public record ReplicaRoutingProperties(
+        boolean enabled,
+        List<Replica> replicas,
+        @DefaultValue("PT5S") Duration maxLag,
+        String lagQuery,
+        @DefaultValue("PT1S") Duration connectionTimeout
+) {
+    public ReplicaRoutingProperties {
+        replicas = replicas == null ? List.of() : List.copyOf(replicas);
+    }
+
+    public record Replica(
+            String url,
+            String username,
+            String password
+    ) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.cinema.movie.config.jfr;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Profilazione continua con JFR (cinema.jfr.enabled, attiva di default).
+ * Gli eventi com.cinema.BookingStage si registrano a parte, ad esempio con jcmd JFR.start.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cinema.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(JfrProperties.class)
+public class JfrConfig {
+
+    @Bean
+    public PinningMonitor pinningMonitor(JfrProperties properties) {
+        return new PinningMonitor(properties);
+    }
+
+    @Bean
+    public JfrEndpoint jfrEndpoint(PinningMonitor pinningMonitor) {
+        return new JfrEndpoint(pinningMonitor);
+    }
+}
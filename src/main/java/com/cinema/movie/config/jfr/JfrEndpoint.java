@@ -0,0 +1,27 @@
+package com.cinema.movie.config.jfr;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * /actuator/jfr: stack con più pinning dei virtual thread e più attesa su monitor contesi.
+ * DELETE azzera le statistiche.
+ */
+@Endpoint(id = "jfr")
+@RequiredArgsConstructor
+public class JfrEndpoint {
+
+    private final PinningMonitor monitor;
+
+    @ReadOperation
+    public PinningMonitor.Report jfr() {
+        return monitor.report();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        monitor.reset();
+    }
+}
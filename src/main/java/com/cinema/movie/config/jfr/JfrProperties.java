@@ -0,0 +1,20 @@
+package com.cinema.movie.config.jfr;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Registrazione JFR continua in processo (cinema.jfr.*).
+ * Le soglie limitano gli eventi agli episodi abbastanza lunghi da pesare sui carrier thread.
+ */
+@ConfigurationProperties(prefix = "cinema.jfr")
+public record JfrProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20ms") Duration pinnedThreshold,
+        @DefaultValue("20ms") Duration contentionThreshold,
+        @DefaultValue("16") int stackDepth,
+        @DefaultValue("200") int maxStacks
+) {
+}
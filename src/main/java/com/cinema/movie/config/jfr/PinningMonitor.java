@@ -0,0 +1,143 @@
+package com.cinema.movie.config.jfr;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stream JFR in processo: virtual thread bloccati sul carrier (jdk.VirtualThreadPinned)
+ * e attese su monitor contesi (jdk.JavaMonitorEnter), aggregati per stack.
+ * Al massimo maxStacks stack distinti; gli eventi oltre il limite sono solo contati.
+ */
+@Slf4j
+public class PinningMonitor implements SmartLifecycle {
+
+    static final String PINNED = "jdk.VirtualThreadPinned";
+    static final String CONTENTION = "jdk.JavaMonitorEnter";
+    private static final int REPORT_SIZE = 20;
+
+    private final JfrProperties properties;
+    private final Map<StackKey, StackStats> stacks = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private volatile RecordingStream stream;
+
+    record StackKey(String event, String monitorClass, List<String> frames) {
+    }
+
+    static final class StackStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    public record StackSummary(String monitorClass, long count, long totalMs, long maxMs, List<String> stack) {
+    }
+
+    public record Report(boolean running, List<StackSummary> pinned, List<StackSummary> contention, long droppedEvents) {
+    }
+
+    public PinningMonitor(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        var recording = new RecordingStream();
+        recording.enable(PINNED).withThreshold(properties.pinnedThreshold()).withStackTrace();
+        recording.enable(CONTENTION).withThreshold(properties.contentionThreshold()).withStackTrace();
+        recording.onEvent(PINNED, this::aggregate);
+        recording.onEvent(CONTENTION, this::aggregate);
+        recording.startAsync();
+        stream = recording;
+        log.info("Stream JFR avviato: pinning oltre {}, contesa oltre {}",
+                properties.pinnedThreshold(), properties.contentionThreshold());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream current = stream;
+        stream = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    public Report report() {
+        return new Report(isRunning(), top(PINNED), top(CONTENTION), dropped.sum());
+    }
+
+    public void reset() {
+        stacks.clear();
+        dropped.reset();
+    }
+
+    void aggregate(RecordedEvent event) {
+        var key = new StackKey(event.getEventType().getName(), monitorClass(event), frames(event));
+        StackStats stats = stacks.get(key);
+        if (stats == null) {
+            if (stacks.size() >= properties.maxStacks()) {
+                dropped.increment();
+                return;
+            }
+            stats = stacks.computeIfAbsent(key, ignored -> new StackStats());
+        }
+        long nanos = event.getDuration().toNanos();
+        stats.count.increment();
+        stats.nanos.add(nanos);
+        stats.maxNanos.accumulate(nanos);
+    }
+
+    private List<StackSummary> top(String eventName) {
+        return stacks.entrySet().stream()
+                .filter(entry -> entry.getKey().event().equals(eventName))
+                .map(entry -> new StackSummary(
+                        entry.getKey().monitorClass(),
+                        entry.getValue().count.sum(),
+                        TimeUnit.NANOSECONDS.toMillis(entry.getValue().nanos.sum()),
+                        TimeUnit.NANOSECONDS.toMillis(entry.getValue().maxNanos.get()),
+                        entry.getKey().frames()))
+                .sorted(Comparator.comparingLong(StackSummary::totalMs).reversed()
+                        .thenComparing(Comparator.comparingLong(StackSummary::count).reversed()))
+                .limit(REPORT_SIZE)
+                .toList();
+    }
+
+    private static String monitorClass(RecordedEvent event) {
+        if (!event.hasField("monitorClass")) {
+            return null;
+        }
+        RecordedClass monitorClass = event.getClass("monitorClass");
+        return monitorClass == null ? null : monitorClass.getName();
+    }
+
+    private List<String> frames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return List.of();
+        }
+        return event.getStackTrace().getFrames().stream()
+                .limit(properties.stackDepth())
+                .map(PinningMonitor::frame)
+                .toList();
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+}
@@ -0,0 +1,37 @@
+package com.cinema.movie.config.ratelimit;
+
+import com.cinema.movie.service.booking.LockCircuitBreaker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * Rate limiting (cinema.rate-limit.enabled, attivo di default; regole in application.yml).
+ * Il filtro segue quello della contabilità SQL, così anche le richieste respinte vengono contate.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cinema.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties, RedisTemplate<String, String> redisTemplate,
+                                   LockCircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        return new RateLimiter(properties, redisTemplate, circuitBreaker, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper,
+                                                                   RateLimitProperties properties) {
+        var registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(rateLimiter, objectMapper, properties.apiKeys()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
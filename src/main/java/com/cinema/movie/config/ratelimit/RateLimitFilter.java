@@ -0,0 +1,186 @@
+package com.cinema.movie.config.ratelimit;
+
+import com.cinema.movie.exception.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applica i limiti prima di binding e validazione: le richieste respinte non toccano controller né database.
+ * Il client è, in ordine: header X-API-Key se la chiave è tra quelle configurate, email dell'utente
+ * (parametro o campo userEmail del corpo JSON), indirizzo IP. Il bucket dell'IP si applica sempre.
+ * API key ed email entrano nelle chiavi solo come hash.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String API_KEY_HEADER = "X-API-Key";
+    private static final String EMAIL_FIELD = "userEmail";
+    private static final int MAX_BODY_BYTES = 4096;
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final Set<String> apiKeys;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper, Collection<String> apiKeys) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.apiKeys = Set.copyOf(apiKeys);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Optional<RateLimitProperties.Rule> rule = rateLimiter.ruleFor(request.getMethod(), request.getRequestURI());
+        if (rule.isEmpty()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest cached = cacheJsonBody(request);
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(rule.get(), client(cached), ip(cached));
+        if (decision.allowed()) {
+            chain.doFilter(cached, response);
+        } else {
+            reject(response, decision);
+        }
+    }
+
+    String client(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (apiKey != null && apiKeys.contains(apiKey.strip())) {
+            return "key:" + hash(apiKey.strip());
+        }
+        String email = request.getParameter(EMAIL_FIELD);
+        if ((email == null || email.isBlank()) && request instanceof CachedBodyRequest body) {
+            email = body.email(objectMapper);
+        }
+        if (email != null && !email.isBlank()) {
+            return "user:" + hash(email.strip().toLowerCase(Locale.ROOT));
+        }
+        return ip(request);
+    }
+
+    String ip(HttpServletRequest request) {
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, RateLimiter.Decision decision) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos() + 999_999_999));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                "RATE_LIMITED", "Troppe richieste, riprovare più tardi", LocalDateTime.now()));
+    }
+
+    /**
+     * Corpo JSON piccolo (la richiesta di prenotazione) letto una volta e riletto dal controller.
+     */
+    private static HttpServletRequest cacheJsonBody(HttpServletRequest request) throws IOException {
+        int length = request.getContentLength();
+        if (length <= 0 || length > MAX_BODY_BYTES || !isJson(request.getContentType())) {
+            return request;
+        }
+        return new CachedBodyRequest(request, request.getInputStream().readNBytes(length));
+    }
+
+    private static boolean isJson(String contentType) {
+        try {
+            return contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        String email(ObjectMapper objectMapper) {
+            try {
+                JsonNode email = objectMapper.readTree(body).path(EMAIL_FIELD);
+                return email.isTextual() ? email.asText() : null;
+            } catch (IOException e) {
+                // JSON non valido: lo segnalerà la validazione, qui si ripiega sull'IP
+                return null;
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            var input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.cinema.movie.config.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rate limiting per client sugli endpoint più esposti ai bot (cinema.rate-limit.*).
+ * Il livello locale è un token bucket per istanza; con fleetEnabled si aggiunge una finestra
+ * scorrevole su Redis condivisa da tutte le istanze (fleetLimit richieste per fleetWindow).
+ * Solo le API key elencate in apiKeys identificano un client; maxClients limita i bucket in memoria.
+ */
+@ConfigurationProperties(prefix = "cinema.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("false") boolean fleetEnabled,
+        @DefaultValue("100000") int maxClients,
+        List<String> apiKeys,
+        List<Rule> rules
+) {
+    public RateLimitProperties {
+        apiKeys = apiKeys == null ? List.of() : List.copyOf(apiKeys);
+        rules = rules == null ? List.of() : List.copyOf(rules);
+    }
+
+    /**
+     * Limite per metodo e pattern di path: capacity richieste a raffica, poi una ogni refillPeriod.
+     * fleetLimit 0 = solo livello locale. Ogni IP ha in più un proprio bucket ipFactor volte più grande,
+     * per i client dietro lo stesso NAT.
+     */
+    public record Rule(
+            String name,
+            String method,
+            String path,
+            int capacity,
+            Duration refillPeriod,
+            @DefaultValue("0") int fleetLimit,
+            @DefaultValue("1m") Duration fleetWindow,
+            @DefaultValue("1") int ipFactor
+    ) {
+        public Rule {
+            ipFactor = Math.max(1, ipFactor);
+        }
+
+        /**
+         * Stessa regola scalata per il bucket dell'indirizzo IP.
+         */
+        public Rule perIp() {
+            return ipFactor == 1 ? this : new Rule(name, method, path, capacity * ipFactor,
+                    refillPeriod.dividedBy(ipFactor), fleetLimit * ipFactor, fleetWindow, 1);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.cinema.movie.config.ratelimit;
+
+import com.cinema.movie.service.booking.LockCircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Due livelli per (regola, client): token bucket in memoria, che scarta i bot senza rete,
+ * e finestra scorrevole su Redis per il limite complessivo della flotta.
+ * Redis passa dal circuit breaker dei lock: se non risponde il livello di flotta lascia passare.
+ */
+@Slf4j
+public class RateLimiter {
+
+    public static final String TIER_LOCAL = "local";
+    public static final String TIER_FLEET = "fleet";
+
+    /**
+     * Finestra scorrevole approssimata: contatore della finestra corrente più quello della
+     * precedente pesato per la parte ancora dentro la finestra. Una coppia di chiavi per limite
+     * (client e IP): si incrementa solo se tutti i limiti passano, così conta solo le richieste accettate.
+     */
+    private static final RedisScript<Long> SLIDING_WINDOW = new DefaultRedisScript<>("""
+            for i = 1, #KEYS / 2 do
+                local current = tonumber(redis.call('get', KEYS[2 * i - 1]) or '0')
+                local previous = tonumber(redis.call('get', KEYS[2 * i]) or '0')
+                if previous * tonumber(ARGV[1]) + current + 1 > tonumber(ARGV[2 + i]) then
+                    return 0
+                end
+            end
+            for i = 1, #KEYS / 2 do
+                redis.call('incr', KEYS[2 * i - 1])
+                redis.call('pexpire', KEYS[2 * i - 1], ARGV[2])
+            end
+            return 1
+            """, Long.class);
+
+    public record Decision(boolean allowed, long retryAfterNanos, String tier) {
+
+        static final Decision ALLOWED = new Decision(true, 0, null);
+    }
+
+    private record CompiledRule(RateLimitProperties.Rule rule, PathPattern pattern) {
+    }
+
+    private final List<CompiledRule> rules;
+    private final boolean fleetEnabled;
+    private final int maxClients;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final LockCircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoTime;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(RateLimitProperties properties, RedisTemplate<String, String> redisTemplate,
+                       LockCircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this(properties, redisTemplate, circuitBreaker, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, RedisTemplate<String, String> redisTemplate,
+                LockCircuitBreaker circuitBreaker, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.rules = properties.rules().stream()
+                .map(rule -> new CompiledRule(rule, PathPatternParser.defaultInstance.parse(rule.path())))
+                .toList();
+        this.fleetEnabled = properties.fleetEnabled();
+        this.maxClients = properties.maxClients();
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        this.nanoTime = nanoTime;
+        meterRegistry.gaugeMapSize("cinema.rate-limit.clients", List.of(), buckets);
+    }
+
+    /**
+     * Prima regola con metodo e path corrispondenti.
+     */
+    public Optional<RateLimitProperties.Rule> ruleFor(String method, String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        return rules.stream()
+                .filter(compiled -> compiled.rule().method().equalsIgnoreCase(method)
+                        && compiled.pattern().matches(container))
+                .map(CompiledRule::rule)
+                .findFirst();
+    }
+
+    /**
+     * Bucket del client e bucket dell'IP: cambiare email o chiave non sfugge al limite per indirizzo.
+     * Una richiesta respinta da un livello non consuma nulla negli altri: i token locali già presi
+     * vengono restituiti e la finestra di flotta controlla client e IP insieme.
+     * Oltre maxClients i nuovi client non ottengono un bucket proprio e resta solo quello dell'IP;
+     * un IP nuovo viene respinto finché la pulizia periodica non libera posto.
+     */
+    public Decision tryAcquire(RateLimitProperties.Rule rule, String client, String ip) {
+        RateLimitProperties.Rule ipRule = rule.perIp();
+        long now = nanoTime.getAsLong();
+        TokenBucket ipBucket = bucket(ipRule, ip, now);
+        TokenBucket clientBucket = client.equals(ip) ? null : bucket(rule, client, now);
+
+        Decision decision = ipBucket == null
+                ? new Decision(false, ipRule.refillPeriod().toNanos(), TIER_LOCAL)
+                : local(clientBucket, ipBucket, now);
+        if (decision.allowed()) {
+            decision = fleet(rule, ipRule, client, ip);
+            if (!decision.allowed()) {
+                refund(clientBucket);
+                refund(ipBucket);
+            }
+        }
+        if (!decision.allowed()) {
+            meterRegistry.counter("cinema.rate-limit.rejected", "rule", rule.name(), "tier", decision.tier()).increment();
+        }
+        return decision;
+    }
+
+    /**
+     * Bucket esistente o nuovo; null se maxClients è raggiunto.
+     */
+    private TokenBucket bucket(RateLimitProperties.Rule rule, String client, long now) {
+        String key = rule.name() + "|" + client;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null && buckets.size() < maxClients) {
+            bucket = buckets.computeIfAbsent(key,
+                    ignored -> new TokenBucket(rule.capacity(), rule.refillPeriod().toNanos(), now));
+        }
+        return bucket;
+    }
+
+    private static Decision local(TokenBucket clientBucket, TokenBucket ipBucket, long now) {
+        long wait = clientBucket == null ? 0 : clientBucket.tryConsume(now);
+        if (wait == 0) {
+            wait = ipBucket.tryConsume(now);
+            if (wait != 0) {
+                refund(clientBucket);
+            }
+        }
+        return wait == 0 ? Decision.ALLOWED : new Decision(false, wait, TIER_LOCAL);
+    }
+
+    private static void refund(TokenBucket bucket) {
+        if (bucket != null) {
+            bucket.refund();
+        }
+    }
+
+    private Decision fleet(RateLimitProperties.Rule rule, RateLimitProperties.Rule ipRule, String client, String ip) {
+        if (!fleetEnabled || ipRule.fleetLimit() <= 0 || !circuitBreaker.allowsRedis()) {
+            return Decision.ALLOWED;
+        }
+
+        long window = rule.fleetWindow().toMillis();
+        long now = System.currentTimeMillis();
+        long index = now / window;
+        double previousWeight = 1 - (double) (now % window) / window;
+        List<String> keys = new ArrayList<>(4);
+        List<String> args = new ArrayList<>(List.of(String.valueOf(previousWeight), String.valueOf(2 * window)));
+        if (!client.equals(ip) && rule.fleetLimit() > 0) {
+            addWindow(keys, args, rule, client, index);
+        }
+        addWindow(keys, args, ipRule, ip, index);
+        try {
+            Long allowed = redisTemplate.execute(SLIDING_WINDOW, keys, args.toArray());
+            circuitBreaker.recordSuccess();
+            return Long.valueOf(1).equals(allowed)
+                    ? Decision.ALLOWED
+                    : new Decision(false, TimeUnit.MILLISECONDS.toNanos(window - now % window), TIER_FLEET);
+        } catch (Exception e) {
+            log.debug("Rate limit di flotta non disponibile: {}", e.getMessage());
+            circuitBreaker.recordFailure(e);
+            return Decision.ALLOWED;
+        }
+    }
+
+    private static void addWindow(List<String> keys, List<String> args, RateLimitProperties.Rule rule,
+                                  String client, long index) {
+        String prefix = "ratelimit:" + rule.name() + ":" + client + ":";
+        keys.add(prefix + index);
+        keys.add(prefix + (index - 1));
+        args.add(String.valueOf(rule.fleetLimit()));
+    }
+
+    /**
+     * Rimuove i bucket tornati pieni: per quei client nessuno stato da ricordare.
+     */
+    @Scheduled(fixedDelayString = "PT1M")
+    public void evictIdle() {
+        long now = nanoTime.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    int trackedClients() {
+        return buckets.size();
+    }
+}
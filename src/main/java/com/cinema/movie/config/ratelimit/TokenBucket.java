@@ -0,0 +1,54 @@
+package com.cinema.movie.config.ratelimit;
+
+/**
+ * Token bucket: fino a capacity richieste a raffica, un token ogni refillNanos.
+ * Il riempimento è calcolato a ogni richiesta, nessun timer.
+ */
+final class TokenBucket {
+
+    private final int capacity;
+    private final long refillNanos;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(int capacity, long refillNanos, long now) {
+        this.capacity = capacity;
+        this.refillNanos = refillNanos;
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    /**
+     * Consuma un token: 0 se la richiesta passa, altrimenti i nanosecondi fino al prossimo token.
+     */
+    synchronized long tryConsume(long now) {
+        refill(now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) * refillNanos);
+    }
+
+    /**
+     * Restituisce il token di una richiesta respinta da un altro livello.
+     */
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    /**
+     * Bucket di nuovo pieno: equivale a uno appena creato e può essere rimosso.
+     */
+    synchronized boolean isFull(long now) {
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (double) (now - lastRefill) / refillNanos);
+            lastRefill = now;
+        }
+    }
+}
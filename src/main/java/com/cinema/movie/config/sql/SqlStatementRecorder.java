@@ -0,0 +1,185 @@
+package com.cinema.movie.config.sql;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Contabilità SQL: statement e tempo di database per richiesta HTTP, aggregati per endpoint,
+ * e ultime query lente in un buffer circolare con parametri (email oscurate).
+ * La richiesta corrente è legata al thread che la serve: le query eseguite su altri thread
+ * (@Async, job schedulati) contano solo per le query lente.
+ */
+@Slf4j
+public class SqlStatementRecorder {
+
+    private static final Pattern EMAIL = Pattern.compile("[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}");
+    private static final String REDACTED = "<email>";
+
+    private final long slowThresholdNanos;
+    private final int repeatedThreshold;
+    private final SlowQuery[] slowQueries;
+    private final AtomicLong slowQuerySequence = new AtomicLong();
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final ThreadLocal<RequestStats> currentRequest = new ThreadLocal<>();
+
+    public record SlowQuery(String sql, List<String> parameters, long durationMs, String endpoint, LocalDateTime at) {
+    }
+
+    public record EndpointSummary(String endpoint, long requests, long statements, double avgStatements,
+                                  long maxStatements, long dbTimeMs, double avgDbTimeMs,
+                                  int maxSameStatement, String repeatedSql) {
+    }
+
+    public record Report(List<EndpointSummary> endpoints, List<SlowQuery> slowQueries) {
+    }
+
+    /**
+     * Statement della richiesta in corso; il conteggio per SQL serve a riconoscere gli N+1.
+     */
+    static final class RequestStats {
+        private final String requestLine;
+        private long statements;
+        private long nanos;
+        private final Map<String, Integer> executions = new HashMap<>();
+
+        RequestStats(String requestLine) {
+            this.requestLine = requestLine;
+        }
+    }
+
+    static final class EndpointStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final AtomicBoolean repeatedReported = new AtomicBoolean();
+        private volatile int maxSameStatement;
+        private volatile String repeatedSql;
+    }
+
+    public SqlStatementRecorder(SqlTrackingProperties properties) {
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+        this.repeatedThreshold = properties.repeatedThreshold();
+        this.slowQueries = new SlowQuery[properties.slowQueryCapacity()];
+    }
+
+    /**
+     * requestLine (metodo e path, senza query string) accompagna le query lente della richiesta.
+     */
+    public void beginRequest(String requestLine) {
+        currentRequest.set(new RequestStats(requestLine));
+    }
+
+    /**
+     * Chiude la richiesta corrente e la somma alle statistiche dell'endpoint.
+     */
+    public void endRequest(String endpoint) {
+        RequestStats request = currentRequest.get();
+        currentRequest.remove();
+        if (request == null) {
+            return;
+        }
+
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+        stats.requests.increment();
+        stats.statements.add(request.statements);
+        stats.nanos.add(request.nanos);
+        stats.maxStatements.accumulate(request.statements);
+
+        request.executions.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .filter(repeated -> repeated.getValue() > 1 && repeated.getValue() > stats.maxSameStatement)
+                .ifPresent(repeated -> {
+                    stats.maxSameStatement = repeated.getValue();
+                    stats.repeatedSql = repeated.getKey();
+                    if (repeated.getValue() >= repeatedThreshold && stats.repeatedReported.compareAndSet(false, true)) {
+                        log.warn("Possibile N+1 su {}: stesso statement eseguito {} volte: {}",
+                                endpoint, repeated.getValue(), repeated.getKey());
+                    }
+                });
+    }
+
+    /**
+     * Statement eseguito: parameters viene letto solo se la query è lenta.
+     */
+    public void record(String sql, List<Object> parameters, long nanos) {
+        RequestStats request = currentRequest.get();
+        if (request != null) {
+            request.statements++;
+            request.nanos += nanos;
+            request.executions.merge(sql, 1, Integer::sum);
+        }
+
+        if (nanos >= slowThresholdNanos && slowQueries.length > 0) {
+            var slow = new SlowQuery(redact(sql), redact(parameters), TimeUnit.NANOSECONDS.toMillis(nanos),
+                    request == null ? null : request.requestLine, LocalDateTime.now());
+            slowQueries[(int) (slowQuerySequence.getAndIncrement() % slowQueries.length)] = slow;
+        }
+    }
+
+    public Report report() {
+        List<EndpointSummary> summaries = endpoints.entrySet().stream()
+                .map(entry -> summarize(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(EndpointSummary::dbTimeMs).reversed())
+                .toList();
+        return new Report(summaries, slowQueries());
+    }
+
+    /**
+     * Query lente dalla più recente.
+     */
+    public List<SlowQuery> slowQueries() {
+        long next = slowQuerySequence.get();
+        List<SlowQuery> result = new ArrayList<>();
+        for (long i = next - 1; i >= 0 && i >= next - slowQueries.length; i--) {
+            SlowQuery slow = slowQueries[(int) (i % slowQueries.length)];
+            if (slow != null) {
+                result.add(slow);
+            }
+        }
+        return result;
+    }
+
+    public void reset() {
+        endpoints.clear();
+        slowQuerySequence.set(0);
+        Arrays.fill(slowQueries, null);
+    }
+
+    static String redact(String value) {
+        return value == null ? null : EMAIL.matcher(value).replaceAll(REDACTED);
+    }
+
+    private static List<String> redact(List<Object> parameters) {
+        return parameters.stream()
+                .map(parameter -> parameter == null ? "null" : redact(String.valueOf(parameter)))
+                .toList();
+    }
+
+    private static EndpointSummary summarize(String endpoint, EndpointStats stats) {
+        long requests = stats.requests.sum();
+        long statements = stats.statements.sum();
+        long nanos = stats.nanos.sum();
+        return new EndpointSummary(endpoint, requests, statements,
+                requests == 0 ? 0 : (double) statements / requests,
+                stats.maxStatements.get(),
+                TimeUnit.NANOSECONDS.toMillis(nanos),
+                requests == 0 ? 0 : nanos / 1_000_000.0 / requests,
+                stats.maxSameStatement,
+                stats.repeatedSql);
+    }
+}
@@ -0,0 +1,27 @@
+package com.cinema.movie.config.sql;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * /actuator/sql: statement e tempo di database per endpoint, ultime query lente.
+ * DELETE azzera le statistiche (es. prima di una prova di carico).
+ */
+@Endpoint(id = "sql")
+@RequiredArgsConstructor
+public class SqlStatementsEndpoint {
+
+    private final SqlStatementRecorder recorder;
+
+    @ReadOperation
+    public SqlStatementRecorder.Report sql() {
+        return recorder.report();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        recorder.reset();
+    }
+}
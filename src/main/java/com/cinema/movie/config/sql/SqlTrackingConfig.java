@@ -0,0 +1,56 @@
+package com.cinema.movie.config.sql;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Contabilità SQL per richiesta (cinema.sql-tracking.enabled, attiva di default).
+ * Avvolge solo il bean "dataSource": con le repliche è il proxy di routing,
+ * così ogni statement viene contato una volta sola.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cinema.sql-tracking", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(SqlTrackingProperties.class)
+public class SqlTrackingConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public SqlStatementRecorder sqlStatementRecorder(SqlTrackingProperties properties) {
+        return new SqlStatementRecorder(properties);
+    }
+
+    @Bean
+    public static BeanPostProcessor trackingDataSourcePostProcessor(ObjectProvider<SqlStatementRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof TrackingDataSource)) {
+                    return new TrackingDataSource(dataSource, recorder.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlTrackingFilter> sqlTrackingFilter(SqlStatementRecorder recorder) {
+        var registration = new FilterRegistrationBean<>(new SqlTrackingFilter(recorder));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public SqlStatementsEndpoint sqlStatementsEndpoint(SqlStatementRecorder recorder) {
+        return new SqlStatementsEndpoint(recorder);
+    }
+}
@@ -0,0 +1,37 @@
+package com.cinema.movie.config.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Apre e chiude la contabilità SQL di ogni richiesta. L'endpoint è il pattern
+ * della mappatura MVC (GET /api/movies/{id}), così gli id non moltiplicano le voci.
+ */
+@RequiredArgsConstructor
+public class SqlTrackingFilter extends OncePerRequestFilter {
+
+    private final SqlStatementRecorder recorder;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        recorder.beginRequest(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            recorder.endRequest(endpoint(request));
+        }
+    }
+
+    static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "(non mappato)");
+    }
+}
@@ -0,0 +1,19 @@
+package com.cinema.movie.config.sql;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Conteggio statement per richiesta e cattura query lente (cinema.sql-tracking.*).
+ * repeatedThreshold: esecuzioni dello stesso SQL in una richiesta oltre le quali l'endpoint è sospetto N+1.
+ */
+@ConfigurationProperties(prefix = "cinema.sql-tracking")
+public record SqlTrackingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100ms") Duration slowThreshold,
+        @DefaultValue("100") int slowQueryCapacity,
+        @DefaultValue("10") int repeatedThreshold
+) {
+}
@@ -3,10 +3,11 @@ package com.cinema.movie.controller;
 import com.cinema.movie.dto.BookingRequest;
 import com.cinema.movie.dto.BookingResponse;
 import com.cinema.movie.service.BookingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -27,11 +29,11 @@ import java.util.concurrent.CompletableFuture;
 @RestController
 @RequestMapping("/api/bookings")
 @Validated
-@Slf4j
 @RequiredArgsConstructor
 public class BookingController {
 
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Crea nuova prenotazione.
@@ -41,9 +43,6 @@ public class BookingController {
     public ResponseEntity<BookingResponse> createBooking(
             @Valid @RequestBody BookingRequest request) {
 
-        log.info("Nuova prenotazione: {} posti per screening {}",
-                request.numberOfSeats(), request.screeningId());
-
         BookingResponse booking = bookingService.createBooking(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(booking);
     }
@@ -55,9 +54,6 @@ public class BookingController {
     public CompletableFuture<ResponseEntity<BookingResponse>> createBookingAsync(
             @Valid @RequestBody BookingRequest request) {
 
-        log.info("Prenotazione asincrona: {} posti per screening {}",
-                request.numberOfSeats(), request.screeningId());
-
         return bookingService.createBookingAsync(request)
                 .thenApply(booking -> ResponseEntity.status(HttpStatus.CREATED).body(booking));
     }
@@ -83,6 +79,21 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
 
+    /**
+     * Storico prenotazioni utente in streaming NDJSON.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUserBookings(
+            @RequestParam String userEmail) {
+
+        StreamingResponseBody body = out ->
+                bookingService.streamUserBookings(userEmail, new NdjsonStreamWriter<>(objectMapper, out));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * Cancella prenotazione.
      */
@@ -91,8 +102,6 @@ public class BookingController {
             @PathVariable Long id,
             @RequestParam String userEmail) {
 
-        log.info("Cancellazione prenotazione {} per utente {}", id, userEmail);
-
         BookingResponse cancelled = bookingService.cancelBooking(id, userEmail);
         return ResponseEntity.ok(cancelled);
     }
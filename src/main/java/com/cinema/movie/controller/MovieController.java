@@ -1,14 +1,36 @@
 package com.cinema.movie.controller;
 
+import com.cinema.movie.dto.MovieField;
+import com.cinema.movie.dto.MovieFieldsResponse;
 import com.cinema.movie.dto.MovieResponse;
+import com.cinema.movie.dto.MovieSuggestion;
+import com.cinema.movie.dto.MovieSummaryResponse;
+import com.cinema.movie.dto.PopularMovieResponse;
 import com.cinema.movie.dto.ScreeningResponse;
+import com.cinema.movie.dto.SeatAvailability;
+import com.cinema.movie.exception.InvalidParameterException;
+import com.cinema.movie.repository.ScreeningWindow;
 import com.cinema.movie.service.MovieService;
+import com.cinema.movie.service.popularity.PopularityService;
+import com.cinema.movie.service.popularity.PopularityWindow;
+import com.cinema.movie.service.search.MovieSuggester;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST Controller per gestione film e proiezioni.
@@ -21,23 +43,59 @@ import java.util.List;
 public class MovieController {
 
     private final MovieService movieService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Lista tutti i film.
+     * fields= seleziona i campi (es. title,genre); from/to e next limitano le proiezioni incluse.
      */
     @GetMapping
-    public ResponseEntity<List<MovieResponse>> getAllMovies() {
-        List<MovieResponse> movies = movieService.getAllMovies();
+    public ResponseEntity<List<?>> getAllMovies(
+            @RequestParam(required = false) Set<MovieField> fields,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer next) {
+
+        ScreeningWindow window = screeningWindow(from, to, next);
+        if (fields != null) {
+            return ResponseEntity.ok(movieService.getMovies(fields, window).stream()
+                    .map(MovieFieldsResponse::from)
+                    .toList());
+        }
+        List<MovieResponse> movies = window.isUnbounded()
+                ? movieService.getAllMovies()
+                : movieService.getMovies(MovieField.all(), window);
         return ResponseEntity.ok(movies);
     }
 
     /**
      * Recupera film per ID con proiezioni.
+     * Stessi parametri di selezione della lista.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<MovieResponse> getMovie(@PathVariable Long id) {
-        return movieService.getMovieWithScreenings(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<?> getMovie(
+            @PathVariable Long id,
+            @RequestParam(required = false) Set<MovieField> fields,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer next) {
+
+        ScreeningWindow window = screeningWindow(from, to, next);
+        Optional<?> movie;
+        if (fields != null) {
+            movie = movieService.getMovie(id, fields, window).map(MovieFieldsResponse::from);
+        } else {
+            movie = window.isUnbounded()
+                    ? movieService.getMovieWithScreenings(id)
+                    : movieService.getMovie(id, MovieField.all(), window);
+        }
+
+        return movie
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -50,6 +108,15 @@ public class MovieController {
         return ResponseEntity.ok(movies);
     }
 
+    /**
+     * Film con proiezioni disponibili in forma compatta: prossimo spettacolo, prezzo minimo e posti rimasti.
+     */
+    @GetMapping("/available/summary")
+    public ResponseEntity<List<MovieSummaryResponse>> getAvailableMovieSummaries() {
+        List<MovieSummaryResponse> movies = movieService.getAvailableMovieSummaries();
+        return ResponseEntity.ok(movies);
+    }
+
     /**
      * Lista proiezioni disponibili oggi.
      */
@@ -59,6 +126,56 @@ public class MovieController {
         return ResponseEntity.ok(screenings);
     }
 
+    /**
+     * Proiezioni disponibili in un intervallo di date.
+     * Default: da ora, senza limite superiore.
+     */
+    @GetMapping("/screenings")
+    public ResponseEntity<List<ScreeningResponse>> getScreenings(
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        requireOrderedRange(start, to);
+        List<ScreeningResponse> screenings = movieService.getScreenings(start, to);
+        return ResponseEntity.ok(screenings);
+    }
+
+    /**
+     * Posti disponibili in tempo reale (Server-Sent Events) per il seat-picker.
+     * Sostituisce il polling: gli aggiornamenti arrivano raggruppati solo quando i posti cambiano.
+     * 404 se la proiezione non esiste.
+     */
+    @GetMapping(value = "/screenings/{id}/seats", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<SeatAvailability>>> streamSeatAvailability(@PathVariable Long id) {
+        return movieService.subscribeSeatAvailability(id)
+                .map(updates -> updates.map(seats -> ServerSentEvent.builder(seats)
+                        .event("seats")
+                        .build()))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Palinsesto completo in streaming NDJSON per feed partner.
+     * Default: dalle proiezioni future rispetto ad ora.
+     */
+    @GetMapping(value = "/screenings/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSchedule(
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from) {
+
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        StreamingResponseBody body = out ->
+                movieService.streamSchedule(start, new NdjsonStreamWriter<>(objectMapper, out));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * Ricerca film per genere.
      */
@@ -70,4 +187,51 @@ public class MovieController {
         List<MovieResponse> movies = movieService.searchMovies(genre, title);
         return ResponseEntity.ok(movies);
     }
+
+    /**
+     * Autocompletamento titoli per la ricerca del front-end.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<MovieSuggestion>> suggestMovies(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "Minimo 1 suggerimento")
+            @Max(value = MovieSuggester.MAX_SUGGESTIONS, message = "Massimo " + MovieSuggester.MAX_SUGGESTIONS + " suggerimenti")
+            int limit) {
+
+        List<MovieSuggestion> suggestions = movieService.suggestMovies(q, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    /**
+     * Classifica film più prenotati (HOUR, DAY, WEEK, ALL_TIME).
+     */
+    @GetMapping("/popular")
+    public ResponseEntity<List<PopularMovieResponse>> getPopularMovies(
+            @RequestParam(defaultValue = "DAY") PopularityWindow window,
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "Minimo 1 film")
+            @Max(value = PopularityService.MAX_RESULTS, message = "Massimo " + PopularityService.MAX_RESULTS + " film")
+            int limit) {
+
+        List<PopularMovieResponse> movies = movieService.getPopularMovies(window, limit);
+        return ResponseEntity.ok(movies);
+    }
+
+    /**
+     * next=N senza from indica i prossimi N spettacoli da ora.
+     */
+    private static ScreeningWindow screeningWindow(LocalDateTime from, LocalDateTime to, Integer next) {
+        requireOrderedRange(from, to);
+        if (next == null) {
+            return new ScreeningWindow(from, to, null);
+        }
+        return new ScreeningWindow(from != null ? from : LocalDateTime.now(), to, Math.max(next, 1));
+    }
+
+    private static void requireOrderedRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new InvalidParameterException("to", "Il parametro to non può precedere from");
+        }
+    }
 }
@@ -0,0 +1,17 @@
+package com.cinema.movie.controller;
+
+import com.cinema.movie.dto.MovieField;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converte i nomi del parametro fields= (es. "title,genre") senza distinzione maiuscole.
+ */
+@Component
+class MovieFieldConverter implements Converter<String, MovieField> {
+
+    @Override
+    public MovieField convert(String source) {
+        return MovieField.fromParameter(source);
+    }
+}
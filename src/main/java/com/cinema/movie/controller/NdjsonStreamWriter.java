@@ -0,0 +1,42 @@
+package com.cinema.movie.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Scrive oggetti come NDJSON (un documento JSON per riga) direttamente sulla response.
+ * Il primo elemento viene inviato subito per ridurre il time-to-first-byte,
+ * poi si fa flush a blocchi per non pagare una syscall per riga.
+ */
+final class NdjsonStreamWriter<T> implements Consumer<T> {
+
+    private static final int FLUSH_EVERY = 100;
+    private static final byte NEW_LINE = '\n';
+
+    private final ObjectWriter writer;
+    private final OutputStream out;
+    private long written;
+
+    NdjsonStreamWriter(ObjectMapper objectMapper, OutputStream out) {
+        this.writer = objectMapper.writer();
+        this.out = out;
+    }
+
+    @Override
+    public void accept(T item) {
+        try {
+            out.write(writer.writeValueAsBytes(item));
+            out.write(NEW_LINE);
+            if (written++ % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
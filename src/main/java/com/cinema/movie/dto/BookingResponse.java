@@ -1,6 +1,7 @@
 package com.cinema.movie.dto;
 
 import com.cinema.movie.entity.BookingStatus;
+import com.cinema.movie.entity.UserBookingView;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -23,7 +24,7 @@ public record BookingResponse(
         return new BookingResponse(
                 booking.getId(),
                 booking.getScreening().getId(),
-                booking.getUserEmail(),
+                booking.getUser().getEmail(),
                 booking.getNumberOfSeats(),
                 booking.getTotalPrice(),
                 booking.getStatus(),
@@ -32,4 +33,19 @@ public record BookingResponse(
                 booking.getScreening().getStartTime()
         );
     }
+
+    // Dallo storico denormalizzato: nessun accesso a screening, movie e users
+    public static BookingResponse from(UserBookingView view, String userEmail) {
+        return new BookingResponse(
+                view.getBookingId(),
+                view.getScreeningId(),
+                userEmail,
+                view.getNumberOfSeats(),
+                view.getTotalPrice(),
+                view.getStatus(),
+                view.getCreatedAt(),
+                view.getMovieTitle(),
+                view.getScreeningTime()
+        );
+    }
 }
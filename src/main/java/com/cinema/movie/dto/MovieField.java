@@ -0,0 +1,48 @@
+package com.cinema.movie.dto;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Campi selezionabili di MovieResponse con il parametro fields=.
+ * attribute è il nome dell'attributo JPA letto dalla query.
+ */
+public enum MovieField {
+
+    TITLE("title"),
+    GENRE("genre"),
+    DURATION("duration"),
+    DESCRIPTION("description"),
+    SCREENINGS("screenings");
+
+    private final String attribute;
+
+    MovieField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    /**
+     * Colonne della tabella movies (le proiezioni hanno una query dedicata).
+     */
+    public boolean isColumn() {
+        return this != SCREENINGS;
+    }
+
+    public static Set<MovieField> all() {
+        return EnumSet.allOf(MovieField.class);
+    }
+
+    public static MovieField fromParameter(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(field -> field.attribute.equals(normalized))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Campo non supportato: " + value));
+    }
+}
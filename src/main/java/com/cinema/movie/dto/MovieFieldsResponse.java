@@ -0,0 +1,30 @@
+package com.cinema.movie.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Film con i soli campi richiesti con fields=.
+ * I campi non richiesti restano null e non vengono serializzati; la risposta completa resta MovieResponse.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MovieFieldsResponse(
+        Long id,
+        String title,
+        String genre,
+        Integer duration,
+        String description,
+        List<ScreeningResponse> screenings
+) {
+    public static MovieFieldsResponse from(MovieResponse movie) {
+        return new MovieFieldsResponse(
+                movie.id(),
+                movie.title(),
+                movie.genre(),
+                movie.duration(),
+                movie.description(),
+                movie.screenings()
+        );
+    }
+}
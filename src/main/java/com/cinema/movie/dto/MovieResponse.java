@@ -4,6 +4,7 @@ import java.util.List;
 
 /**
  * DTO per film con proiezioni.
+ * Con fields= i campi non richiesti restano null; il controller li risponde come MovieFieldsResponse.
  */
 public record MovieResponse(
         Long id,
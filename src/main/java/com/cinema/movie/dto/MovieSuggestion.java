@@ -0,0 +1,10 @@
+package com.cinema.movie.dto;
+
+/**
+ * DTO per suggerimento di autocompletamento.
+ */
+public record MovieSuggestion(
+        Long movieId,
+        String title
+) {
+}
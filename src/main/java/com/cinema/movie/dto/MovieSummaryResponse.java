@@ -0,0 +1,33 @@
+package com.cinema.movie.dto;
+
+import com.cinema.movie.repository.MovieAvailabilitySummary;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO per riepilogo film prenotabile: prossimo spettacolo, prezzo minimo, posti rimasti.
+ */
+public record MovieSummaryResponse(
+        Long movieId,
+        String title,
+        String genre,
+        Integer duration,
+        LocalDateTime nextStartTime,
+        int bookableScreenings,
+        BigDecimal minPrice,
+        long seatsLeft
+) {
+    public static MovieSummaryResponse from(MovieAvailabilitySummary summary) {
+        return new MovieSummaryResponse(
+                summary.getMovieId(),
+                summary.getTitle(),
+                summary.getGenre(),
+                summary.getDuration(),
+                summary.getNextStartTime(),
+                summary.getBookableScreenings().intValue(),
+                summary.getMinPrice(),
+                summary.getSeatsLeft()
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package com.cinema.movie.dto;
+
+/**
+ * DTO per film in classifica di popolarità.
+ */
+public record PopularMovieResponse(
+        Long movieId,
+        String title,
+        long confirmedBookings
+) {
+}
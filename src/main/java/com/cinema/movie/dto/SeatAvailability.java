@@ -0,0 +1,13 @@
+package com.cinema.movie.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO per aggiornamento posti disponibili inviato ai seat-picker.
+ */
+public record SeatAvailability(
+        Long screeningId,
+        int availableSeats,
+        LocalDateTime updatedAt
+) {
+}
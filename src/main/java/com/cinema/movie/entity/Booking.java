@@ -23,8 +23,9 @@ public class Booking {
     @JoinColumn(name = "screening_id", nullable = false)
     private Screening screening;
 
-    @Column(name = "user_email", nullable = false, length = 255)
-    private String userEmail;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
 
     @Column(name = "number_of_seats", nullable = false)
     private Integer numberOfSeats;
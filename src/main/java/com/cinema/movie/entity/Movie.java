@@ -1,5 +1,6 @@
 package com.cinema.movie.entity;
 
+import com.cinema.movie.event.CatalogEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(CatalogEntityListener.class)
 @Table(name = "movies")
 @Data
 @NoArgsConstructor
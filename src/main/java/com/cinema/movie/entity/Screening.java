@@ -1,5 +1,6 @@
 package com.cinema.movie.entity;
 
+import com.cinema.movie.event.CatalogEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -11,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(CatalogEntityListener.class)
 @Table(name = "screenings")
 @Data
 @NoArgsConstructor
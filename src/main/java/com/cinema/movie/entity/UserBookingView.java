@@ -0,0 +1,103 @@
+package com.cinema.movie.entity;
+
+import com.cinema.movie.event.BookingEvent;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Riga dello storico prenotazioni utente: copia denormalizzata di Booking,
+ * Screening e Movie. Scritta solo da BookingHistoryProjection.
+ * L'id è il bookingId assegnato dall'applicazione: Persistable evita che save() faccia
+ * merge con SELECT preventiva per la riga appena creata.
+ */
+@Entity
+@Table(name = "user_booking_view")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBookingView implements Persistable<Long> {
+
+    @Id
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "screening_id", nullable = false)
+    private Long screeningId;
+
+    @Column(name = "movie_id", nullable = false)
+    private Long movieId;
+
+    @Column(name = "movie_title", nullable = false, length = 200)
+    private String movieTitle;
+
+    @Column(name = "screening_time", nullable = false)
+    private LocalDateTime screeningTime;
+
+    @Column(name = "number_of_seats", nullable = false)
+    private Integer numberOfSeats;
+
+    @Column(name = "total_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalPrice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BookingStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Vero solo per la riga della prenotazione appena creata, mai per quelle lette o salvate
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newRow;
+
+    public static UserBookingView from(BookingEvent event) {
+        return new UserBookingView(
+                event.bookingId(),
+                event.userId(),
+                event.screeningId(),
+                event.movieId(),
+                event.movieTitle(),
+                event.screeningTime(),
+                event.numberOfSeats(),
+                event.totalPrice(),
+                event.status(),
+                event.createdAt(),
+                // La creazione riserva posti, la cancellazione li libera e aggiorna una riga esistente
+                event.seatDelta() < 0
+        );
+    }
+
+    @Override
+    public Long getId() {
+        return bookingId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRow;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newRow = false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.cinema.movie.event;
+
+import com.cinema.movie.entity.Booking;
+import com.cinema.movie.entity.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Evento di cambio stato di una prenotazione (creazione confermata, cancellazione).
+ * Contiene i dati denormalizzati necessari ai read model, senza riferimenti a entity.
+ */
+public record BookingEvent(
+        Long bookingId,
+        Long screeningId,
+        Long movieId,
+        String movieTitle,
+        LocalDateTime screeningTime,
+        Long userId,
+        String userEmail,
+        int numberOfSeats,
+        BigDecimal totalPrice,
+        BookingStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime confirmedAt
+) {
+    public static BookingEvent from(Booking booking) {
+        var screening = booking.getScreening();
+        return new BookingEvent(
+                booking.getId(),
+                screening.getId(),
+                screening.getMovie().getId(),
+                screening.getMovie().getTitle(),
+                screening.getStartTime(),
+                booking.getUser().getId(),
+                booking.getUser().getEmail(),
+                booking.getNumberOfSeats(),
+                booking.getTotalPrice(),
+                booking.getStatus(),
+                booking.getCreatedAt(),
+                booking.getConfirmedAt()
+        );
+    }
+
+    /**
+     * Variazione dei posti disponibili causata dall'evento.
+     */
+    public int seatDelta() {
+        return switch (status) {
+            case CONFIRMED, PENDING -> -numberOfSeats;
+            case CANCELLED, EXPIRED -> numberOfSeats;
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.cinema.movie.event;
+
+/**
+ * Evento di modifica del catalogo (film o proiezione).
+ * screeningId è null quando cambia il film stesso.
+ */
+public record CatalogChangedEvent(
+        Long movieId,
+        Long screeningId
+) {
+    public static CatalogChangedEvent movie(Long movieId) {
+        return new CatalogChangedEvent(movieId, null);
+    }
+
+    public static CatalogChangedEvent screening(Long movieId, Long screeningId) {
+        return new CatalogChangedEvent(movieId, screeningId);
+    }
+
+    public boolean isMovieChange() {
+        return screeningId == null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.cinema.movie.event;
+
+import com.cinema.movie.entity.Movie;
+import com.cinema.movie.entity.Screening;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener che traduce le modifiche a Movie e Screening in CatalogChangedEvent.
+ * Hibernate lo istanzia tramite lo SpringBeanContainer, quindi è un bean a tutti gli effetti.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onChange(Object entity) {
+        switch (entity) {
+            case Movie movie -> eventPublisher.publishEvent(CatalogChangedEvent.movie(movie.getId()));
+            case Screening screening -> eventPublisher.publishEvent(
+                    CatalogChangedEvent.screening(screening.getMovie().getId(), screening.getId()));
+            default -> {
+                // Nessun evento per altre entity
+            }
+        }
+    }
+}
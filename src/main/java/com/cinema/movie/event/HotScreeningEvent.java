@@ -0,0 +1,20 @@
+package com.cinema.movie.event;
+
+/**
+ * Proiezione diventata calda (o tornata normale) per contesa sul lock di prenotazione.
+ * Utile per pre-caricare cache o cambiare strategia sulla singola proiezione.
+ */
+public record HotScreeningEvent(
+        Long screeningId,
+        long requests,
+        long lockFailures,
+        boolean hot
+) {
+    public static HotScreeningEvent heated(Long screeningId, long requests, long lockFailures) {
+        return new HotScreeningEvent(screeningId, requests, lockFailures, true);
+    }
+
+    public static HotScreeningEvent cooled(Long screeningId, long requests, long lockFailures) {
+        return new HotScreeningEvent(screeningId, requests, lockFailures, false);
+    }
+}
@@ -0,0 +1,45 @@
+package com.cinema.movie.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evento del palinsesto in memoria: proiezioni cambiate per i film in movieIds,
+ * posti cambiati in seatChanges (con il valore precedente, per aggiornare i read model
+ * senza rileggere il database). Entrambi vuoti quando il palinsesto è stato ricaricato per intero.
+ */
+public record ScheduleChangedEvent(
+        Set<Long> movieIds,
+        List<SeatChange> seatChanges
+) {
+    /**
+     * Posti disponibili di una proiezione passati da previousSeats ad availableSeats.
+     */
+    public record SeatChange(
+            Long screeningId,
+            Long movieId,
+            LocalDateTime startTime,
+            BigDecimal price,
+            int previousSeats,
+            int availableSeats
+    ) {
+    }
+
+    public static ScheduleChangedEvent reloaded() {
+        return new ScheduleChangedEvent(Set.of(), List.of());
+    }
+
+    public static ScheduleChangedEvent movies(Set<Long> movieIds) {
+        return new ScheduleChangedEvent(Set.copyOf(movieIds), List.of());
+    }
+
+    public static ScheduleChangedEvent seats(List<SeatChange> seatChanges) {
+        return new ScheduleChangedEvent(Set.of(), List.copyOf(seatChanges));
+    }
+
+    public boolean isReload() {
+        return movieIds.isEmpty() && seatChanges.isEmpty();
+    }
+}
@@ -1,12 +1,17 @@
 package com.cinema.movie.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -25,7 +30,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(BookingException.class)
     public ResponseEntity<ErrorResponse> handleBookingException(BookingException e) {
-        log.warn("Errore prenotazione: {}", e.getMessage());
+        // Le prenotazioni respinte sono già nel log campionato di BookingEventLog
+        log.debug("Errore prenotazione: {}", e.getMessage());
 
         ErrorResponse error = new ErrorResponse(
                 "BOOKING_ERROR",
@@ -36,6 +42,27 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(error);
     }
 
+    /**
+     * Gestisce il rifiuto per sovraccarico: 503 con Retry-After, senza stack trace nel log.
+     * Corpo sempre JSON, anche per chi chiede text/event-stream (sottoscrizione ai posti).
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloaded(ServiceOverloadedException e) {
+        log.debug("Richiesta rifiutata: {}", e.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                "SERVICE_OVERLOADED",
+                "Servizio sovraccarico, riprovare più tardi",
+                LocalDateTime.now()
+        );
+
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error);
+    }
+
     /**
      * Gestisce errori di validazione input.
      */
@@ -62,6 +89,75 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    /**
+     * Gestisce vincoli violati sui parametri di query (es. limit fuori intervallo).
+     */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ValidationErrorResponse> handleMethodValidation(HandlerMethodValidationException e) {
+        log.warn("Errore validazione parametri: {}", e.getMessage());
+
+        Map<String, String> errors = new HashMap<>();
+        e.getParameterValidationResults().forEach(result -> result.getResolvableErrors().forEach(error ->
+                errors.put(result.getMethodParameter().getParameterName(), error.getDefaultMessage())));
+
+        ValidationErrorResponse response = new ValidationErrorResponse(
+                "VALIDATION_ERROR",
+                "Errori di validazione input",
+                errors,
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    /**
+     * Gestisce parametri di query non convertibili (es. campo o enum sconosciuto).
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException e) {
+        log.warn("Parametro non valido {}: {}", e.getName(), e.getValue());
+
+        ErrorResponse error = new ErrorResponse(
+                "INVALID_PARAMETER",
+                "Valore non valido per il parametro " + e.getName(),
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    /**
+     * Gestisce parametri di query incoerenti tra loro (es. to precedente a from).
+     */
+    @ExceptionHandler(InvalidParameterException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidParameter(InvalidParameterException e) {
+        log.warn("Parametro non valido {}: {}", e.getParameter(), e.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                "INVALID_PARAMETER",
+                e.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    /**
+     * Gestisce path senza handler, compresi gli endpoint actuator non esposti nel profilo attivo.
+     */
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNoResource(NoResourceFoundException e) {
+        log.debug("Risorsa non trovata: {}", e.getResourcePath());
+
+        ErrorResponse error = new ErrorResponse(
+                "NOT_FOUND",
+                "Risorsa non trovata",
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
     /**
      * Gestisce errori generici.
      */
@@ -0,0 +1,18 @@
+package com.cinema.movie.exception;
+
+/**
+ * Parametro di query valido nel formato ma non nel significato (es. intervallo invertito).
+ */
+public class InvalidParameterException extends RuntimeException {
+
+    private final String parameter;
+
+    public InvalidParameterException(String parameter, String message) {
+        super(message);
+        this.parameter = parameter;
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+}
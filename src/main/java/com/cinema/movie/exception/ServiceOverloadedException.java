@@ -0,0 +1,20 @@
+package com.cinema.movie.exception;
+
+import java.time.Duration;
+
+/**
+ * Richiesta rifiutata per sovraccarico: il client può riprovare dopo retryAfter.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,13 @@
+package com.cinema.movie.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection: singola conferma di prenotazione per ricostruire le finestre temporali.
+ */
+public interface BookingConfirmation {
+
+    Long getMovieId();
+
+    LocalDateTime getConfirmedAt();
+}
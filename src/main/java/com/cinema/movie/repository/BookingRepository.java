@@ -2,19 +2,37 @@ package com.cinema.movie.repository;
 
 import com.cinema.movie.entity.Booking;
 import com.cinema.movie.entity.BookingStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    // Prenotazioni per utente
-    List<Booking> findByUserEmailOrderByCreatedAtDesc(String userEmail);
+    // Singola prenotazione con utente, proiezione e film in una query
+    @Override
+    @EntityGraph(attributePaths = {"user", "screening", "screening.movie"})
+    Optional<Booking> findById(Long id);
+
+    /**
+     * Cancellazione condizionata: con due richieste concorrenti solo la prima trova la prenotazione
+     * ancora attiva e aggiorna una riga; la seconda aggiorna 0 righe e non rilascia posti.
+     */
+    @Modifying
+    @Query("""
+        UPDATE Booking b
+        SET b.status = 'CANCELLED'
+        WHERE b.id = :bookingId
+        AND b.status IN ('CONFIRMED', 'PENDING')
+        """)
+    int cancelIfActive(@Param("bookingId") Long bookingId);
 
     // Prenotazioni per proiezione
     List<Booking> findByScreeningIdAndStatus(Long screeningId, BookingStatus status);
@@ -36,6 +54,25 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
         """)
     List<Booking> findExpiredPendingBookings(@Param("cutoffTime") LocalDateTime cutoffTime);
 
+    // Conteggio conferme per film - usato solo dal rebuild periodico della popolarità
+    @Query("""
+        SELECT s.movie.id AS movieId, s.movie.title AS title, COUNT(b.id) AS bookings
+        FROM Booking b
+        JOIN b.screening s
+        WHERE b.status = 'CONFIRMED'
+        GROUP BY s.movie.id, s.movie.title
+        """)
+    List<MovieBookingCount> countConfirmedByMovie();
+
+    // Conferme recenti per ricostruire le finestre scorrevoli
+    @Query("""
+        SELECT b.screening.movie.id AS movieId, b.confirmedAt AS confirmedAt
+        FROM Booking b
+        WHERE b.status = 'CONFIRMED'
+        AND b.confirmedAt >= :since
+        """)
+    List<BookingConfirmation> findConfirmationsSince(@Param("since") LocalDateTime since);
+
     // Prenotazioni di un utente per un film specifico
-    List<Booking> findByUserEmailAndScreening_MovieId(String userEmail, Long movieId);
+    List<Booking> findByUser_IdAndScreening_MovieId(Long userId, Long movieId);
 }
\ No newline at end of file
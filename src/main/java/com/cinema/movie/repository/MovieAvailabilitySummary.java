@@ -0,0 +1,26 @@
+package com.cinema.movie.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projection: riepilogo delle proiezioni prenotabili di un film.
+ */
+public interface MovieAvailabilitySummary {
+
+    Long getMovieId();
+
+    String getTitle();
+
+    String getGenre();
+
+    Integer getDuration();
+
+    LocalDateTime getNextStartTime();
+
+    Long getBookableScreenings();
+
+    BigDecimal getMinPrice();
+
+    Long getSeatsLeft();
+}
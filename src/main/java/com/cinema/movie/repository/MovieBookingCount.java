@@ -0,0 +1,13 @@
+package com.cinema.movie.repository;
+
+/**
+ * Projection: prenotazioni confermate per film.
+ */
+public interface MovieBookingCount {
+
+    Long getMovieId();
+
+    String getTitle();
+
+    Long getBookings();
+}
@@ -0,0 +1,18 @@
+package com.cinema.movie.repository;
+
+import com.cinema.movie.dto.MovieField;
+import com.cinema.movie.dto.MovieResponse;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Letture parziali dei film: solo le colonne richieste e le proiezioni nella finestra.
+ */
+public interface MovieProjectionRepository {
+
+    List<MovieResponse> findMovies(Set<MovieField> fields, ScreeningWindow window);
+
+    Optional<MovieResponse> findMovie(Long id, Set<MovieField> fields, ScreeningWindow window);
+}
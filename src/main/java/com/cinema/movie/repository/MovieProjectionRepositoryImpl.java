@@ -0,0 +1,144 @@
+package com.cinema.movie.repository;
+
+import com.cinema.movie.dto.MovieField;
+import com.cinema.movie.dto.MovieResponse;
+import com.cinema.movie.dto.ScreeningResponse;
+import com.cinema.movie.entity.Movie;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Implementazione con Criteria API: la SELECT contiene solo le colonne richieste,
+ * quindi la descrizione viene letta solo se richiesta esplicitamente.
+ * Le proiezioni arrivano da una seconda query già filtrata per finestra.
+ */
+class MovieProjectionRepositoryImpl implements MovieProjectionRepository {
+
+    private static final String SCREENING_SELECT = """
+        SELECT new com.cinema.movie.dto.ScreeningResponse(
+            s.id, m.id, m.title, s.startTime, s.availableSeats, s.price)
+        FROM Screening s JOIN s.movie m
+        """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<MovieResponse> findMovies(Set<MovieField> fields, ScreeningWindow window) {
+        return find(null, fields, window);
+    }
+
+    @Override
+    public Optional<MovieResponse> findMovie(Long id, Set<MovieField> fields, ScreeningWindow window) {
+        return find(id, fields, window).stream().findFirst();
+    }
+
+    private List<MovieResponse> find(Long id, Set<MovieField> fields, ScreeningWindow window) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Movie> movie = query.from(Movie.class);
+
+        List<Selection<?>> columns = new ArrayList<>();
+        columns.add(movie.get("id").alias("id"));
+        fields.stream()
+                .filter(MovieField::isColumn)
+                .forEach(field -> columns.add(movie.get(field.attribute()).alias(field.attribute())));
+        query.multiselect(columns);
+        if (id != null) {
+            query.where(cb.equal(movie.get("id"), id));
+        }
+        query.orderBy(cb.asc(movie.get("id")));
+
+        List<Tuple> rows = entityManager.createQuery(query).getResultList();
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<ScreeningResponse>> screenings = fields.contains(MovieField.SCREENINGS)
+                ? findScreenings(id, window)
+                : Map.of();
+
+        return rows.stream()
+                .map(row -> toResponse(row, fields, screenings))
+                .toList();
+    }
+
+    /**
+     * Proiezioni raggruppate per film, ordinate per orario.
+     * Con next si usa row_number() per film: il limite è applicato dal database.
+     */
+    private Map<Long, List<ScreeningResponse>> findScreenings(Long movieId, ScreeningWindow window) {
+        String jpql = window.next() == null
+                ? SCREENING_SELECT + "WHERE 1 = 1" + conditions("s", movieId, window) + " ORDER BY s.startTime, s.id"
+                : SCREENING_SELECT + """
+                    WHERE s.id IN (
+                        SELECT r.id FROM (
+                            SELECT w.id AS id,
+                                   row_number() OVER (PARTITION BY w.movie.id ORDER BY w.startTime, w.id) AS position
+                            FROM Screening w
+                            WHERE 1 = 1 %s
+                        ) r
+                        WHERE r.position <= :next)
+                    ORDER BY s.startTime, s.id
+                    """.formatted(conditions("w", movieId, window));
+
+        TypedQuery<ScreeningResponse> query = entityManager.createQuery(jpql, ScreeningResponse.class);
+        if (movieId != null) {
+            query.setParameter("movieId", movieId);
+        }
+        if (window.from() != null) {
+            query.setParameter("from", window.from());
+        }
+        if (window.to() != null) {
+            query.setParameter("to", window.to());
+        }
+        if (window.next() != null) {
+            query.setParameter("next", window.next().longValue());
+        }
+
+        Map<Long, List<ScreeningResponse>> byMovie = new LinkedHashMap<>();
+        query.getResultList().forEach(screening ->
+                byMovie.computeIfAbsent(screening.movieId(), key -> new ArrayList<>()).add(screening));
+        return byMovie;
+    }
+
+    private static String conditions(String alias, Long movieId, ScreeningWindow window) {
+        StringBuilder conditions = new StringBuilder();
+        if (movieId != null) {
+            conditions.append(" AND ").append(alias).append(".movie.id = :movieId");
+        }
+        if (window.from() != null) {
+            conditions.append(" AND ").append(alias).append(".startTime >= :from");
+        }
+        if (window.to() != null) {
+            conditions.append(" AND ").append(alias).append(".startTime < :to");
+        }
+        return conditions.toString();
+    }
+
+    private static MovieResponse toResponse(Tuple row, Set<MovieField> fields,
+                                            Map<Long, List<ScreeningResponse>> screenings) {
+        Long id = row.get("id", Long.class);
+        return new MovieResponse(
+                id,
+                fields.contains(MovieField.TITLE) ? row.get("title", String.class) : null,
+                fields.contains(MovieField.GENRE) ? row.get("genre", String.class) : null,
+                fields.contains(MovieField.DURATION) ? row.get("duration", Integer.class) : null,
+                fields.contains(MovieField.DESCRIPTION) ? row.get("description", String.class) : null,
+                fields.contains(MovieField.SCREENINGS) ? screenings.getOrDefault(id, List.of()) : null
+        );
+    }
+}
@@ -6,10 +6,13 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface MovieRepository extends JpaRepository<Movie, Long> {
+public interface MovieRepository extends JpaRepository<Movie, Long>, MovieProjectionRepository {
 
     // Query method derivata da Spring Data
     List<Movie> findByGenreIgnoreCase(String genre);
@@ -20,15 +23,46 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
     // Query method per durata
     List<Movie> findByDurationBetween(Integer minDuration, Integer maxDuration);
 
-    // Query personalizzata con @Query per film con proiezioni disponibili
+    // Riepilogo per film delle proiezioni prenotabili (read model /available)
     @Query("""
-        SELECT DISTINCT m FROM Movie m 
-        JOIN m.screenings s 
-        WHERE s.startTime > CURRENT_TIMESTAMP 
+        SELECT m.id AS movieId, m.title AS title, m.genre AS genre, m.duration AS duration,
+               MIN(s.startTime) AS nextStartTime,
+               COUNT(s.id) AS bookableScreenings,
+               MIN(s.price) AS minPrice,
+               SUM(s.availableSeats) AS seatsLeft
+        FROM Movie m
+        JOIN m.screenings s
+        WHERE s.startTime > :now
         AND s.availableSeats > 0
+        GROUP BY m.id, m.title, m.genre, m.duration
         ORDER BY m.title
         """)
-    List<Movie> findMoviesWithAvailableScreenings();
+    List<MovieAvailabilitySummary> findAvailabilitySummaries(@Param("now") LocalDateTime now);
+
+    // Stesso riepilogo per un solo film (aggiornamento incrementale del read model)
+    @Query("""
+        SELECT m.id AS movieId, m.title AS title, m.genre AS genre, m.duration AS duration,
+               MIN(s.startTime) AS nextStartTime,
+               COUNT(s.id) AS bookableScreenings,
+               MIN(s.price) AS minPrice,
+               SUM(s.availableSeats) AS seatsLeft
+        FROM Movie m
+        JOIN m.screenings s
+        WHERE m.id = :movieId
+        AND s.startTime > :now
+        AND s.availableSeats > 0
+        GROUP BY m.id, m.title, m.genre, m.duration
+        """)
+    Optional<MovieAvailabilitySummary> findAvailabilitySummary(@Param("movieId") Long movieId,
+                                                               @Param("now") LocalDateTime now);
+
+    // Film con tutte le proiezioni in una sola query (elenchi di id dai read model)
+    @Query("""
+        SELECT DISTINCT m FROM Movie m
+        LEFT JOIN FETCH m.screenings
+        WHERE m.id IN :ids
+        """)
+    List<Movie> findWithScreeningsByIdIn(@Param("ids") Collection<Long> ids);
 
     // Query per film più popolari (con più prenotazioni)
     @Query("""
@@ -41,6 +75,18 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
         """)
     List<Movie> findMostPopularMovies();
 
+    // Statistiche per i pesi dell'autocompletamento (popolarità e disponibilità)
+    @Query("""
+        SELECT m.id AS movieId, m.title AS title,
+               COALESCE(SUM(s.totalSeats - s.availableSeats), 0) AS bookedSeats,
+               COALESCE(SUM(CASE WHEN s.startTime > :now AND s.availableSeats > 0 THEN 1 ELSE 0 END), 0)
+                   AS bookableScreenings
+        FROM Movie m
+        LEFT JOIN m.screenings s
+        GROUP BY m.id, m.title
+        """)
+    List<MovieSuggestionStats> findSuggestionStats(@Param("now") LocalDateTime now);
+
     // Query con parametro per ricerca avanzata
     @Query("""
         SELECT m FROM Movie m 
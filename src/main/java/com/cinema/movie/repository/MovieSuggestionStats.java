@@ -0,0 +1,17 @@
+package com.cinema.movie.repository;
+
+/**
+ * Projection per i pesi dell'autocompletamento.
+ */
+public interface MovieSuggestionStats {
+
+    Long getMovieId();
+
+    String getTitle();
+
+    // Posti venduti su tutte le proiezioni del film
+    Long getBookedSeats();
+
+    // Proiezioni future con posti liberi
+    Long getBookableScreenings();
+}
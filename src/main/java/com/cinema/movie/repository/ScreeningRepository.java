@@ -1,13 +1,18 @@
 package com.cinema.movie.repository;
 
 import com.cinema.movie.entity.Screening;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,6 +44,60 @@ public interface ScreeningRepository extends JpaRepository<Screening, Long> {
             @Param("endOfDay") LocalDateTime endOfDay
     );
 
+    // Palinsesto con film già caricato - per l'indice in memoria
+    @Query("""
+        SELECT s FROM Screening s
+        JOIN FETCH s.movie
+        WHERE s.startTime >= :from
+        ORDER BY s.startTime
+        """)
+    List<Screening> findScheduleFrom(@Param("from") LocalDateTime from);
+
+    // Palinsesto come projection scalare - riconciliazione periodica dell'indice in memoria
+    @Query("""
+        SELECT s.id AS id, m.id AS movieId, m.title AS movieTitle, s.startTime AS startTime,
+               s.totalSeats AS totalSeats, s.price AS price, s.availableSeats AS availableSeats
+        FROM Screening s
+        JOIN s.movie m
+        WHERE s.startTime >= :from
+        """)
+    List<ScreeningSnapshot> findScheduleSnapshotFrom(@Param("from") LocalDateTime from);
+
+    // Singola proiezione con film già caricato
+    @Query("""
+        SELECT s FROM Screening s
+        JOIN FETCH s.movie
+        WHERE s.id = :id
+        """)
+    Optional<Screening> findWithMovieById(@Param("id") Long id);
+
+    // Posti disponibili - query scalare, non restituisce l'entity eventualmente in cache
+    @Query("""
+        SELECT s.availableSeats FROM Screening s
+        WHERE s.id = :id
+        """)
+    Optional<Integer> findAvailableSeatsById(@Param("id") Long id);
+
+    // Posti disponibili di più proiezioni in una sola query (push disponibilità)
+    @Query("""
+        SELECT s.id AS screeningId, s.availableSeats AS availableSeats
+        FROM Screening s
+        WHERE s.id IN :ids
+        """)
+    List<ScreeningSeats> findSeatsByIds(@Param("ids") Collection<Long> ids);
+
+    // Palinsesto in streaming - pagina per chiave (orario, id) dopo l'ultima proiezione inviata
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+        SELECT s FROM Screening s
+        JOIN FETCH s.movie
+        WHERE (s.startTime, s.id) > (:afterTime, :afterId)
+        ORDER BY s.startTime, s.id
+        """)
+    List<Screening> findSchedulePage(@Param("afterTime") LocalDateTime afterTime,
+                                     @Param("afterId") Long afterId,
+                                     Limit limit);
+
     // Aggiornamento atomico
     @Modifying
     @Query("""
@@ -49,6 +108,21 @@ public interface ScreeningRepository extends JpaRepository<Screening, Long> {
         """)
     int reserveSeatsAtomically(@Param("screeningId") Long screeningId, @Param("seats") int seats);
 
+    /**
+     * Rilascio atomico dei posti, senza superare la capienza: l'UPDATE relativo
+     * non sovrascrive le prenotazioni concorrenti come farebbe il flush dell'entity.
+     */
+    @Modifying
+    @Query("""
+        UPDATE Screening s
+        SET s.availableSeats = CASE
+            WHEN s.availableSeats + :seats > s.totalSeats THEN s.totalSeats
+            ELSE s.availableSeats + :seats
+        END
+        WHERE s.id = :screeningId
+        """)
+    int releaseSeatsAtomically(@Param("screeningId") Long screeningId, @Param("seats") int seats);
+
     // Verifica disponibilità
     @Query("""
         SELECT s FROM Screening s 
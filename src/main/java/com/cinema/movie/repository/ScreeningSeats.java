@@ -0,0 +1,11 @@
+package com.cinema.movie.repository;
+
+/**
+ * Projection: posti disponibili di una proiezione.
+ */
+public interface ScreeningSeats {
+
+    Long getScreeningId();
+
+    Integer getAvailableSeats();
+}
@@ -0,0 +1,24 @@
+package com.cinema.movie.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projection: proiezione con titolo del film e posti disponibili, per riconciliare il palinsesto in memoria.
+ */
+public interface ScreeningSnapshot {
+
+    Long getId();
+
+    Long getMovieId();
+
+    String getMovieTitle();
+
+    LocalDateTime getStartTime();
+
+    Integer getTotalSeats();
+
+    BigDecimal getPrice();
+
+    Integer getAvailableSeats();
+}
@@ -0,0 +1,21 @@
+package com.cinema.movie.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Finestra delle proiezioni incluse in MovieResponse, applicata nella query.
+ * from/to delimitano l'orario (to escluso); next limita alle prime N per film.
+ */
+public record ScreeningWindow(
+        LocalDateTime from,
+        LocalDateTime to,
+        Integer next
+) {
+    public static ScreeningWindow unbounded() {
+        return new ScreeningWindow(null, null, null);
+    }
+
+    public boolean isUnbounded() {
+        return from == null && to == null && next == null;
+    }
+}
@@ -0,0 +1,80 @@
+package com.cinema.movie.repository;
+
+import com.cinema.movie.entity.UserBookingView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserBookingViewRepository extends JpaRepository<UserBookingView, Long> {
+
+    // Storico utente: una sola query su idx_user_booking_view_user_created
+    List<UserBookingView> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    // Storico utente in streaming - prima pagina, poi per chiave (createdAt, bookingId) decrescente
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+        SELECT v FROM UserBookingView v
+        WHERE v.userId = :userId
+        ORDER BY v.createdAt DESC, v.bookingId DESC
+        """)
+    List<UserBookingView> findFirstPageByUserId(@Param("userId") Long userId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+        SELECT v FROM UserBookingView v
+        WHERE v.userId = :userId
+        AND (v.createdAt, v.bookingId) < (:beforeTime, :beforeId)
+        ORDER BY v.createdAt DESC, v.bookingId DESC
+        """)
+    List<UserBookingView> findPageByUserIdBefore(@Param("userId") Long userId,
+                                                 @Param("beforeTime") LocalDateTime beforeTime,
+                                                 @Param("beforeId") Long beforeId,
+                                                 Limit limit);
+
+    // Titolo aggiornato dopo una modifica al film
+    @Modifying
+    @Query("""
+        UPDATE UserBookingView v
+        SET v.movieTitle = (SELECT m.title FROM Movie m WHERE m.id = v.movieId)
+        WHERE v.movieId = :movieId
+        AND v.movieTitle <> (SELECT m.title FROM Movie m WHERE m.id = v.movieId)
+        """)
+    int refreshMovieTitle(@Param("movieId") Long movieId);
+
+    // Orario aggiornato dopo una modifica alla proiezione
+    @Modifying
+    @Query("""
+        UPDATE UserBookingView v
+        SET v.screeningTime = (SELECT s.startTime FROM Screening s WHERE s.id = v.screeningId)
+        WHERE v.screeningId = :screeningId
+        AND v.screeningTime <> (SELECT s.startTime FROM Screening s WHERE s.id = v.screeningId)
+        """)
+    int refreshScreeningTime(@Param("screeningId") Long screeningId);
+
+    @Modifying
+    @Query("DELETE FROM UserBookingView")
+    int deleteAllRows();
+
+    // Ricostruzione completa dalle prenotazioni con un solo INSERT ... SELECT
+    @Modifying
+    @Query("""
+        INSERT INTO UserBookingView (bookingId, userId, screeningId, movieId, movieTitle, screeningTime,
+                                     numberOfSeats, totalPrice, status, createdAt)
+        SELECT b.id, b.user.id, s.id, m.id, m.title, s.startTime,
+               b.numberOfSeats, b.totalPrice, b.status, b.createdAt
+        FROM Booking b
+        JOIN b.screening s
+        JOIN s.movie m
+        """)
+    int insertFromBookings();
+}
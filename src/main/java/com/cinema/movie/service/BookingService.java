@@ -3,40 +3,64 @@ package com.cinema.movie.service;
 import com.cinema.movie.dto.BookingRequest;
 import com.cinema.movie.dto.BookingResponse;
 import com.cinema.movie.entity.Booking;
+import com.cinema.movie.entity.User;
+import com.cinema.movie.entity.UserBookingView;
 import com.cinema.movie.entity.domain.BookingDomainService;
-import com.cinema.movie.entity.domain.ScreeningDomainService;
+import com.cinema.movie.event.BookingEvent;
 import com.cinema.movie.repository.BookingRepository;
+import com.cinema.movie.repository.ScreeningRepository;
+import com.cinema.movie.repository.UserBookingViewRepository;
+import com.cinema.movie.service.booking.BookingEventLog;
 import com.cinema.movie.service.booking.BookingFactory;
+import com.cinema.movie.service.booking.BookingMetrics;
 import com.cinema.movie.service.booking.BookingValidator;
 import com.cinema.movie.service.booking.DistributedLockManager;
+import com.cinema.movie.service.bulkhead.DatabaseBulkhead;
+import com.cinema.movie.service.bulkhead.DatabaseBulkhead.Lane;
+import com.cinema.movie.service.bulkhead.DatabaseLane;
+import com.cinema.movie.service.coalescing.Coalesced;
+import com.cinema.movie.service.hotspot.HotScreeningDetector;
+import com.cinema.movie.service.user.UserIdentityService;
 import com.cinema.movie.exception.BookingException;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Service principale per gestione prenotazioni.
  * Usa Domain Services per business logic invece delle entity.
  */
 @Service
-@Slf4j
 @RequiredArgsConstructor
 public class BookingService {
 
+    static final int STREAM_PAGE_SIZE = 500;
+
     private final BookingRepository bookingRepository;
+    private final ScreeningRepository screeningRepository;
+    private final UserBookingViewRepository userBookingViewRepository;
+    private final UserIdentityService userIdentityService;
     private final BookingFactory bookingFactory;
     private final BookingValidator bookingValidator;
     private final DistributedLockManager lockManager;
-
-    // Domain Services per business logic
+    private final BookingMetrics metrics;
+    private final BookingEventLog bookingLog;
+    private final HotScreeningDetector hotScreeningDetector;
+    private final DatabaseBulkhead bulkhead;
+    private final TransactionOperations transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Domain Service per business logic
     private final BookingDomainService bookingDomainService;
-    private final ScreeningDomainService screeningDomainService;
 
     @Async("virtualThreadExecutor")
     @Transactional
@@ -44,54 +68,124 @@ public class BookingService {
         return CompletableFuture.supplyAsync(() -> createBooking(request));
     }
 
-    @Transactional
+    /**
+     * L'utente viene risolto prima di aprire la transazione: al primo accesso l'inserimento
+     * usa l'unica connessione del thread, non una seconda presa mentre la prima tiene
+     * il lock sulla riga della proiezione.
+     */
+    @DatabaseLane(Lane.WRITE)
     public BookingResponse createBooking(BookingRequest request) {
-        return lockManager.executeWithLock(
-                request.screeningId(),
-                () -> processBooking(request)
-        );
+        hotScreeningDetector.recordRequest(request.screeningId());
+        long start = System.nanoTime();
+        try {
+            User user = userIdentityService.resolve(request.userEmail());
+            BookingResponse response = metrics.booking(() -> transactionTemplate.execute(status ->
+                    lockManager.executeWithLock(
+                            request.screeningId(),
+                            () -> processBooking(request, user.getId())
+                    )));
+            bookingLog.created(request, System.nanoTime() - start);
+            return response;
+        } catch (BookingException e) {
+            bookingLog.rejected(request, e.getMessage(), System.nanoTime() - start);
+            throw e;
+        } catch (RuntimeException e) {
+            bookingLog.failed(request, e, System.nanoTime() - start);
+            throw e;
+        }
     }
 
-    private BookingResponse processBooking(BookingRequest request) {
+    private BookingResponse processBooking(BookingRequest request, Long userId) {
         // 1. Valida e recupera dati
-        var screening = bookingValidator.validateAndGetScreening(request);
+        var screening = metrics.stage(BookingMetrics.Stage.VALIDATE, request.screeningId(),
+                () -> bookingValidator.validateAndGetScreening(request));
 
         // 2. Crea booking usando Factory
-        var booking = bookingFactory.createBooking(request, screening);
+        var booking = bookingFactory.createBooking(request, screening, userId);
 
         // 3. Persisti
-        var saved = bookingRepository.save(booking);
+        var saved = metrics.stage(BookingMetrics.Stage.SAVE, request.screeningId(),
+                () -> bookingRepository.save(booking));
+        eventPublisher.publishEvent(BookingEvent.from(saved));
 
-        log.info("Prenotazione creata: {} posti per {}",
-                request.numberOfSeats(), request.userEmail());
-
-        return BookingResponse.from(saved);
+        return metrics.stage(BookingMetrics.Stage.MAP, request.screeningId(), () -> BookingResponse.from(saved));
     }
 
+    @Coalesced
+    @DatabaseLane(Lane.READ)
     public Optional<BookingResponse> getBooking(Long id) {
         return bookingRepository.findById(id).map(BookingResponse::from);
     }
 
+    /**
+     * Storico utente dal read model denormalizzato: una query, nessuna join.
+     */
+    @Coalesced
+    @DatabaseLane(Lane.READ)
     public List<BookingResponse> getUserBookings(String userEmail) {
-        return bookingRepository.findByUserEmailOrderByCreatedAtDesc(userEmail)
-                .stream()
-                .map(BookingResponse::from)
-                .toList();
+        return userIdentityService.findId(userEmail)
+                .map(userId -> userBookingViewRepository.findByUserIdOrderByCreatedAtDesc(userId)
+                        .stream()
+                        .map(view -> BookingResponse.from(view, userEmail))
+                        .toList())
+                .orElseGet(List::of);
     }
 
+    /**
+     * Storico utente in streaming, a pagine per chiave (createdAt, id) decrescente.
+     * Come il palinsesto: permesso e transazione solo per la query di ogni pagina.
+     */
+    public void streamUserBookings(String userEmail, Consumer<BookingResponse> consumer) {
+        Optional<Long> userId = bulkhead.execute(Lane.READ, () -> userIdentityService.findId(userEmail));
+        if (userId.isEmpty()) {
+            return;
+        }
+        List<UserBookingView> page = bulkhead.execute(Lane.READ, () ->
+                userBookingViewRepository.findFirstPageByUserId(userId.get(), Limit.of(STREAM_PAGE_SIZE)));
+        while (true) {
+            page.forEach(booking -> consumer.accept(BookingResponse.from(booking, userEmail)));
+            if (page.size() < STREAM_PAGE_SIZE) {
+                return;
+            }
+            UserBookingView last = page.getLast();
+            page = bulkhead.execute(Lane.READ, () -> userBookingViewRepository.findPageByUserIdBefore(
+                    userId.get(), last.getCreatedAt(), last.getBookingId(), Limit.of(STREAM_PAGE_SIZE)));
+        }
+    }
+
+    @DatabaseLane(Lane.WRITE)
     @Transactional
     public BookingResponse cancelBooking(Long bookingId, String userEmail) {
+        long start = System.nanoTime();
+        try {
+            BookingResponse cancelled = processCancellation(bookingId, userEmail);
+            bookingLog.cancelled(bookingId, cancelled.screeningId(), cancelled.numberOfSeats(), System.nanoTime() - start);
+            return cancelled;
+        } catch (BookingException e) {
+            bookingLog.cancelRejected(bookingId, e.getMessage(), System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private BookingResponse processCancellation(Long bookingId, String userEmail) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingException("Prenotazione non trovata"));
 
         bookingValidator.validateCancellation(booking, userEmail);
 
+        // Due cancellazioni concorrenti leggono entrambe CONFIRMED: solo l'UPDATE condizionato
+        // stabilisce quale delle due rilascia i posti
+        if (bookingRepository.cancelIfActive(bookingId) == 0) {
+            throw new BookingException("Prenotazione non cancellabile: Prenotazione cancellata");
+        }
+
         // Usa Domain Service invece della business logic nell'entity
         bookingDomainService.cancelBooking(booking);
-        screeningDomainService.releaseSeats(booking.getScreening(), booking.getNumberOfSeats());
+        // UPDATE atomico: il flush della Screening caricata perderebbe le prenotazioni concorrenti
+        screeningRepository.releaseSeatsAtomically(booking.getScreening().getId(), booking.getNumberOfSeats());
 
         var cancelled = bookingRepository.save(booking);
-        log.info("Prenotazione cancellata: {}", bookingId);
+        eventPublisher.publishEvent(BookingEvent.from(cancelled));
 
         return BookingResponse.from(cancelled);
     }
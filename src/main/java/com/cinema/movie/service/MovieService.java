@@ -1,29 +1,70 @@
 package com.cinema.movie.service;
 
+import com.cinema.movie.dto.MovieField;
 import com.cinema.movie.dto.MovieResponse;
+import com.cinema.movie.dto.MovieSuggestion;
+import com.cinema.movie.dto.MovieSummaryResponse;
+import com.cinema.movie.dto.PopularMovieResponse;
 import com.cinema.movie.dto.ScreeningResponse;
+import com.cinema.movie.dto.SeatAvailability;
+import com.cinema.movie.entity.Movie;
+import com.cinema.movie.entity.Screening;
 import com.cinema.movie.repository.MovieRepository;
 import com.cinema.movie.repository.ScreeningRepository;
+import com.cinema.movie.repository.ScreeningWindow;
+import com.cinema.movie.service.bulkhead.DatabaseBulkhead;
+import com.cinema.movie.service.bulkhead.DatabaseBulkhead.Lane;
+import com.cinema.movie.service.bulkhead.DatabaseLane;
+import com.cinema.movie.service.coalescing.Coalesced;
+import com.cinema.movie.service.popularity.PopularityService;
+import com.cinema.movie.service.popularity.PopularityWindow;
+import com.cinema.movie.service.schedule.MovieSummaryService;
+import com.cinema.movie.service.schedule.ScreeningScheduleIndex;
+import com.cinema.movie.service.schedule.SeatAvailabilityBroadcaster;
+import com.cinema.movie.service.search.MovieSearchIndex;
+import com.cinema.movie.service.search.MovieSuggester;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service per gestione film e proiezioni.
  * Separato da BookingService per rispettare SRP.
+ * Passano dal bulkhead solo i metodi che interrogano sempre il database: quelli serviti
+ * dagli indici in memoria non devono ricevere 503 quando il pool è saturo.
  */
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class MovieService {
 
+    static final int STREAM_PAGE_SIZE = 500;
+
     private final MovieRepository movieRepository;
     private final ScreeningRepository screeningRepository;
+    private final DatabaseBulkhead bulkhead;
+    private final MovieSearchIndex movieSearchIndex;
+    private final MovieSuggester movieSuggester;
+    private final PopularityService popularityService;
+    private final ScreeningScheduleIndex scheduleIndex;
+    private final SeatAvailabilityBroadcaster seatAvailabilityBroadcaster;
+    private final MovieSummaryService movieSummaryService;
 
+    @Coalesced
+    @DatabaseLane(Lane.READ)
     public List<MovieResponse> getAllMovies() {
         return movieRepository.findAll()
                 .stream()
@@ -31,32 +72,160 @@ public class MovieService {
                 .toList();
     }
 
+    @Coalesced
+    @DatabaseLane(Lane.READ)
     public Optional<MovieResponse> getMovieWithScreenings(Long id) {
         return movieRepository.findById(id)
                 .map(MovieResponse::from);
     }
 
+    /**
+     * Film con i soli campi richiesti e le proiezioni nella finestra, filtrati dalla query.
+     */
+    @Coalesced
+    @DatabaseLane(Lane.READ)
+    public List<MovieResponse> getMovies(Set<MovieField> fields, ScreeningWindow window) {
+        return movieRepository.findMovies(fields, window);
+    }
+
+    @Coalesced
+    @DatabaseLane(Lane.READ)
+    public Optional<MovieResponse> getMovie(Long id, Set<MovieField> fields, ScreeningWindow window) {
+        return movieRepository.findMovie(id, fields, window);
+    }
+
+    /**
+     * Film prenotabili con tutte le proiezioni. Quali film, e in che ordine, lo dice il read model
+     * di riepilogo; film e proiezioni arrivano da una sola query con JOIN FETCH.
+     */
+    @DatabaseLane(Lane.READ)
     public List<MovieResponse> getMoviesWithAvailableScreenings() {
-        return movieRepository.findMoviesWithAvailableScreenings()
-                .stream()
+        List<Long> ids = getAvailableMovieSummaries().stream()
+                .map(MovieSummaryResponse::movieId)
+                .toList();
+        return findAllInOrder(ids).stream()
                 .map(MovieResponse::from)
                 .toList();
     }
 
+    /**
+     * Film prenotabili dal read model di riepilogo, senza join sulle proiezioni.
+     * Finché il read model non è pronto si usa la query aggregata.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<MovieSummaryResponse> getAvailableMovieSummaries() {
+        return movieSummaryService.available().orElseGet(() ->
+                movieRepository.findAvailabilitySummaries(LocalDateTime.now())
+                        .stream()
+                        .map(MovieSummaryResponse::from)
+                        .toList());
+    }
+
+    /**
+     * Proiezioni di oggi dal palinsesto in memoria; SQL finché l'indice non è pronto.
+     */
     public List<ScreeningResponse> getTodayScreenings() {
-        LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime endOfDay = startOfDay.plusDays(1);
+        return scheduleIndex.today().orElseGet(() -> {
+            LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
+            LocalDateTime endOfDay = startOfDay.plusDays(1);
 
-        return screeningRepository.findTodayScreenings(startOfDay, endOfDay)
-                .stream()
-                .map(ScreeningResponse::from)
-                .toList();
+            return screeningRepository.findTodayScreenings(startOfDay, endOfDay)
+                    .stream()
+                    .map(ScreeningResponse::from)
+                    .toList();
+        });
+    }
+
+    /**
+     * Proiezioni con posti disponibili da from (incluso) a to (escluso, opzionale).
+     */
+    public List<ScreeningResponse> getScreenings(LocalDateTime from, LocalDateTime to) {
+        return scheduleIndex.between(from, to).orElseGet(() ->
+                (to == null
+                        ? screeningRepository.findAvailableScreenings(from)
+                        : screeningRepository.findTodayScreenings(from, to))
+                        .stream()
+                        .map(ScreeningResponse::from)
+                        .toList());
     }
 
+    /**
+     * Aggiornamenti in push dei posti disponibili per i seat-picker.
+     * Optional vuoto se la proiezione non esiste: nessun canale aperto senza dati.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<Flux<SeatAvailability>> subscribeSeatAvailability(Long screeningId) {
+        boolean exists = scheduleIndex.availableSeats(screeningId).isPresent()
+                || screeningRepository.existsById(screeningId);
+        return exists ? Optional.of(seatAvailabilityBroadcaster.subscribe(screeningId)) : Optional.empty();
+    }
+
+    /**
+     * Palinsesto completo in streaming per i feed partner, a pagine per chiave (orario, id).
+     * Ogni pagina prende un permesso di lettura e una transazione solo per la query:
+     * un partner lento non tiene connessioni mentre riceve, e la memoria resta di una pagina.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamSchedule(LocalDateTime from, Consumer<ScreeningResponse> consumer) {
+        LocalDateTime afterTime = from;
+        long afterId = 0;
+        List<Screening> page;
+        do {
+            LocalDateTime time = afterTime;
+            long id = afterId;
+            page = bulkhead.execute(Lane.READ,
+                    () -> screeningRepository.findSchedulePage(time, id, Limit.of(STREAM_PAGE_SIZE)));
+            page.forEach(screening -> consumer.accept(ScreeningResponse.from(screening)));
+            if (!page.isEmpty()) {
+                afterTime = page.getLast().getStartTime();
+                afterId = page.getLast().getId();
+            }
+        } while (page.size() == STREAM_PAGE_SIZE);
+    }
+
+    /**
+     * Ricerca tramite indice in memoria, ordinata per rilevanza.
+     * Finché l'indice non è pronto si usa la query SQL.
+     */
+    @Coalesced
+    @DatabaseLane(Lane.READ)
     public List<MovieResponse> searchMovies(String genre, String title) {
-        return movieRepository.searchMovies(genre, title, null, null)
+        return movieSearchIndex.search(genre, title)
+                .map(this::findAllInOrder)
+                .orElseGet(() -> movieRepository.searchMovies(genre, title, null, null))
                 .stream()
                 .map(MovieResponse::from)
                 .toList();
     }
+
+    /**
+     * Autocompletamento titoli: servito interamente dal trie in memoria,
+     * senza transazione né connessione al database.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<MovieSuggestion> suggestMovies(String prefix, int limit) {
+        return movieSuggester.suggest(prefix, limit);
+    }
+
+    /**
+     * Film più prenotati nella finestra, dai contatori in memoria.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<PopularMovieResponse> getPopularMovies(PopularityWindow window, int limit) {
+        return popularityService.topMovies(window, limit);
+    }
+
+    private List<Movie> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Movie> byId = movieRepository.findWithScreeningsByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
 }
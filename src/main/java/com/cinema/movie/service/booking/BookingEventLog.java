@@ -0,0 +1,127 @@
+package com.cinema.movie.service.booking;
+
+import com.cinema.movie.dto.BookingRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Un evento di log per prenotazione o cancellazione, con campi strutturati
+ * (screeningId, seats, outcome, latencyMs) al posto di messaggi formattati e senza email.
+ * Campionato per categoria: la decisione non alloca, solo gli eventi scelti costruiscono il record.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(BookingLogProperties.class)
+public class BookingEventLog {
+
+    /**
+     * Categorie con il tasso di campionamento di default.
+     */
+    public enum Category {
+        CREATED("created", Level.INFO, 0.01),
+        REJECTED("rejected", Level.INFO, 1.0),
+        FAILED("failed", Level.WARN, 1.0),
+        CANCELLED("cancelled", Level.INFO, 1.0),
+        CANCEL_REJECTED("cancel-rejected", Level.INFO, 1.0);
+
+        private final String key;
+        private final Level level;
+        private final double defaultRate;
+
+        Category(String key, Level level, double defaultRate) {
+            this.key = key;
+            this.level = level;
+            this.defaultRate = defaultRate;
+        }
+
+        public String key() {
+            return key;
+        }
+    }
+
+    private final double[] rates = new double[Category.values().length];
+    private final DoubleSupplier random;
+
+    @Autowired
+    public BookingEventLog(BookingLogProperties properties) {
+        this(properties, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    BookingEventLog(BookingLogProperties properties, DoubleSupplier random) {
+        this.random = random;
+        for (Category category : Category.values()) {
+            rates[category.ordinal()] = properties.sampleRates().getOrDefault(category.key(), category.defaultRate);
+        }
+    }
+
+    public void created(BookingRequest request, long nanos) {
+        booking(Category.CREATED, request, null, nanos);
+    }
+
+    public void rejected(BookingRequest request, String reason, long nanos) {
+        booking(Category.REJECTED, request, reason, nanos);
+    }
+
+    public void failed(BookingRequest request, Throwable error, long nanos) {
+        booking(Category.FAILED, request, error.getClass().getSimpleName(), nanos);
+    }
+
+    public void cancelled(Long bookingId, Long screeningId, int seats, long nanos) {
+        cancellation(Category.CANCELLED, bookingId, screeningId, seats, null, nanos);
+    }
+
+    public void cancelRejected(Long bookingId, String reason, long nanos) {
+        cancellation(Category.CANCEL_REJECTED, bookingId, null, 0, reason, nanos);
+    }
+
+    private void booking(Category category, BookingRequest request, String reason, long nanos) {
+        if (!sampled(category)) {
+            return;
+        }
+        LoggingEventBuilder event = log.atLevel(category.level)
+                .setMessage("booking")
+                .addKeyValue("screeningId", request.screeningId())
+                .addKeyValue("seats", request.numberOfSeats());
+        emit(event, category, reason, nanos);
+    }
+
+    private void cancellation(Category category, Long bookingId, Long screeningId, int seats, String reason, long nanos) {
+        if (!sampled(category)) {
+            return;
+        }
+        LoggingEventBuilder event = log.atLevel(category.level)
+                .setMessage("cancellation")
+                .addKeyValue("bookingId", bookingId);
+        if (screeningId != null) {
+            event.addKeyValue("screeningId", screeningId)
+                    .addKeyValue("seats", seats);
+        }
+        emit(event, category, reason, nanos);
+    }
+
+    private void emit(LoggingEventBuilder event, Category category, String reason, long nanos) {
+        event.addKeyValue("outcome", category.key())
+                .addKeyValue("latencyMs", TimeUnit.NANOSECONDS.toMillis(nanos))
+                .addKeyValue("sampleRate", rates[category.ordinal()]);
+        if (reason != null) {
+            event.addKeyValue("reason", reason);
+        }
+        event.log();
+    }
+
+    private boolean sampled(Category category) {
+        if (!log.isEnabledForLevel(category.level)) {
+            return false;
+        }
+        double rate = rates[category.ordinal()];
+        return rate >= 1.0 || (rate > 0 && random.getAsDouble() < rate);
+    }
+}
@@ -4,6 +4,7 @@ import com.cinema.movie.dto.BookingRequest;
 import com.cinema.movie.entity.Booking;
 import com.cinema.movie.entity.BookingStatus;
 import com.cinema.movie.entity.Screening;
+import com.cinema.movie.entity.User;
 import com.cinema.movie.entity.domain.BookingDomainService;
 import com.cinema.movie.repository.ScreeningRepository;
 import com.cinema.movie.exception.BookingException;
@@ -23,22 +24,29 @@ public class BookingFactory {
 
     private final ScreeningRepository screeningRepository;
     private final BookingDomainService bookingDomainService;
+    private final BookingMetrics metrics;
 
-    public Booking createBooking(BookingRequest request, Screening screening) {
-        // Aggiorna posti atomicamente
-        int updatedRows = screeningRepository.reserveSeatsAtomically(
-                screening.getId(),
-                request.numberOfSeats()
-        );
-
-        if (updatedRows == 0) {
-            throw new BookingException("Posti non più disponibili");
-        }
+    /**
+     * L'utente arriva già risolto: qui la transazione tiene il lock sulla riga della
+     * proiezione e non deve chiedere altre connessioni al pool.
+     */
+    public Booking createBooking(BookingRequest request, Screening screening, Long userId) {
+        // Aggiorna posti atomicamente: rejected se esauriti, error se l'UPDATE fallisce
+        metrics.stage(BookingMetrics.Stage.RESERVE_SEATS, screening.getId(), () -> {
+            int updatedRows = screeningRepository.reserveSeatsAtomically(
+                    screening.getId(),
+                    request.numberOfSeats()
+            );
+            if (updatedRows == 0) {
+                throw new BookingException("Posti non più disponibili");
+            }
+            return updatedRows;
+        });
 
         // Crea booking entity (solo data holder)
         var booking = new Booking();
         booking.setScreening(screening);
-        booking.setUserEmail(request.userEmail());
+        booking.setUser(new User(userId, request.userEmail()));
         booking.setNumberOfSeats(request.numberOfSeats());
         booking.setTotalPrice(calculateTotalPrice(screening, request.numberOfSeats()));
         booking.setStatus(BookingStatus.PENDING);
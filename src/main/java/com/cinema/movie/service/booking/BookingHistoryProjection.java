@@ -0,0 +1,60 @@
+package com.cinema.movie.service.booking;
+
+import com.cinema.movie.entity.UserBookingView;
+import com.cinema.movie.event.BookingEvent;
+import com.cinema.movie.event.CatalogChangedEvent;
+import com.cinema.movie.repository.UserBookingViewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Mantiene user_booking_view, il read model dello storico prenotazioni.
+ * Le prenotazioni lo aggiornano nella stessa transazione, così lo storico
+ * non può divergere dalla tabella bookings; le modifiche al catalogo
+ * riallineano titolo e orario dopo il commit.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BookingHistoryProjection {
+
+    private final UserBookingViewRepository userBookingViewRepository;
+
+    /**
+     * Listener sincrono: un errore annulla anche la prenotazione.
+     */
+    @EventListener
+    public void onBookingEvent(BookingEvent event) {
+        userBookingViewRepository.save(UserBookingView.from(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // Anche i cambi di posti generano l'evento: l'UPDATE tocca solo le righe con orario diverso
+        int updated = event.isMovieChange()
+                ? userBookingViewRepository.refreshMovieTitle(event.movieId())
+                : userBookingViewRepository.refreshScreeningTime(event.screeningId());
+        if (updated > 0) {
+            log.debug("Storico prenotazioni riallineato: {} righe per {}", updated, event);
+        }
+    }
+
+    /**
+     * Ricostruzione completa da bookings. Disabilitata di default:
+     * si attiva impostando cinema.booking-history.rebuild-cron.
+     */
+    @Scheduled(cron = "${cinema.booking-history.rebuild-cron:-}")
+    @Transactional
+    public void rebuild() {
+        userBookingViewRepository.deleteAllRows();
+        int rows = userBookingViewRepository.insertFromBookings();
+        log.info("Storico prenotazioni ricostruito: {} righe", rows);
+    }
+}
@@ -0,0 +1,33 @@
+package com.cinema.movie.service.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stato dei lock di prenotazione in /actuator/health: DEGRADED con i lock locali.
+ * Le prenotazioni continuano a funzionare, quindi DEGRADED risponde 200 (vedi application.yml).
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingLockHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Redis non disponibile, lock locali");
+
+    private final LockCircuitBreaker circuitBreaker;
+
+    @Override
+    public Health health() {
+        LockCircuitBreaker.Mode mode = circuitBreaker.mode();
+        if (mode == LockCircuitBreaker.Mode.REDIS) {
+            return Health.up().withDetail("mode", mode.tag()).build();
+        }
+        Health.Builder health = Health.status(DEGRADED).withDetail("mode", mode.tag());
+        if (circuitBreaker.lastFailure() != null) {
+            health.withDetail("lastFailure", circuitBreaker.lastFailure());
+        }
+        return health.build();
+    }
+}
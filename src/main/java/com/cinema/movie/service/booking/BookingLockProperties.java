@@ -0,0 +1,19 @@
+package com.cinema.movie.service.booking;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Lock delle prenotazioni e ripiego locale quando Redis non risponde (cinema.booking-lock.*).
+ * Dopo failureThreshold errori consecutivi il circuito si apre; ogni probeInterval si verifica Redis con un PING.
+ */
+@ConfigurationProperties(prefix = "cinema.booking-lock")
+public record BookingLockProperties(
+        @DefaultValue("3") int failureThreshold,
+        @DefaultValue("PT5S") Duration probeInterval,
+        @DefaultValue("100ms") Duration localLockTimeout,
+        @DefaultValue("256") int localLockStripes
+) {
+}
@@ -0,0 +1,18 @@
+package com.cinema.movie.service.booking;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Campionamento dei log di prenotazione (cinema.booking-log.sample-rates.<categoria>, tra 0 e 1).
+ * Le categorie non configurate usano il default di BookingEventLog.Category.
+ */
+@ConfigurationProperties(prefix = "cinema.booking-log")
+public record BookingLogProperties(
+        Map<String, Double> sampleRates
+) {
+    public BookingLogProperties {
+        sampleRates = sampleRates == null ? Map.of() : Map.copyOf(sampleRates);
+    }
+}
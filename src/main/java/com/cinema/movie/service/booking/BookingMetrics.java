@@ -0,0 +1,139 @@
+package com.cinema.movie.service.booking;
+
+import com.cinema.movie.exception.BookingException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Metriche della pipeline di prenotazione: un timer per fase con tag outcome,
+ * il tempo di possesso del lock, la durata end-to-end e le prenotazioni in corso.
+ * Ogni fase emette anche un BookingStageEvent per le registrazioni JFR.
+ */
+@Component
+public class BookingMetrics {
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_REJECTED = "rejected";
+    public static final String OUTCOME_ERROR = "error";
+    /** Lock già preso da un'altra prenotazione. */
+    public static final String OUTCOME_BUSY = "busy";
+    /** Lock locale preso perché Redis non è disponibile. */
+    public static final String OUTCOME_LOCAL = "local";
+    /** Lock scaduto prima del rilascio. */
+    public static final String OUTCOME_EXPIRED = "expired";
+
+    /**
+     * Fasi misurate, nell'ordine in cui le attraversa una prenotazione.
+     */
+    public enum Stage {
+        LOCK_ACQUIRE("lock.acquire"),
+        VALIDATE("validate"),
+        RESERVE_SEATS("reserve"),
+        SAVE("save"),
+        MAP("map"),
+        LOCK_RELEASE("lock.release");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("cinema.booking.inflight", List.of(), inFlight);
+    }
+
+    /**
+     * Misura in corso di una fase, chiusa da stop con l'esito.
+     */
+    public final class StageTimer {
+
+        private final Stage stage;
+        private final Long screeningId;
+        private final Timer.Sample sample;
+        private final BookingStageEvent event = new BookingStageEvent();
+
+        private StageTimer(Stage stage, Long screeningId) {
+            this.stage = stage;
+            this.screeningId = screeningId;
+            this.event.begin();
+            this.sample = Timer.start(meterRegistry);
+        }
+
+        public void stop(String outcome) {
+            sample.stop(meterRegistry.timer("cinema.booking.stage", "stage", stage.tag(), "outcome", outcome));
+            event.end();
+            if (event.shouldCommit()) {
+                event.stage = stage.tag();
+                event.screeningId = screeningId == null ? 0 : screeningId;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    public StageTimer start(Stage stage, Long screeningId) {
+        return new StageTimer(stage, screeningId);
+    }
+
+    /**
+     * Misura una fase: rejected se la regola di business la rifiuta, error per ogni altra eccezione.
+     */
+    public <T> T stage(Stage stage, Long screeningId, Supplier<T> step) {
+        StageTimer timer = start(stage, screeningId);
+        String outcome = OUTCOME_ERROR;
+        try {
+            T result = step.get();
+            outcome = OUTCOME_SUCCESS;
+            return result;
+        } catch (BookingException e) {
+            outcome = OUTCOME_REJECTED;
+            throw e;
+        } finally {
+            timer.stop(outcome);
+        }
+    }
+
+    public void lockHeld(long nanos) {
+        meterRegistry.timer("cinema.booking.lock.held").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Prenotazione end-to-end, dal tentativo di lock alla risposta.
+     */
+    public <T> T booking(Supplier<T> operation) {
+        inFlight.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_ERROR;
+        try {
+            T result = operation.get();
+            outcome = OUTCOME_SUCCESS;
+            return result;
+        } catch (BookingException e) {
+            outcome = OUTCOME_REJECTED;
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("cinema.booking.requests", "outcome", outcome));
+            inFlight.decrementAndGet();
+        }
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,28 @@
+package com.cinema.movie.service.booking;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR per una fase della prenotazione: durata, proiezione ed esito.
+ * Senza una registrazione attiva begin/commit non costano nulla.
+ */
+@Name("com.cinema.BookingStage")
+@Label("Booking Stage")
+@Category({"Cinema", "Booking"})
+@Description("Fase della pipeline di prenotazione")
+@StackTrace(false)
+class BookingStageEvent extends jdk.jfr.Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Screening Id")
+    long screeningId;
+
+    @Label("Outcome")
+    String outcome;
+}
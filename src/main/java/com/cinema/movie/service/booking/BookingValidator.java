@@ -7,6 +7,7 @@ import com.cinema.movie.entity.domain.BookingDomainService;
 import com.cinema.movie.entity.domain.ScreeningDomainService;
 import com.cinema.movie.exception.BookingException;
 import com.cinema.movie.repository.ScreeningRepository;
+import com.cinema.movie.service.user.UserIdentityService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -20,6 +21,7 @@ public class BookingValidator {
     private final ScreeningRepository screeningRepository;
     private final BookingDomainService bookingDomainService;
     private final ScreeningDomainService screeningDomainService;
+    private final UserIdentityService userIdentityService;
 
     public Screening validateAndGetScreening(BookingRequest request) {
         Screening screening = screeningRepository
@@ -33,7 +35,11 @@ public class BookingValidator {
     }
 
     public void validateCancellation(Booking booking, String userEmail) {
-        if (!booking.getUserEmail().equals(userEmail)) {
+        // Confronto numerico; l'id dell'utente è letto dal proxy senza inizializzarlo
+        boolean owner = userIdentityService.findId(userEmail)
+                .map(userId -> userId.equals(booking.getUser().getId()))
+                .orElse(false);
+        if (!owner) {
             throw new BookingException("Non autorizzato");
         }
 
@@ -1,10 +1,13 @@
 package com.cinema.movie.service.booking;
 
 import com.cinema.movie.exception.BookingException;
-import lombok.RequiredArgsConstructor;
+import com.cinema.movie.service.hotspot.HotScreeningDetector;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
@@ -15,43 +18,105 @@ import java.util.function.Supplier;
 /**
  * Strategy Pattern per gestione distributed locks.
  * Singola responsabilità: gestire concorrenza.
+ * Se Redis non risponde il circuit breaker passa ai lock locali per proiezione:
+ * tra istanze diverse l'overbooking resta escluso dall'UPDATE atomico sui posti.
  */
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class DistributedLockManager {
 
     private final RedisTemplate<String, String> redisTemplate;
+    private final BookingMetrics metrics;
+    private final HotScreeningDetector hotScreeningDetector;
+    private final LockCircuitBreaker circuitBreaker;
+    private final LocalScreeningLocks localLocks;
     private static final Duration LOCK_TIMEOUT = Duration.ofSeconds(30);
     private static final String LOCK_PREFIX = "booking:lock:screening:";
+    private static final String BUSY = "Sistema occupato, riprova tra poco";
+
+    public DistributedLockManager(RedisTemplate<String, String> redisTemplate,
+                                  BookingMetrics metrics,
+                                  HotScreeningDetector hotScreeningDetector,
+                                  LockCircuitBreaker circuitBreaker,
+                                  BookingLockProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.metrics = metrics;
+        this.hotScreeningDetector = hotScreeningDetector;
+        this.circuitBreaker = circuitBreaker;
+        this.localLocks = new LocalScreeningLocks(properties.localLockStripes(), properties.localLockTimeout());
+    }
 
     public <T> T executeWithLock(Long screeningId, Supplier<T> operation) {
         String lockKey = LOCK_PREFIX + screeningId;
         String lockToken = UUID.randomUUID().toString();
 
-        if (!acquireLock(lockKey, lockToken)) {
-            throw new BookingException("Sistema occupato, riprova tra poco");
-        }
+        LockCircuitBreaker.Mode mode = acquireLock(screeningId, lockKey, lockToken);
 
+        long acquiredAt = System.nanoTime();
         try {
             return operation.get();
         } finally {
-            releaseLock(lockKey, lockToken);
+            metrics.lockHeld(System.nanoTime() - acquiredAt);
+            if (mode == LockCircuitBreaker.Mode.REDIS) {
+                releaseLock(screeningId, lockKey, lockToken);
+            } else {
+                localLocks.unlock(screeningId);
+            }
         }
     }
 
-    private boolean acquireLock(String lockKey, String lockToken) {
+    /**
+     * Verifica periodica di Redis a circuito aperto: al primo PING riuscito si torna ai lock distribuiti.
+     */
+    @Scheduled(fixedDelayString = "${cinema.booking-lock.probe-interval:PT5S}")
+    public void probeRedis() {
+        if (circuitBreaker.allowsRedis()) {
+            return;
+        }
         try {
-            Boolean acquired = redisTemplate.opsForValue()
-                    .setIfAbsent(lockKey, lockToken, LOCK_TIMEOUT);
-            return Boolean.TRUE.equals(acquired);
+            redisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+            circuitBreaker.recordSuccess();
         } catch (Exception e) {
-            log.warn("Errore acquisizione lock: {}", e.getMessage());
-            return false;
+            log.debug("Redis ancora non disponibile: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lock su Redis se il circuito è chiuso, altrimenti (o se Redis fallisce) lock locale.
+     */
+    private LockCircuitBreaker.Mode acquireLock(Long screeningId, String lockKey, String lockToken) {
+        BookingMetrics.StageTimer timer = metrics.start(BookingMetrics.Stage.LOCK_ACQUIRE, screeningId);
+        if (circuitBreaker.allowsRedis()) {
+            try {
+                Boolean acquired = redisTemplate.opsForValue()
+                        .setIfAbsent(lockKey, lockToken, LOCK_TIMEOUT);
+                circuitBreaker.recordSuccess();
+                if (!Boolean.TRUE.equals(acquired)) {
+                    timer.stop(BookingMetrics.OUTCOME_BUSY);
+                    hotScreeningDetector.recordLockFailure(screeningId);
+                    throw new BookingException(BUSY);
+                }
+                timer.stop(BookingMetrics.OUTCOME_SUCCESS);
+                return LockCircuitBreaker.Mode.REDIS;
+            } catch (BookingException e) {
+                throw e;
+            } catch (Exception e) {
+                log.warn("Errore acquisizione lock, uso il lock locale: {}", e.getMessage());
+                circuitBreaker.recordFailure(e);
+            }
+        }
+
+        if (!localLocks.tryLock(screeningId)) {
+            timer.stop(BookingMetrics.OUTCOME_BUSY);
+            hotScreeningDetector.recordLockFailure(screeningId);
+            throw new BookingException(BUSY);
         }
+        timer.stop(BookingMetrics.OUTCOME_LOCAL);
+        return LockCircuitBreaker.Mode.LOCAL;
     }
 
-    private void releaseLock(String lockKey, String lockToken) {
+    private void releaseLock(Long screeningId, String lockKey, String lockToken) {
+        BookingMetrics.StageTimer timer = metrics.start(BookingMetrics.Stage.LOCK_RELEASE, screeningId);
         try {
             // Usa DefaultRedisScript invece del callback deprecato
             String luaScript = """
@@ -66,10 +131,14 @@ public class DistributedLockManager {
             redisScript.setScriptText(luaScript);
             redisScript.setResultType(Long.class);
 
-            redisTemplate.execute(redisScript, List.of(lockKey), lockToken);
+            Long deleted = redisTemplate.execute(redisScript, List.of(lockKey), lockToken);
+            // 0: il lock è scaduto durante l'operazione, la chiave non era più nostra
+            timer.stop(Long.valueOf(1).equals(deleted) ? BookingMetrics.OUTCOME_SUCCESS : BookingMetrics.OUTCOME_EXPIRED);
 
         } catch (Exception e) {
+            timer.stop(BookingMetrics.OUTCOME_ERROR);
             log.warn("Errore rilascio lock: {}", e.getMessage());
+            circuitBreaker.recordFailure(e);
         }
     }
 }
@@ -0,0 +1,44 @@
+package com.cinema.movie.service.booking;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lock per proiezione dentro la JVM, usati quando Redis non è disponibile.
+ * Lock striping: memoria fissa, proiezioni diverse possono condividere una stripe.
+ * Tra istanze diverse protegge solo l'UPDATE atomico sui posti.
+ */
+class LocalScreeningLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutNanos;
+
+    LocalScreeningLocks(int stripes, Duration timeout) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes deve essere positivo");
+        }
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    boolean tryLock(Long screeningId) {
+        try {
+            return stripe(screeningId).tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    void unlock(Long screeningId) {
+        stripe(screeningId).unlock();
+    }
+
+    private ReentrantLock stripe(Long screeningId) {
+        return stripes[Math.floorMod(Long.hashCode(screeningId), stripes.length)];
+    }
+}
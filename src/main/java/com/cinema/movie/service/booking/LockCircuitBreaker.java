@@ -0,0 +1,85 @@
+package com.cinema.movie.service.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Circuit breaker su Redis per i lock delle prenotazioni.
+ * Chiuso: i lock passano da Redis. Aperto dopo failureThreshold errori consecutivi: lock locali,
+ * nessuna chiamata a Redis finché un probe non va a buon fine.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(BookingLockProperties.class)
+public class LockCircuitBreaker {
+
+    public enum Mode {
+        REDIS("redis"),
+        LOCAL("local");
+
+        private final String tag;
+
+        Mode(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    private final int failureThreshold;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean open = new AtomicBoolean();
+    private volatile String lastFailure;
+
+    public LockCircuitBreaker(BookingLockProperties properties, MeterRegistry meterRegistry) {
+        this.failureThreshold = properties.failureThreshold();
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("cinema.booking.lock.degraded", List.of(), open, state -> state.get() ? 1 : 0);
+    }
+
+    public boolean allowsRedis() {
+        return !open.get();
+    }
+
+    public Mode mode() {
+        return open.get() ? Mode.LOCAL : Mode.REDIS;
+    }
+
+    /**
+     * Redis ha risposto: azzera gli errori e, se il circuito era aperto, lo richiude.
+     */
+    public void recordSuccess() {
+        if (consecutiveFailures.get() > 0) {
+            consecutiveFailures.set(0);
+        }
+        if (open.compareAndSet(true, false)) {
+            log.info("Redis di nuovo disponibile: lock distribuiti ripristinati");
+            modeChanged(Mode.REDIS);
+        }
+    }
+
+    public void recordFailure(Exception e) {
+        lastFailure = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && open.compareAndSet(false, true)) {
+            log.warn("Redis non disponibile ({}): prenotazioni con lock locale", lastFailure);
+            modeChanged(Mode.LOCAL);
+        }
+    }
+
+    public String lastFailure() {
+        return lastFailure;
+    }
+
+    private void modeChanged(Mode mode) {
+        meterRegistry.counter("cinema.booking.lock.mode.changes", "mode", mode.tag()).increment();
+    }
+}
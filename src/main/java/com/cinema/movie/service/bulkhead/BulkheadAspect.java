@@ -0,0 +1,51 @@
+package com.cinema.movie.service.bulkhead;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applica il bulkhead ai metodi @DatabaseLane.
+ * Dopo il single-flight (i chiamanti raggruppati non consumano permessi) e prima della transazione:
+ * chi è in coda non tiene una connessione.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class BulkheadAspect {
+
+    private final DatabaseBulkhead bulkhead;
+
+    @Around("@annotation(com.cinema.movie.service.bulkhead.DatabaseLane) "
+            + "|| @within(com.cinema.movie.service.bulkhead.DatabaseLane)")
+    public Object guard(ProceedingJoinPoint joinPoint) {
+        return bulkhead.execute(lane(joinPoint), () -> proceed(joinPoint));
+    }
+
+    private static DatabaseBulkhead.Lane lane(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        DatabaseLane lane = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), DatabaseLane.class);
+        if (lane == null) {
+            lane = AnnotatedElementUtils.findMergedAnnotation(signature.getDeclaringType(), DatabaseLane.class);
+        }
+        return lane.value();
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // I metodi dei service non dichiarano checked exception
+            throw new IllegalStateException(e);
+        }
+    }
+}
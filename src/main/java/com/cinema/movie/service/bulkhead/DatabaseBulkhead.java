@@ -0,0 +1,146 @@
+package com.cinema.movie.service.bulkhead;
+
+import com.cinema.movie.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead davanti al pool di connessioni: con i virtual thread la concorrenza è illimitata
+ * e senza limite i picchi finirebbero in timeout di Hikari.
+ * Un semaforo fair con tanti permessi quante connessioni; le letture passano prima da una
+ * corsia di permits - writeReserved permessi, così non possono mai occupare tutte le connessioni.
+ * Chi non entra entro il timeout della propria corsia riceve ServiceOverloadedException.
+ * Le chiamate annidate nello stesso thread riusano il permesso già preso.
+ */
+@Component
+@EnableConfigurationProperties(DatabaseBulkheadProperties.class)
+public class DatabaseBulkhead {
+
+    public static final String OUTCOME_ACQUIRED = "acquired";
+    public static final String OUTCOME_REJECTED = "rejected";
+
+    public enum Lane {
+        WRITE("write"),
+        READ("read");
+
+        private final String tag;
+
+        Lane(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    private final boolean enabled;
+    private final Semaphore connections;
+    private final Semaphore reads;
+    private final Map<Lane, Duration> timeouts = new EnumMap<>(Lane.class);
+    private final Map<Lane, AtomicInteger> queued = new EnumMap<>(Lane.class);
+    private final Map<Lane, AtomicInteger> active = new EnumMap<>(Lane.class);
+    private final Duration retryAfter;
+    private final MeterRegistry meterRegistry;
+    private final ThreadLocal<Lane> held = new ThreadLocal<>();
+
+    public DatabaseBulkhead(DatabaseBulkheadProperties properties, MeterRegistry meterRegistry) {
+        if (properties.writeReserved() <= 0 || properties.writeReserved() >= properties.permits()) {
+            throw new IllegalArgumentException("writeReserved deve essere compreso tra 1 e permits - 1");
+        }
+        this.enabled = properties.enabled();
+        this.connections = new Semaphore(properties.permits(), true);
+        this.reads = new Semaphore(properties.permits() - properties.writeReserved(), true);
+        this.timeouts.put(Lane.WRITE, properties.writeTimeout());
+        this.timeouts.put(Lane.READ, properties.readTimeout());
+        this.retryAfter = properties.retryAfter();
+        this.meterRegistry = meterRegistry;
+
+        for (Lane lane : Lane.values()) {
+            Tags tags = Tags.of("lane", lane.tag());
+            queued.put(lane, meterRegistry.gauge("cinema.db.bulkhead.queued", tags, new AtomicInteger()));
+            active.put(lane, meterRegistry.gauge("cinema.db.bulkhead.active", tags, new AtomicInteger()));
+        }
+        meterRegistry.gauge("cinema.db.bulkhead.available", connections, Semaphore::availablePermits);
+    }
+
+    /**
+     * Esegue operation con un permesso della corsia; i permessi si rilasciano anche in caso di errore.
+     */
+    public <T> T execute(Lane lane, Supplier<T> operation) {
+        if (!enabled || held.get() != null) {
+            return operation.get();
+        }
+
+        acquire(lane);
+        held.set(lane);
+        active.get(lane).incrementAndGet();
+        try {
+            return operation.get();
+        } finally {
+            active.get(lane).decrementAndGet();
+            held.remove();
+            release(lane);
+        }
+    }
+
+    private void acquire(Lane lane) {
+        long deadline = System.nanoTime() + timeouts.get(lane).toNanos();
+        AtomicInteger waiting = queued.get(lane);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_REJECTED;
+        boolean readAcquired = false;
+        waiting.incrementAndGet();
+        try {
+            if (lane == Lane.READ) {
+                readAcquired = reads.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (!readAcquired) {
+                    throw overloaded(lane);
+                }
+            }
+            if (!connections.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw overloaded(lane);
+            }
+            outcome = OUTCOME_ACQUIRED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw overloaded(lane);
+        } finally {
+            if (readAcquired && OUTCOME_REJECTED.equals(outcome)) {
+                reads.release();
+            }
+            waiting.decrementAndGet();
+            sample.stop(meterRegistry.timer("cinema.db.bulkhead.wait", "lane", lane.tag(), "outcome", outcome));
+        }
+    }
+
+    private void release(Lane lane) {
+        connections.release();
+        if (lane == Lane.READ) {
+            reads.release();
+        }
+    }
+
+    private ServiceOverloadedException overloaded(Lane lane) {
+        return new ServiceOverloadedException("Database sovraccarico, riprovare più tardi (" + lane.tag() + ")", retryAfter);
+    }
+
+    int queued(Lane lane) {
+        return queued.get(lane).get();
+    }
+
+    int availablePermits() {
+        return connections.availablePermits();
+    }
+}
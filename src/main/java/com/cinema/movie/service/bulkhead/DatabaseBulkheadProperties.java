@@ -0,0 +1,23 @@
+package com.cinema.movie.service.bulkhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Bulkhead sull'accesso al database (cinema.db-bulkhead.*).
+ * permits limita le chiamate concorrenti, non le connessioni: va tenuto sotto il pool per lasciare
+ * margine ai job schedulati e ai listener after-commit in REQUIRES_NEW, che non passano dal bulkhead.
+ * writeReserved permessi restano sempre alle prenotazioni.
+ */
+@ConfigurationProperties(prefix = "cinema.db-bulkhead")
+public record DatabaseBulkheadProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("8") int permits,
+        @DefaultValue("4") int writeReserved,
+        @DefaultValue("2s") Duration writeTimeout,
+        @DefaultValue("200ms") Duration readTimeout,
+        @DefaultValue("1s") Duration retryAfter
+) {
+}
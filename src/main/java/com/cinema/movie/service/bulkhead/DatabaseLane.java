@@ -0,0 +1,19 @@
+package com.cinema.movie.service.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Metodo (o classe) che usa il database passando dal bulkhead nella corsia indicata.
+ * L'annotazione sul metodo prevale su quella della classe.
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DatabaseLane {
+
+    DatabaseBulkhead.Lane value();
+}
@@ -0,0 +1,17 @@
+package com.cinema.movie.service.coalescing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Metodo di lettura soggetto a single-flight: chiamate concorrenti con gli stessi
+ * argomenti condividono un'unica esecuzione. Il risultato deve essere immutabile.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+}
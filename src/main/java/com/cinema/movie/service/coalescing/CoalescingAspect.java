@@ -0,0 +1,43 @@
+package com.cinema.movie.service.coalescing;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Applica il single-flight ai metodi @Coalesced.
+ * Precedenza massima: il raggruppamento avviene prima di aprire la transazione,
+ * così i chiamanti in attesa non occupano connessioni al database.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class CoalescingAspect {
+
+    private final RequestCoalescer coalescer;
+
+    @Around("@annotation(com.cinema.movie.service.coalescing.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) {
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        return coalescer.execute(operation, Arrays.asList(joinPoint.getArgs()), () -> proceed(joinPoint));
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // I metodi di lettura non dichiarano checked exception
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.cinema.movie.service.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight per letture identiche concorrenti.
+ * Il primo chiamante (leader) esegue la lettura, gli altri attendono lo stesso risultato.
+ * La chiave viene rimossa appena la lettura termina: non è una cache,
+ * una chiamata successiva esegue di nuovo la query.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gaugeMapSize("cinema.coalescing.inflight", List.of(), inFlight);
+    }
+
+    private record Key(String operation, List<Object> arguments) {
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, List<Object> arguments, Supplier<T> loader) {
+        Key key = new Key(operation, arguments);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            calls(operation, "collapsed").increment();
+            return (T) await(existing);
+        }
+
+        calls(operation, "executed").increment();
+        try {
+            T result = loader.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Counter calls(String operation, String outcome) {
+        return meterRegistry.counter("cinema.coalescing.calls", "operation", operation, "outcome", outcome);
+    }
+
+    /**
+     * Chi attende riceve la stessa eccezione del leader, non un CompletionException.
+     */
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.cinema.movie.service.hotspot;
+
+import com.cinema.movie.event.HotScreeningEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proiezioni più richieste e più contese, stimate in streaming con due sketch Space-Saving.
+ * A ogni intervallo le proiezioni oltre soglia diventano calde (HotScreeningEvent),
+ * quelle scese sotto metà soglia tornano normali; poi i contatori decadono.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(HotScreeningProperties.class)
+public class HotScreeningDetector {
+
+    private static final int REPORT_SIZE = 10;
+
+    private final HotScreeningProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SpaceSavingSketch requests;
+    private final SpaceSavingSketch lockFailures;
+    private final Set<Long> hot = ConcurrentHashMap.newKeySet();
+
+    public record ScreeningHits(Long screeningId, long count, long error) {
+        static ScreeningHits from(SpaceSavingSketch.Entry entry) {
+            return new ScreeningHits(entry.key(), entry.count(), entry.error());
+        }
+    }
+
+    public record Report(List<ScreeningHits> requests, List<ScreeningHits> lockFailures, Set<Long> hot) {
+    }
+
+    public HotScreeningDetector(HotScreeningProperties properties, ApplicationEventPublisher eventPublisher) {
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.requests = new SpaceSavingSketch(properties.capacity());
+        this.lockFailures = new SpaceSavingSketch(properties.capacity());
+    }
+
+    public void recordRequest(long screeningId) {
+        requests.offer(screeningId, 1);
+    }
+
+    public void recordLockFailure(long screeningId) {
+        lockFailures.offer(screeningId, 1);
+    }
+
+    public boolean isHot(Long screeningId) {
+        return hot.contains(screeningId);
+    }
+
+    public Report report() {
+        return new Report(
+                requests.top(REPORT_SIZE).stream().map(ScreeningHits::from).toList(),
+                lockFailures.top(REPORT_SIZE).stream().map(ScreeningHits::from).toList(),
+                Set.copyOf(hot));
+    }
+
+    @Scheduled(fixedDelayString = "${cinema.hot-screenings.interval:PT10S}")
+    public void evaluate() {
+        Set<Long> stillHot = new HashSet<>();
+        for (SpaceSavingSketch.Entry entry : lockFailures.top(lockFailures.capacity())) {
+            long failures = entry.count() - entry.error();
+            boolean wasHot = hot.contains(entry.key());
+            if (failures >= properties.threshold() || (wasHot && failures >= properties.threshold() / 2)) {
+                stillHot.add(entry.key());
+                if (!wasHot) {
+                    hot.add(entry.key());
+                    log.info("Proiezione calda: {} ({} lock falliti)", entry.key(), failures);
+                    eventPublisher.publishEvent(HotScreeningEvent.heated(
+                            entry.key(), requests.estimate(entry.key()), failures));
+                }
+            }
+        }
+
+        for (Long screeningId : Set.copyOf(hot)) {
+            if (!stillHot.contains(screeningId)) {
+                hot.remove(screeningId);
+                log.info("Proiezione tornata normale: {}", screeningId);
+                eventPublisher.publishEvent(HotScreeningEvent.cooled(
+                        screeningId, requests.estimate(screeningId), lockFailures.estimate(screeningId)));
+            }
+        }
+
+        requests.decay();
+        lockFailures.decay();
+    }
+}
@@ -0,0 +1,22 @@
+package com.cinema.movie.service.hotspot;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/hotscreenings: proiezioni più richieste, più contese e attualmente calde.
+ */
+@Component
+@Endpoint(id = "hotscreenings")
+@RequiredArgsConstructor
+public class HotScreeningEndpoint {
+
+    private final HotScreeningDetector detector;
+
+    @ReadOperation
+    public HotScreeningDetector.Report hotScreenings() {
+        return detector.report();
+    }
+}
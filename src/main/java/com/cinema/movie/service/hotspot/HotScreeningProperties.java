@@ -0,0 +1,18 @@
+package com.cinema.movie.service.hotspot;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Rilevamento proiezioni calde (cinema.hot-screenings.*).
+ * threshold si confronta con i lock falliti a decadimento: i contatori si dimezzano a ogni interval.
+ */
+@ConfigurationProperties(prefix = "cinema.hot-screenings")
+public record HotScreeningProperties(
+        @DefaultValue("64") int capacity,
+        @DefaultValue("50") long threshold,
+        @DefaultValue("PT10S") Duration interval
+) {
+}
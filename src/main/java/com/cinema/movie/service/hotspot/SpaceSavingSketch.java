@@ -0,0 +1,111 @@
+package com.cinema.movie.service.hotspot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Heavy hitters con l'algoritmo Space-Saving su "capacity" contatori.
+ * Ogni chiave con frequenza superiore a totale/capacity è garantita nel sketch;
+ * count sovrastima la frequenza reale al più di error.
+ * Solo array primitivi: offer non alloca.
+ */
+public final class SpaceSavingSketch {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private int size;
+
+    public record Entry(long key, long count, long error) {
+    }
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity deve essere positiva");
+        }
+        this.keys = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+    }
+
+    /**
+     * Aggiunge weight alla chiave. Se il sketch è pieno la chiave prende il posto
+     * del contatore minimo, ereditandone il valore come errore.
+     */
+    public synchronized void offer(long key, long weight) {
+        int min = 0;
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                counts[i] += weight;
+                return;
+            }
+            if (counts[i] < counts[min]) {
+                min = i;
+            }
+        }
+
+        if (size < keys.length) {
+            keys[size] = key;
+            counts[size] = weight;
+            errors[size] = 0;
+            size++;
+            return;
+        }
+
+        keys[min] = key;
+        errors[min] = counts[min];
+        counts[min] += weight;
+    }
+
+    /**
+     * Stima per una chiave, 0 se non monitorata.
+     */
+    public synchronized long estimate(long key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                return counts[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Le n chiavi più frequenti, in ordine decrescente.
+     */
+    public synchronized List<Entry> top(int n) {
+        List<Entry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new Entry(keys[i], counts[i], errors[i]));
+        }
+        entries.sort(Comparator.comparingLong(Entry::count).reversed().thenComparingLong(Entry::key));
+        return entries.size() > n ? List.copyOf(entries.subList(0, n)) : List.copyOf(entries);
+    }
+
+    /**
+     * Dimezza contatori ed errori: il sketch segue il traffico recente.
+     * I contatori arrivati a zero liberano il posto.
+     */
+    public synchronized void decay() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            long count = counts[i] >> 1;
+            if (count > 0) {
+                keys[kept] = keys[i];
+                counts[kept] = count;
+                errors[kept] = errors[i] >> 1;
+                kept++;
+            }
+        }
+        for (int i = kept; i < size; i++) {
+            keys[i] = EMPTY;
+        }
+        size = kept;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,175 @@
+package com.cinema.movie.service.popularity;
+
+import com.cinema.movie.dto.PopularMovieResponse;
+import com.cinema.movie.event.BookingEvent;
+import com.cinema.movie.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Classifica di popolarità mantenuta in memoria.
+ * I contatori per film vengono aggiornati a ogni conferma/cancellazione;
+ * un rebuild periodico dal database corregge eventuali derive.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PopularityService {
+
+    public static final int MAX_RESULTS = 50;
+
+    private static final int MINUTE_BUCKETS = 60;
+    private static final int HOUR_BUCKETS = 24 * 7;
+
+    private final BookingRepository bookingRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Queue<BookingEvent> changedDuringRebuild = new ConcurrentLinkedQueue<>();
+    private volatile boolean rebuilding;
+    private volatile Map<Long, MovieCounters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Contatori di un film: minuti per l'ultima ora, ore per giorno e settimana.
+     */
+    static final class MovieCounters {
+
+        private final String title;
+        private final SlidingWindowCounter minutes = new SlidingWindowCounter(MINUTE_BUCKETS, Duration.ofMinutes(1));
+        private final SlidingWindowCounter hours = new SlidingWindowCounter(HOUR_BUCKETS, Duration.ofHours(1));
+        private final AtomicLong allTime = new AtomicLong();
+
+        MovieCounters(String title) {
+            this.title = title;
+        }
+
+        void addWindowed(LocalDateTime confirmedAt, LocalDateTime now, long delta) {
+            minutes.add(confirmedAt, now, delta);
+            hours.add(confirmedAt, now, delta);
+        }
+
+        long count(PopularityWindow window, LocalDateTime now) {
+            return switch (window) {
+                case HOUR -> minutes.sum(now, MINUTE_BUCKETS);
+                case DAY -> hours.sum(now, 24);
+                case WEEK -> hours.sum(now, HOUR_BUCKETS);
+                case ALL_TIME -> allTime.get();
+            };
+        }
+    }
+
+    /**
+     * Aggiornamento incrementale dopo il commit della prenotazione.
+     * Solo le prenotazioni effettivamente confermate contano.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingEvent(BookingEvent event) {
+        if (delta(event) == 0) {
+            return;
+        }
+
+        // Il read lock impedisce la sostituzione tra l'accodamento e l'applicazione:
+        // l'evento finisce nella mappa vecchia e in coda, oppure solo nella nuova
+        lock.readLock().lock();
+        try {
+            if (rebuilding) {
+                changedDuringRebuild.add(event);
+            }
+            apply(counters, event);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long delta(BookingEvent event) {
+        if (event.confirmedAt() == null) {
+            return 0;
+        }
+        return switch (event.status()) {
+            case CONFIRMED -> 1;
+            case CANCELLED, EXPIRED -> -1;
+            case PENDING -> 0;
+        };
+    }
+
+    private static void apply(Map<Long, MovieCounters> target, BookingEvent event) {
+        long delta = delta(event);
+        MovieCounters movie = target.computeIfAbsent(event.movieId(), id -> new MovieCounters(event.movieTitle()));
+        movie.allTime.addAndGet(delta);
+        movie.addWindowed(event.confirmedAt(), LocalDateTime.now(), delta);
+    }
+
+    /**
+     * Migliori film per prenotazioni confermate nella finestra richiesta, al massimo MAX_RESULTS.
+     */
+    public List<PopularMovieResponse> topMovies(PopularityWindow window, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return counters.entrySet().stream()
+                .map(entry -> new PopularMovieResponse(
+                        entry.getKey(),
+                        entry.getValue().title,
+                        entry.getValue().count(window, now)))
+                .filter(movie -> movie.confirmedBookings() > 0)
+                .sorted(Comparator.comparingLong(PopularMovieResponse::confirmedBookings).reversed()
+                        .thenComparing(PopularMovieResponse::movieId))
+                .limit(Math.clamp(limit, 1, MAX_RESULTS))
+                .toList();
+    }
+
+    /**
+     * Ricostruzione completa dal database: all'avvio e periodicamente.
+     * Le conferme e cancellazioni arrivate mentre si leggeva il database potrebbero mancare
+     * dallo snapshot: vengono riapplicate alla nuova mappa al momento della sostituzione.
+     */
+    @Scheduled(fixedDelayString = "${cinema.popularity.rebuild-interval:PT15M}")
+    public synchronized void rebuild() {
+        changedDuringRebuild.clear();
+        rebuilding = true;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, MovieCounters> rebuilt = new ConcurrentHashMap<>();
+
+            bookingRepository.countConfirmedByMovie().forEach(row -> rebuilt
+                    .computeIfAbsent(row.getMovieId(), id -> new MovieCounters(row.getTitle()))
+                    .allTime.set(row.getBookings()));
+
+            bookingRepository.findConfirmationsSince(now.minusHours(HOUR_BUCKETS)).forEach(row -> {
+                MovieCounters movie = rebuilt.get(row.getMovieId());
+                if (movie != null) {
+                    movie.addWindowed(row.getConfirmedAt(), now, 1);
+                }
+            });
+
+            lock.writeLock().lock();
+            try {
+                for (BookingEvent event; (event = changedDuringRebuild.poll()) != null; ) {
+                    apply(rebuilt, event);
+                }
+                counters = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            log.debug("Classifica popolarità ricostruita: {} film", rebuilt.size());
+        } catch (Exception e) {
+            // Si continua a servire la classifica precedente, aggiornata dagli eventi
+            log.warn("Errore ricostruzione classifica popolarità: {}", e.getMessage());
+        } finally {
+            rebuilding = false;
+            changedDuringRebuild.clear();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.cinema.movie.service.popularity;
+
+/**
+ * Finestre temporali supportate dalla classifica di popolarità.
+ */
+public enum PopularityWindow {
+    HOUR,
+    DAY,
+    WEEK,
+    ALL_TIME
+}
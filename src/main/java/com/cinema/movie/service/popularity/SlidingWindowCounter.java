@@ -0,0 +1,70 @@
+package com.cinema.movie.service.popularity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Contatore a finestra scorrevole su un anello di bucket di ampiezza fissa.
+ * Ogni bucket ricorda l'epoca a cui appartiene: i bucket scaduti vengono
+ * azzerati al primo riuso, senza job di pulizia.
+ */
+public final class SlidingWindowCounter {
+
+    private final long bucketSeconds;
+    private final long[] counts;
+    private final long[] epochs;
+
+    public SlidingWindowCounter(int buckets, Duration bucketWidth) {
+        this.bucketSeconds = bucketWidth.toSeconds();
+        this.counts = new long[buckets];
+        this.epochs = new long[buckets];
+        Arrays.fill(epochs, Long.MIN_VALUE);
+    }
+
+    /**
+     * Aggiunge delta al bucket di "time". Eventi più vecchi della finestra vengono ignorati.
+     */
+    public synchronized void add(LocalDateTime time, LocalDateTime now, long delta) {
+        long epoch = epochOf(time);
+        long current = epochOf(now);
+        if (epoch <= current - counts.length || epoch > current) {
+            return;
+        }
+
+        int index = indexOf(epoch);
+        if (epochs[index] != epoch) {
+            epochs[index] = epoch;
+            counts[index] = 0;
+        }
+        counts[index] += delta;
+    }
+
+    /**
+     * Somma degli ultimi "buckets" bucket fino a "now" incluso.
+     */
+    public synchronized long sum(LocalDateTime now, int buckets) {
+        long current = epochOf(now);
+        long oldest = current - Math.min(buckets, counts.length);
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (epochs[i] > oldest && epochs[i] <= current) {
+                total += counts[i];
+            }
+        }
+        return total;
+    }
+
+    public int buckets() {
+        return counts.length;
+    }
+
+    private long epochOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+    }
+
+    private int indexOf(long epoch) {
+        return (int) Math.floorMod(epoch, (long) counts.length);
+    }
+}
@@ -0,0 +1,179 @@
+package com.cinema.movie.service.schedule;
+
+import com.cinema.movie.dto.MovieSummaryResponse;
+import com.cinema.movie.event.ScheduleChangedEvent;
+import com.cinema.movie.event.ScheduleChangedEvent.SeatChange;
+import com.cinema.movie.repository.MovieRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read model per film: prossimo spettacolo, proiezioni prenotabili, prezzo minimo, posti rimasti.
+ * I cambi di posti si applicano come differenza, senza query. Si rilegge dal database il riepilogo
+ * del film solo quando la differenza non basta: proiezioni modificate, film che torna prenotabile,
+ * proiezione esaurita che era il prossimo spettacolo o quella col prezzo minimo.
+ * Una riconciliazione periodica ricalcola tutto e raccoglie i film cambiati altrove.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class MovieSummaryService {
+
+    private static final Comparator<MovieSummaryResponse> BY_TITLE =
+            Comparator.comparing(MovieSummaryResponse::title).thenComparing(MovieSummaryResponse::movieId);
+
+    private final MovieRepository movieRepository;
+
+    private final Set<Long> changedDuringReconcile = ConcurrentHashMap.newKeySet();
+    private volatile Map<Long, MovieSummaryResponse> summaries;
+    private volatile boolean reconciling;
+
+    /**
+     * Film con proiezioni prenotabili, ordinati per titolo.
+     * Optional vuoto finché il read model non è stato caricato.
+     */
+    public Optional<List<MovieSummaryResponse>> available() {
+        Map<Long, MovieSummaryResponse> current = summaries;
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        // Il prossimo spettacolo è iniziato: si ricalcola solo quel film
+        current.values().stream()
+                .filter(summary -> !summary.nextStartTime().isAfter(now))
+                .map(MovieSummaryResponse::movieId)
+                .toList()
+                .forEach(movieId -> recompute(current, movieId, now));
+
+        return Optional.of(current.values().stream()
+                .sorted(BY_TITLE)
+                .toList());
+    }
+
+    @EventListener
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        Map<Long, MovieSummaryResponse> current = summaries;
+        if (event.isReload() || current == null) {
+            reconcile();
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> stale = new HashSet<>(event.movieIds());
+        for (SeatChange change : event.seatChanges()) {
+            if (!stale.contains(change.movieId()) && !apply(current, change, now)) {
+                stale.add(change.movieId());
+            }
+        }
+        if (reconciling) {
+            changedDuringReconcile.addAll(stale);
+            event.seatChanges().forEach(change -> changedDuringReconcile.add(change.movieId()));
+        }
+        stale.forEach(movieId -> recompute(current, movieId, now));
+    }
+
+    /**
+     * Ricalcolo completo dal database. I film cambiati durante la lettura potrebbero mancare
+     * dallo snapshot: vengono riletti dopo la sostituzione.
+     */
+    @Scheduled(fixedDelayString = "${cinema.summary.reconcile-interval:PT5M}",
+            initialDelayString = "${cinema.summary.reconcile-interval:PT5M}")
+    public synchronized void reconcile() {
+        reconciling = true;
+        try {
+            Map<Long, MovieSummaryResponse> loaded = new ConcurrentHashMap<>();
+            movieRepository.findAvailabilitySummaries(LocalDateTime.now())
+                    .forEach(summary -> loaded.put(summary.getMovieId(), MovieSummaryResponse.from(summary)));
+            summaries = loaded;
+            log.debug("Riepilogo film riconciliato: {} film prenotabili", loaded.size());
+        } catch (Exception e) {
+            // Si continua a servire il read model precedente
+            log.warn("Errore riconciliazione riepilogo film: {}", e.getMessage());
+        } finally {
+            reconciling = false;
+        }
+
+        Map<Long, MovieSummaryResponse> current = summaries;
+        if (current != null) {
+            LocalDateTime now = LocalDateTime.now();
+            for (Iterator<Long> it = changedDuringReconcile.iterator(); it.hasNext(); ) {
+                Long movieId = it.next();
+                it.remove();
+                recompute(current, movieId, now);
+            }
+        }
+    }
+
+    /**
+     * Applica la differenza di posti; false se serve rileggere il film dal database.
+     */
+    private static boolean apply(Map<Long, MovieSummaryResponse> current, SeatChange change, LocalDateTime now) {
+        boolean wasBookable = change.previousSeats() > 0;
+        boolean bookable = change.availableSeats() > 0;
+        if (!change.startTime().isAfter(now) || !wasBookable && !bookable) {
+            // Proiezione iniziata (la esclude già available()) o esaurita prima e dopo
+            return true;
+        }
+
+        boolean[] applied = {true};
+        current.compute(change.movieId(), (movieId, summary) -> {
+            if (summary == null) {
+                // Film non elencato che torna prenotabile: titolo e genere vengono dal database
+                applied[0] = !bookable;
+                return null;
+            }
+            if (wasBookable && bookable) {
+                return withChange(summary, summary.nextStartTime(), 0, summary.minPrice(),
+                        change.availableSeats() - change.previousSeats());
+            }
+            if (bookable) {
+                return withChange(summary, min(summary.nextStartTime(), change.startTime()), 1,
+                        summary.minPrice().min(change.price()), change.availableSeats());
+            }
+            if (summary.bookableScreenings() == 1) {
+                return null;
+            }
+            if (change.startTime().equals(summary.nextStartTime()) || change.price().compareTo(summary.minPrice()) == 0) {
+                applied[0] = false;
+                return summary;
+            }
+            return withChange(summary, summary.nextStartTime(), -1, summary.minPrice(), -change.previousSeats());
+        });
+        return applied[0];
+    }
+
+    private static MovieSummaryResponse withChange(MovieSummaryResponse summary, LocalDateTime nextStartTime,
+                                                   int screeningsDelta, BigDecimal minPrice, long seatsDelta) {
+        return new MovieSummaryResponse(summary.movieId(), summary.title(), summary.genre(), summary.duration(),
+                nextStartTime, summary.bookableScreenings() + screeningsDelta, minPrice, summary.seatsLeft() + seatsDelta);
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private void recompute(Map<Long, MovieSummaryResponse> current, Long movieId, LocalDateTime now) {
+        try {
+            movieRepository.findAvailabilitySummary(movieId, now).ifPresentOrElse(
+                    summary -> current.put(movieId, MovieSummaryResponse.from(summary)),
+                    () -> current.remove(movieId));
+        } catch (Exception e) {
+            // Resta il riepilogo precedente fino alla prossima riconciliazione
+            log.warn("Errore aggiornamento riepilogo film {}: {}", movieId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.cinema.movie.service.schedule;
+
+import com.cinema.movie.dto.ScreeningResponse;
+import com.cinema.movie.entity.Screening;
+import com.cinema.movie.event.BookingEvent;
+import com.cinema.movie.event.CatalogChangedEvent;
+import com.cinema.movie.event.ScheduleChangedEvent;
+import com.cinema.movie.event.ScheduleChangedEvent.SeatChange;
+import com.cinema.movie.repository.ScreeningRepository;
+import com.cinema.movie.repository.ScreeningSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Palinsesto in memoria, suddiviso per giorno e ordinato per orario.
+ * Contiene tutte le proiezioni da oggi in avanti; i posti disponibili sono
+ * sovrapposti a parte e aggiornati a ogni prenotazione o cancellazione.
+ * Le letture non prendono lock: ogni giorno è un array copy-on-write.
+ * Gli eventi locali lo aggiornano subito; una riconciliazione periodica dal database
+ * recupera le prenotazioni e le modifiche fatte sugli altri nodi.
+ * Ogni modifica pubblica uno ScheduleChangedEvent per i read model derivati.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ScreeningScheduleIndex {
+
+    private static final Comparator<ScreeningSlot> BY_START_TIME =
+            Comparator.comparing(ScreeningSlot::startTime).thenComparing(ScreeningSlot::id);
+
+    private final ScreeningRepository screeningRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Schedule schedule;
+
+    /**
+     * Proiezione compatta: solo i dati necessari a rispondere senza SQL.
+     */
+    public record ScreeningSlot(
+            Long id,
+            Long movieId,
+            String movieTitle,
+            LocalDateTime startTime,
+            int totalSeats,
+            BigDecimal price
+    ) {
+        static ScreeningSlot from(Screening screening) {
+            return new ScreeningSlot(
+                    screening.getId(),
+                    screening.getMovie().getId(),
+                    screening.getMovie().getTitle(),
+                    screening.getStartTime(),
+                    screening.getTotalSeats(),
+                    screening.getPrice()
+            );
+        }
+
+        static ScreeningSlot from(ScreeningSnapshot snapshot) {
+            return new ScreeningSlot(
+                    snapshot.getId(),
+                    snapshot.getMovieId(),
+                    snapshot.getMovieTitle(),
+                    snapshot.getStartTime(),
+                    snapshot.getTotalSeats(),
+                    snapshot.getPrice()
+            );
+        }
+    }
+
+    /**
+     * Stato completo dell'indice, sostituito in blocco a ogni ricaricamento.
+     */
+    private record Schedule(
+            LocalDate loadedFrom,
+            NavigableMap<LocalDate, ScreeningSlot[]> days,
+            Map<Long, ScreeningSlot> slots,
+            Map<Long, Integer> availableSeats
+    ) {
+        static Schedule startingAt(LocalDate day) {
+            return new Schedule(day, new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Caricamento all'avvio e rollover a mezzanotte: i giorni passati escono dall'indice.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${cinema.schedule.rollover-cron:0 0 0 * * *}")
+    public void reload() {
+        LocalDate today = LocalDate.now();
+        List<Screening> screenings = screeningRepository.findScheduleFrom(today.atStartOfDay());
+
+        Schedule loaded = Schedule.startingAt(today);
+        for (Screening screening : screenings) {
+            ScreeningSlot slot = ScreeningSlot.from(screening);
+            loaded.slots().put(slot.id(), slot);
+            loaded.availableSeats().put(slot.id(), screening.getAvailableSeats());
+        }
+        loaded.slots().values().stream()
+                .collect(Collectors.groupingBy(slot -> slot.startTime().toLocalDate()))
+                .forEach((day, slots) -> loaded.days().put(day, slots.stream()
+                        .sorted(BY_START_TIME)
+                        .toArray(ScreeningSlot[]::new)));
+
+        writeLock.lock();
+        try {
+            schedule = loaded;
+        } finally {
+            writeLock.unlock();
+        }
+
+        log.info("Palinsesto in memoria caricato: {} proiezioni in {} giorni", screenings.size(), loaded.days().size());
+        eventPublisher.publishEvent(ScheduleChangedEvent.reloaded());
+    }
+
+    /**
+     * Confronto con il database: i posti cambiati si aggiornano sul posto, proiezioni aggiunte,
+     * rimosse o modificate su altri nodi richiedono un ricaricamento completo.
+     */
+    @Scheduled(fixedDelayString = "${cinema.schedule.reconcile-interval:PT30S}",
+            initialDelayString = "${cinema.schedule.reconcile-interval:PT30S}")
+    public void reconcile() {
+        Schedule current = schedule;
+        if (current == null) {
+            return;
+        }
+        try {
+            List<ScreeningSnapshot> snapshots =
+                    screeningRepository.findScheduleSnapshotFrom(current.loadedFrom().atStartOfDay());
+            if (snapshots.size() != current.slots().size() || snapshots.stream().anyMatch(snapshot ->
+                    !ScreeningSlot.from(snapshot).equals(current.slots().get(snapshot.getId())))) {
+                log.debug("Palinsesto cambiato su un altro nodo: ricaricamento");
+                reload();
+                return;
+            }
+
+            List<SeatChange> changes = new ArrayList<>();
+            for (ScreeningSnapshot snapshot : snapshots) {
+                seatChange(current, snapshot.getId(), snapshot.getAvailableSeats()).ifPresent(changes::add);
+            }
+            if (!changes.isEmpty()) {
+                eventPublisher.publishEvent(ScheduleChangedEvent.seats(changes));
+            }
+        } catch (Exception e) {
+            // Si continua a servire il palinsesto attuale fino al prossimo giro
+            log.warn("Errore riconciliazione palinsesto: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (schedule == null) {
+            return;
+        }
+        if (event.isMovieChange()) {
+            // Modifiche al film (es. titolo) sono rare: si ricarica tutto
+            reload();
+        } else {
+            refreshScreening(event.screeningId());
+        }
+    }
+
+    /**
+     * Le prenotazioni cambiano solo i posti: si rilegge il valore dal database.
+     * La prenotazione usa un UPDATE atomico, quindi l'entity in memoria non è affidabile.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingEvent(BookingEvent event) {
+        Schedule current = schedule;
+        if (current == null || !current.slots().containsKey(event.screeningId())) {
+            return;
+        }
+        screeningRepository.findAvailableSeatsById(event.screeningId())
+                .flatMap(seats -> seatChange(current, event.screeningId(), seats))
+                .ifPresent(change -> eventPublisher.publishEvent(ScheduleChangedEvent.seats(List.of(change))));
+    }
+
+    /**
+     * Nuovo valore dei posti, con quello precedente se è cambiato.
+     */
+    private static Optional<SeatChange> seatChange(Schedule schedule, Long screeningId, int seats) {
+        ScreeningSlot slot = schedule.slots().get(screeningId);
+        Integer previous = schedule.availableSeats().put(screeningId, seats);
+        if (slot == null || previous == null || previous == seats) {
+            return Optional.empty();
+        }
+        return Optional.of(new SeatChange(slot.id(), slot.movieId(), slot.startTime(), slot.price(), previous, seats));
+    }
+
+    /**
+     * Proiezioni di oggi con posti disponibili.
+     */
+    public Optional<List<ScreeningResponse>> today() {
+        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+        return between(startOfDay, startOfDay.plusDays(1));
+    }
+
+    /**
+     * Proiezioni con posti disponibili in [from, to); to null = nessun limite.
+     * Optional vuoto se l'intervallo non è coperto dall'indice.
+     */
+    public Optional<List<ScreeningResponse>> between(LocalDateTime from, LocalDateTime to) {
+        Schedule current = schedule;
+        if (current == null || from.toLocalDate().isBefore(current.loadedFrom())) {
+            return Optional.empty();
+        }
+        if (to != null && !to.isAfter(from)) {
+            return Optional.of(List.of());
+        }
+
+        NavigableMap<LocalDate, ScreeningSlot[]> range = to == null
+                ? current.days().tailMap(from.toLocalDate(), true)
+                : current.days().subMap(from.toLocalDate(), true, to.toLocalDate(), true);
+
+        List<ScreeningResponse> result = new ArrayList<>();
+        for (ScreeningSlot[] day : range.values()) {
+            for (ScreeningSlot slot : day) {
+                if (slot.startTime().isBefore(from) || (to != null && !slot.startTime().isBefore(to))) {
+                    continue;
+                }
+                int available = current.availableSeats().getOrDefault(slot.id(), 0);
+                if (available > 0) {
+                    result.add(new ScreeningResponse(
+                            slot.id(), slot.movieId(), slot.movieTitle(), slot.startTime(), available, slot.price()));
+                }
+            }
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * Posti disponibili della proiezione, se presente nell'indice.
+     */
+    public Optional<Integer> availableSeats(Long screeningId) {
+        Schedule current = schedule;
+        return current == null
+                ? Optional.empty()
+                : Optional.ofNullable(current.availableSeats().get(screeningId));
+    }
+
+    private void refreshScreening(Long screeningId) {
+        Optional<Screening> screening = screeningRepository.findWithMovieById(screeningId);
+        Optional<Integer> seats = screeningRepository.findAvailableSeatsById(screeningId);
+        Set<Long> affectedMovies = new HashSet<>();
+
+        writeLock.lock();
+        try {
+            Schedule current = schedule;
+            ScreeningSlot previous = current.slots().get(screeningId);
+            if (previous != null) {
+                current.slots().remove(screeningId);
+                removeFromDay(current, previous);
+                affectedMovies.add(previous.movieId());
+            }
+            current.availableSeats().remove(screeningId);
+
+            screening
+                    .filter(s -> !s.getStartTime().toLocalDate().isBefore(current.loadedFrom()))
+                    .ifPresent(s -> {
+                        ScreeningSlot slot = ScreeningSlot.from(s);
+                        current.slots().put(slot.id(), slot);
+                        current.availableSeats().put(slot.id(), seats.orElse(s.getAvailableSeats()));
+                        addToDay(current, slot);
+                        affectedMovies.add(slot.movieId());
+                    });
+        } finally {
+            writeLock.unlock();
+        }
+
+        if (!affectedMovies.isEmpty()) {
+            eventPublisher.publishEvent(ScheduleChangedEvent.movies(affectedMovies));
+        }
+    }
+
+    private static void addToDay(Schedule schedule, ScreeningSlot slot) {
+        schedule.days().compute(slot.startTime().toLocalDate(), (day, slots) -> {
+            ScreeningSlot[] updated = slots == null
+                    ? new ScreeningSlot[]{slot}
+                    : Arrays.copyOf(slots, slots.length + 1);
+            updated[updated.length - 1] = slot;
+            Arrays.sort(updated, BY_START_TIME);
+            return updated;
+        });
+    }
+
+    private static void removeFromDay(Schedule schedule, ScreeningSlot slot) {
+        schedule.days().computeIfPresent(slot.startTime().toLocalDate(), (day, slots) -> {
+            ScreeningSlot[] updated = Arrays.stream(slots)
+                    .filter(existing -> !existing.id().equals(slot.id()))
+                    .toArray(ScreeningSlot[]::new);
+            return updated.length == 0 ? null : updated;
+        });
+    }
+}
@@ -0,0 +1,195 @@
+package com.cinema.movie.service.schedule;
+
+import com.cinema.movie.dto.SeatAvailability;
+import com.cinema.movie.event.BookingEvent;
+import com.cinema.movie.event.CatalogChangedEvent;
+import com.cinema.movie.exception.ServiceOverloadedException;
+import com.cinema.movie.repository.ScreeningRepository;
+import com.cinema.movie.repository.ScreeningSeats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Push dei posti disponibili ai seat-picker, una sorgente per proiezione.
+ * Le prenotazioni marcano la proiezione come "sporca"; un flush periodico legge i posti
+ * dal database per tutte le proiezioni sporche e invia un solo messaggio per ciascuna,
+ * quindi una raffica di prenotazioni produce pochi messaggi.
+ * Le prenotazioni degli altri nodi non generano eventi locali: a intervalli regolari
+ * tutte le proiezioni con subscriber vengono rilette.
+ * Ogni subscriber tiene aperta una connessione: oltre cinema.seats.max-subscribers si risponde 503.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(SeatAvailabilityProperties.class)
+public class SeatAvailabilityBroadcaster {
+
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final ScreeningRepository screeningRepository;
+    private final ScreeningScheduleIndex scheduleIndex;
+    private final SeatAvailabilityProperties properties;
+    private final Scheduler deliveryScheduler;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalSubscribers = new AtomicInteger();
+
+    public SeatAvailabilityBroadcaster(ScreeningRepository screeningRepository,
+                                       ScreeningScheduleIndex scheduleIndex,
+                                       SeatAvailabilityProperties properties,
+                                       @Qualifier("virtualThreadExecutor") Executor executor) {
+        this.screeningRepository = screeningRepository;
+        this.scheduleIndex = scheduleIndex;
+        this.properties = properties;
+        // Ogni subscriber scrive sul proprio Virtual Thread: un client lento non blocca il flush
+        this.deliveryScheduler = Schedulers.fromExecutor(executor);
+    }
+
+    /**
+     * Sorgente condivisa di una proiezione. Replay dell'ultimo valore:
+     * chi si iscrive riceve subito lo stato corrente.
+     */
+    private static final class Channel {
+
+        private final Sinks.Many<SeatAvailability> sink = Sinks.many().replay().latest();
+        private volatile int subscribers;   // modificato solo dentro compute sulla mappa
+        private volatile int lastSent = -1;
+        private volatile SeatAvailability last;
+
+        synchronized void publish(Long screeningId, int availableSeats) {
+            if (availableSeats == lastSent) {
+                return;
+            }
+            lastSent = availableSeats;
+            last = new SeatAvailability(screeningId, availableSeats, LocalDateTime.now());
+            sink.tryEmitNext(last);
+        }
+    }
+
+    /**
+     * Aggiornamenti dei posti per la proiezione; il primo valore è lo stato corrente.
+     * Ai subscriber lenti arriva solo l'ultimo valore, ripetuto a ogni heartbeat.
+     * ServiceOverloadedException se il nodo ha già maxSubscribers connessioni aperte:
+     * il controllo precede la risposta, così il client riceve 503 e non uno stream vuoto.
+     */
+    public Flux<SeatAvailability> subscribe(Long screeningId) {
+        if (totalSubscribers.get() >= properties.maxSubscribers()) {
+            throw new ServiceOverloadedException("Troppi subscriber per il push dei posti", properties.retryAfter());
+        }
+        return Flux.defer(() -> {
+                    totalSubscribers.incrementAndGet();
+                    Channel channel = channels.compute(screeningId, (id, existing) -> {
+                        Channel current = existing != null ? existing : new Channel();
+                        current.subscribers++;
+                        return current;
+                    });
+                    if (channel.lastSent < 0) {
+                        // Stato iniziale dall'indice se disponibile, poi conferma dal database al flush
+                        scheduleIndex.availableSeats(screeningId)
+                                .ifPresent(seats -> channel.publish(screeningId, seats));
+                        dirty.add(screeningId);
+                    }
+                    Flux<SeatAvailability> heartbeat = Flux.interval(properties.heartbeatInterval())
+                            .mapNotNull(tick -> channel.last);
+                    return Flux.merge(channel.sink.asFlux(), heartbeat)
+                            .doFinally(signal -> release(screeningId));
+                })
+                .onBackpressureLatest()
+                .publishOn(deliveryScheduler, 1);
+    }
+
+    public int subscriberCount(Long screeningId) {
+        Channel channel = channels.get(screeningId);
+        return channel == null ? 0 : channel.subscribers;
+    }
+
+    public int totalSubscribers() {
+        return totalSubscribers.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingEvent(BookingEvent event) {
+        markDirty(event.screeningId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.isMovieChange()) {
+            markDirty(event.screeningId());
+        }
+    }
+
+    /**
+     * Marca come sporche tutte le proiezioni seguite: il flush successivo le rilegge
+     * e invia solo i valori effettivamente cambiati.
+     */
+    @Scheduled(fixedDelayString = "${cinema.seats.refresh-interval:PT2S}")
+    public void refreshSubscribed() {
+        dirty.addAll(channels.keySet());
+    }
+
+    /**
+     * Invia un messaggio per ogni proiezione modificata dall'ultimo flush,
+     * con i posti letti dal database (fonte autorevole).
+     */
+    @Scheduled(fixedDelayString = "${cinema.seats.push-interval:PT0.25S}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<Long> pending = new ArrayList<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            Long screeningId = it.next();
+            it.remove();
+            if (channels.containsKey(screeningId)) {
+                pending.add(screeningId);
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += FLUSH_BATCH_SIZE) {
+            List<Long> batch = pending.subList(from, Math.min(from + FLUSH_BATCH_SIZE, pending.size()));
+            try {
+                for (ScreeningSeats seats : screeningRepository.findSeatsByIds(batch)) {
+                    Channel channel = channels.get(seats.getScreeningId());
+                    if (channel != null) {
+                        channel.publish(seats.getScreeningId(), seats.getAvailableSeats());
+                    }
+                }
+            } catch (Exception e) {
+                // Riprova al prossimo flush
+                dirty.addAll(batch);
+                log.warn("Errore lettura posti per push disponibilità: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void markDirty(Long screeningId) {
+        if (channels.containsKey(screeningId)) {
+            dirty.add(screeningId);
+        }
+    }
+
+    private void release(Long screeningId) {
+        totalSubscribers.decrementAndGet();
+        channels.computeIfPresent(screeningId, (id, channel) -> --channel.subscribers == 0 ? null : channel);
+    }
+}
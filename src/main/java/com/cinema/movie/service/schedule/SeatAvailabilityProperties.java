@@ -0,0 +1,21 @@
+package com.cinema.movie.service.schedule;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Push dei posti disponibili (cinema.seats.*).
+ * maxSubscribers va tenuto sotto server.tomcat.max-connections: le connessioni restanti
+ * servono le altre richieste. Oltre il limite la sottoscrizione riceve 503 con Retry-After.
+ * Ogni heartbeatInterval si ripete l'ultimo valore: un client sparito viene rilevato alla scrittura
+ * e libera il posto anche se la proiezione non cambia.
+ */
+@ConfigurationProperties(prefix = "cinema.seats")
+public record SeatAvailabilityProperties(
+        @DefaultValue("20000") int maxSubscribers,
+        @DefaultValue("5s") Duration retryAfter,
+        @DefaultValue("15s") Duration heartbeatInterval
+) {
+}
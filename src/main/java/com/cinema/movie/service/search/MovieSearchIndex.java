@@ -0,0 +1,284 @@
+package com.cinema.movie.service.search;
+
+import com.cinema.movie.entity.Movie;
+import com.cinema.movie.event.CatalogChangedEvent;
+import com.cinema.movie.repository.MovieRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Indice invertito in memoria per la ricerca film.
+ * Trigrammi sul titolo (sostituisce LIKE '%titolo%'), termini di titolo e descrizione,
+ * genere normalizzato. Aggiornato incrementalmente sui CatalogChangedEvent locali e
+ * ricostruito periodicamente per le modifiche fatte sugli altri nodi.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class MovieSearchIndex {
+
+    private static final int GRAM_SIZE = 3;
+
+    // Pesi per il ranking dei risultati
+    private static final int EXACT_TITLE = 100;
+    private static final int TITLE_PREFIX = 60;
+    private static final int TITLE_WORD_PREFIX = 40;
+    private static final int TITLE_SUBSTRING = 20;
+    private static final int TERM_MATCH = 5;
+
+    private final MovieRepository movieRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedMovie> documents = new HashMap<>();
+    private final Map<String, Set<Long>> titleGrams = new HashMap<>();
+    private final Map<String, Set<Long>> terms = new HashMap<>();
+    private final Map<String, Set<Long>> genres = new HashMap<>();
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    /**
+     * Documento indicizzato: solo i campi normalizzati necessari al ranking.
+     */
+    private record IndexedMovie(
+            Long id,
+            String title,
+            String genre,
+            Set<String> terms
+    ) {
+        static IndexedMovie from(Movie movie) {
+            Set<String> terms = new HashSet<>(TextNormalizer.significantTokens(movie.getTitle()));
+            terms.addAll(TextNormalizer.significantTokens(movie.getDescription()));
+            return new IndexedMovie(
+                    movie.getId(),
+                    TextNormalizer.normalize(movie.getTitle()),
+                    TextNormalizer.normalize(movie.getGenre()),
+                    terms
+            );
+        }
+    }
+
+    /**
+     * Costruzione completa all'avvio e poi a intervalli regolari.
+     * Le modifiche arrivate mentre si leggeva il catalogo potrebbero mancare dallo snapshot:
+     * vengono riapplicate dopo la sostituzione.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${cinema.search.rebuild-interval:PT5M}",
+            initialDelayString = "${cinema.search.rebuild-interval:PT5M}")
+    public synchronized void rebuild() {
+        rebuilding = true;
+        try {
+            List<Movie> movies = movieRepository.findAll();
+
+            lock.writeLock().lock();
+            try {
+                documents.clear();
+                titleGrams.clear();
+                terms.clear();
+                genres.clear();
+                movies.forEach(this::addDocument);
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            log.info("Indice ricerca film costruito: {} film", movies.size());
+        } catch (Exception e) {
+            // Si continua a servire l'indice precedente (o la query SQL se non è mai stato costruito)
+            log.warn("Errore ricostruzione indice ricerca film: {}", e.getMessage());
+        } finally {
+            rebuilding = false;
+        }
+
+        if (ready) {
+            for (Iterator<Long> it = changedDuringRebuild.iterator(); it.hasNext(); ) {
+                Long movieId = it.next();
+                it.remove();
+                refresh(movieId);
+            }
+        }
+    }
+
+    /**
+     * Aggiornamento incrementale dopo il commit della modifica.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.isMovieChange()) {
+            return;
+        }
+        if (rebuilding) {
+            changedDuringRebuild.add(event.movieId());
+        }
+        if (ready) {
+            refresh(event.movieId());
+        }
+    }
+
+    /**
+     * Cerca film per genere e testo, ordinati per rilevanza.
+     * Optional vuoto se l'indice non è ancora pronto: il chiamante usa la query SQL.
+     */
+    public Optional<List<Long>> search(String genre, String text) {
+        if (!ready) {
+            return Optional.empty();
+        }
+
+        String query = TextNormalizer.normalize(text);
+        String genreKey = TextNormalizer.normalize(genre);
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = query.isEmpty() ? allDocuments() : scoreMatches(query);
+            if (!genreKey.isEmpty()) {
+                scores.keySet().retainAll(genres.getOrDefault(genreKey, Set.of()));
+            }
+
+            Comparator<Map.Entry<Long, Integer>> ranking = Map.Entry.<Long, Integer>comparingByValue()
+                    .reversed()
+                    .thenComparing(entry -> documents.get(entry.getKey()).title());
+
+            return Optional.of(scores.entrySet().stream()
+                    .sorted(ranking)
+                    .map(Map.Entry::getKey)
+                    .toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private Map<Long, Integer> allDocuments() {
+        Map<Long, Integer> scores = new HashMap<>();
+        documents.keySet().forEach(id -> scores.put(id, 0));
+        return scores;
+    }
+
+    private Map<Long, Integer> scoreMatches(String query) {
+        Map<Long, Integer> scores = new HashMap<>();
+
+        // Titolo: i trigrammi restringono i candidati, contains() conferma la sottostringa
+        Collection<Long> titleCandidates = query.length() < GRAM_SIZE
+                ? documents.keySet()
+                : intersect(grams(query), titleGrams);
+        for (Long id : titleCandidates) {
+            IndexedMovie document = documents.get(id);
+            if (document.title().contains(query)) {
+                scores.put(id, titleScore(document.title(), query));
+            }
+        }
+
+        // Termini di titolo e descrizione: devono comparire tutti
+        List<String> queryTerms = TextNormalizer.significantTokens(query);
+        if (!queryTerms.isEmpty()) {
+            for (Long id : intersect(queryTerms, terms)) {
+                scores.merge(id, TERM_MATCH * queryTerms.size(), Integer::sum);
+            }
+        }
+
+        return scores;
+    }
+
+    private int titleScore(String title, String query) {
+        if (title.equals(query)) {
+            return EXACT_TITLE;
+        }
+        if (title.startsWith(query)) {
+            return TITLE_PREFIX;
+        }
+        if (title.contains(" " + query)) {
+            return TITLE_WORD_PREFIX;
+        }
+        return TITLE_SUBSTRING;
+    }
+
+    private Set<Long> intersect(Collection<String> keys, Map<String, Set<Long>> postings) {
+        List<Set<Long>> lists = keys.stream()
+                .map(key -> postings.getOrDefault(key, Set.of()))
+                .sorted(Comparator.comparingInt(Set::size))
+                .toList();
+        if (lists.isEmpty()) {
+            return Set.of();
+        }
+
+        // Parte dalla posting list più corta
+        Set<Long> result = new HashSet<>(lists.getFirst());
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void refresh(Long movieId) {
+        Optional<Movie> movie = movieRepository.findById(movieId);
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(movieId);
+            movie.ifPresent(this::addDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addDocument(Movie movie) {
+        IndexedMovie document = IndexedMovie.from(movie);
+        documents.put(document.id(), document);
+        grams(document.title()).forEach(gram -> post(titleGrams, gram, document.id()));
+        document.terms().forEach(term -> post(terms, term, document.id()));
+        post(genres, document.genre(), document.id());
+    }
+
+    private void removeDocument(Long movieId) {
+        IndexedMovie document = documents.remove(movieId);
+        if (document == null) {
+            return;
+        }
+        grams(document.title()).forEach(gram -> unpost(titleGrams, gram, movieId));
+        document.terms().forEach(term -> unpost(terms, term, movieId));
+        unpost(genres, document.genre(), movieId);
+    }
+
+    private static void post(Map<String, Set<Long>> postings, String key, Long id) {
+        postings.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+    }
+
+    private static void unpost(Map<String, Set<Long>> postings, String key, Long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+}
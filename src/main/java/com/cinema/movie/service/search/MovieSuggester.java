@@ -0,0 +1,106 @@
+package com.cinema.movie.service.search;
+
+import com.cinema.movie.dto.MovieSuggestion;
+import com.cinema.movie.event.CatalogChangedEvent;
+import com.cinema.movie.repository.MovieRepository;
+import com.cinema.movie.repository.MovieSuggestionStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Autocompletamento titoli servito da un SuggestionTrie immutabile.
+ * Il trie viene ricostruito su un Virtual Thread e sostituito atomicamente:
+ * le letture non vedono mai uno stato parziale e non toccano il database.
+ */
+@Component
+@Slf4j
+public class MovieSuggester {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    // Un film prenotabile precede sempre uno senza proiezioni future
+    private static final double AVAILABILITY_BONUS = 100.0;
+
+    private final MovieRepository movieRepository;
+    private final Executor executor;
+
+    private final AtomicReference<SuggestionTrie> trie = new AtomicReference<>(SuggestionTrie.empty());
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    public MovieSuggester(MovieRepository movieRepository,
+                          @Qualifier("virtualThreadExecutor") Executor executor) {
+        this.movieRepository = movieRepository;
+        this.executor = executor;
+    }
+
+    public List<MovieSuggestion> suggest(String prefix, int limit) {
+        return trie.get().suggest(prefix, Math.clamp(limit, 1, MAX_SUGGESTIONS))
+                .stream()
+                .map(entry -> new MovieSuggestion(entry.movieId(), entry.title()))
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    /**
+     * Refresh periodico: popolarità e disponibilità cambiano con le prenotazioni.
+     */
+    @Scheduled(fixedDelayString = "${cinema.suggest.refresh-interval:PT5M}",
+            initialDelayString = "${cinema.suggest.refresh-interval:PT5M}")
+    public void refresh() {
+        scheduleRebuild();
+    }
+
+    /**
+     * Coalesce le richieste: al massimo una ricostruzione in coda alla volta.
+     */
+    void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    void rebuild() {
+        try {
+            List<SuggestionTrie.Entry> entries = movieRepository.findSuggestionStats(LocalDateTime.now())
+                    .stream()
+                    .map(MovieSuggester::toEntry)
+                    .toList();
+            trie.set(SuggestionTrie.build(entries, MAX_SUGGESTIONS));
+            log.debug("Trie suggerimenti ricostruito: {} film", entries.size());
+        } catch (Exception e) {
+            // Si continua a servire il trie precedente
+            log.warn("Errore ricostruzione suggerimenti: {}", e.getMessage());
+        }
+    }
+
+    private static SuggestionTrie.Entry toEntry(MovieSuggestionStats stats) {
+        double weight = Math.log1p(stats.getBookedSeats());
+        if (stats.getBookableScreenings() > 0) {
+            weight += AVAILABILITY_BONUS + Math.log1p(stats.getBookableScreenings());
+        }
+        return new SuggestionTrie.Entry(stats.getMovieId(), stats.getTitle(), weight);
+    }
+}
@@ -0,0 +1,188 @@
+package com.cinema.movie.service.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Trie immutabile e compatto per l'autocompletamento dei titoli.
+ * I nodi sono appiattiti in array (figli contigui, ordinati per carattere) e ogni nodo
+ * conserva i migliori K suggerimenti del suo sottoalbero: una ricerca costa O(lunghezza prefisso).
+ */
+public final class SuggestionTrie {
+
+    /**
+     * Voce indicizzabile: il titolo viene normalizzato e indicizzato anche da ogni inizio parola.
+     */
+    public record Entry(Long movieId, String title, double weight) {
+    }
+
+    private static final SuggestionTrie EMPTY = new SuggestionTrie(List.of(), 0);
+
+    private final Entry[] entries;
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[][] topEntries;
+
+    private SuggestionTrie(List<Entry> entries, int maxSuggestions) {
+        // Ordina per peso: gli indici più bassi sono i migliori
+        this.entries = entries.stream()
+                .sorted(Comparator.comparingDouble(Entry::weight).reversed()
+                        .thenComparing(Entry::title))
+                .toArray(Entry[]::new);
+
+        BuilderNode root = new BuilderNode();
+        for (int i = 0; i < this.entries.length; i++) {
+            for (String key : keysOf(this.entries[i].title())) {
+                root.insert(key, i);
+            }
+        }
+        root.computeTop(maxSuggestions);
+
+        // Appiattimento in ampiezza: i figli di ogni nodo finiscono contigui
+        List<BuilderNode> nodes = new ArrayList<>();
+        Deque<BuilderNode> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            BuilderNode node = queue.poll();
+            node.index = nodes.size();
+            nodes.add(node);
+            queue.addAll(node.children.values());
+        }
+
+        int size = nodes.size();
+        this.labels = new char[size];
+        this.firstChild = new int[size];
+        this.childCount = new int[size];
+        this.topEntries = new int[size][];
+        for (BuilderNode node : nodes) {
+            labels[node.index] = node.label;
+            childCount[node.index] = node.children.size();
+            firstChild[node.index] = node.children.isEmpty()
+                    ? -1
+                    : node.children.firstEntry().getValue().index;
+            topEntries[node.index] = node.top;
+        }
+    }
+
+    public static SuggestionTrie empty() {
+        return EMPTY;
+    }
+
+    public static SuggestionTrie build(List<Entry> entries, int maxSuggestions) {
+        return new SuggestionTrie(entries, maxSuggestions);
+    }
+
+    /**
+     * Migliori suggerimenti per il prefisso (normalizzato internamente).
+     */
+    public List<Entry> suggest(String prefix, int limit) {
+        String key = TextNormalizer.normalize(prefix);
+        if (key.isEmpty() || labels.length == 0) {
+            return List.of();
+        }
+
+        int node = 0;
+        for (int i = 0; i < key.length(); i++) {
+            node = findChild(node, key.charAt(i));
+            if (node < 0) {
+                return List.of();
+            }
+        }
+
+        int[] top = topEntries[node];
+        int count = Math.min(limit, top.length);
+        List<Entry> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(entries[top[i]]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    private int findChild(int node, char c) {
+        int low = firstChild[node];
+        if (low < 0) {
+            return -1;
+        }
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (labels[mid] < c) {
+                low = mid + 1;
+            } else if (labels[mid] > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Chiavi indicizzate: il titolo intero e ogni suffisso che inizia con una parola.
+     * "il signore degli anelli" si trova anche digitando "anel".
+     */
+    private static List<String> keysOf(String title) {
+        String normalized = TextNormalizer.normalize(title);
+        List<String> keys = new ArrayList<>();
+        if (!normalized.isEmpty()) {
+            keys.add(normalized);
+        }
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+
+    /**
+     * Nodo mutabile usato solo durante la costruzione.
+     */
+    private static final class BuilderNode {
+
+        private final TreeMap<Character, BuilderNode> children = new TreeMap<>();
+        private final List<Integer> terminal = new ArrayList<>(1);
+        private char label;
+        private int[] top;
+        private int index;
+
+        void insert(String key, int entry) {
+            BuilderNode node = this;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                BuilderNode child = node.children.get(c);
+                if (child == null) {
+                    child = new BuilderNode();
+                    child.label = c;
+                    node.children.put(c, child);
+                }
+                node = child;
+            }
+            node.terminal.add(entry);
+        }
+
+        /**
+         * Post-order: i migliori K del nodo sono il merge dei migliori K dei figli.
+         * Gli indici sono già ordinati per peso, quindi basta ordinarli e deduplicarli.
+         */
+        int[] computeTop(int k) {
+            int[] candidates = terminal.stream().mapToInt(Integer::intValue).toArray();
+            for (BuilderNode child : children.values()) {
+                int[] childTop = child.computeTop(k);
+                int[] merged = Arrays.copyOf(candidates, candidates.length + childTop.length);
+                System.arraycopy(childTop, 0, merged, candidates.length, childTop.length);
+                candidates = merged;
+            }
+            top = Arrays.stream(candidates).sorted().distinct().limit(k).toArray();
+            return top;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.cinema.movie.service.search;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizzazione testo per la ricerca nel catalogo (italiano).
+ * Rimuove accenti e maiuscole: "Perché" e "PERCHE" diventano "perche".
+ */
+public final class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    // Parole troppo frequenti per essere utili nelle postings della descrizione
+    private static final Set<String> STOP_WORDS = Set.of(
+            "il", "lo", "la", "i", "gli", "le", "l", "un", "uno", "una",
+            "di", "a", "da", "in", "con", "su", "per", "tra", "fra",
+            "del", "dello", "della", "dei", "degli", "delle",
+            "al", "allo", "alla", "ai", "agli", "alle",
+            "e", "ed", "o", "che", "non", "si", "ma", "come"
+    );
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Minuscolo, senza accenti, punteggiatura ridotta a singoli spazi.
+     * Restituisce stringa vuota per input null.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String folded = DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return NON_ALPHANUMERIC.matcher(folded).replaceAll(" ").trim();
+    }
+
+    /**
+     * Token normalizzati, incluse le stop words.
+     */
+    public static List<String> tokens(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.asList(normalized.split(" "));
+    }
+
+    /**
+     * Token normalizzati senza stop words, per indicizzare testo libero.
+     */
+    public static List<String> significantTokens(String text) {
+        return tokens(text).stream()
+                .filter(token -> !STOP_WORDS.contains(token))
+                .distinct()
+                .toList();
+    }
+}
@@ -0,0 +1,90 @@
+package com.cinema.movie.service.user;
+
+import com.cinema.movie.entity.User;
+import com.cinema.movie.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Risolve email -> id utente per il percorso caldo delle prenotazioni.
+ * Il mapping non cambia mai, quindi la cache non ha scadenza: solo un limite
+ * di dimensione oltre il quale si scarta una voce qualsiasi.
+ */
+@Service
+@Slf4j
+public class UserIdentityService {
+
+    static final int MAX_CACHED = 100_000;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate requiresNew;
+    private final Map<String, Long> idsByEmail = new ConcurrentHashMap<>();
+
+    public UserIdentityService(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Id dell'utente, se ha già prenotato almeno una volta.
+     */
+    public Optional<Long> findId(String email) {
+        Long cached = idsByEmail.get(email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Long> loaded = userRepository.findIdByEmail(email);
+        loaded.ifPresent(id -> cache(email, id));
+        return loaded;
+    }
+
+    /**
+     * Utente per una nuova prenotazione, creato al primo utilizzo.
+     * Restituisce un'istanza con id ed email già valorizzati, così la prenotazione
+     * la referenzia senza ulteriori letture.
+     */
+    public User resolve(String email) {
+        Long id = findId(email).orElseGet(() -> create(email));
+        return new User(id, email);
+    }
+
+    /**
+     * Inserimento in una transazione separata: la riga è visibile subito agli altri
+     * nodi e una violazione di unicità non marca come rollback-only la prenotazione.
+     */
+    private Long create(String email) {
+        try {
+            Long id = requiresNew.execute(status -> userRepository.saveAndFlush(new User(null, email)).getId());
+            cache(email, id);
+            log.debug("Nuovo utente registrato: {}", id);
+            return id;
+        } catch (DataIntegrityViolationException e) {
+            // Creato in parallelo da un'altra richiesta
+            return userRepository.findIdByEmail(email).orElseThrow(() -> e);
+        }
+    }
+
+    private void cache(String email, Long id) {
+        if (idsByEmail.size() >= MAX_CACHED) {
+            Iterator<String> victim = idsByEmail.keySet().iterator();
+            if (victim.hasNext()) {
+                idsByEmail.remove(victim.next());
+            }
+        }
+        idsByEmail.put(email, id);
+    }
+
+    int cachedCount() {
+        return idsByEmail.size();
+    }
+}
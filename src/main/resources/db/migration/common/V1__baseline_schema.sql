@@ -0,0 +1,35 @@
+-- Schema di base: rispecchia le entity Movie, Screening, Booking.
+-- SQL portabile tra PostgreSQL (prod) e H2 (dev/test).
+
+CREATE TABLE movies (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title       VARCHAR(200)  NOT NULL,
+    genre       VARCHAR(50)   NOT NULL,
+    duration    INTEGER       NOT NULL,
+    description VARCHAR(1000),
+    created_at  TIMESTAMP(6)  NOT NULL,
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE TABLE screenings (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    movie_id        BIGINT        NOT NULL REFERENCES movies (id),
+    start_time      TIMESTAMP(6)  NOT NULL,
+    total_seats     INTEGER       NOT NULL,
+    available_seats INTEGER       NOT NULL,
+    price           NUMERIC(10, 2) NOT NULL,
+    created_at      TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT ck_screenings_available_seats CHECK (available_seats >= 0)
+);
+
+CREATE TABLE bookings (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    screening_id    BIGINT        NOT NULL REFERENCES screenings (id),
+    user_email      VARCHAR(255)  NOT NULL,
+    number_of_seats INTEGER       NOT NULL,
+    total_price     NUMERIC(10, 2) NOT NULL,
+    status          VARCHAR(20)   NOT NULL,
+    created_at      TIMESTAMP(6)  NOT NULL,
+    confirmed_at    TIMESTAMP(6),
+    CONSTRAINT ck_bookings_status CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'EXPIRED'))
+);
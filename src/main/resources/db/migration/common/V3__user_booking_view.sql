@@ -0,0 +1,32 @@
+-- Read model denormalizzato per lo storico prenotazioni utente.
+-- Scritto nella stessa transazione della prenotazione; nessuna join in lettura.
+
+CREATE TABLE user_booking_view (
+    booking_id      BIGINT        PRIMARY KEY,
+    user_email      VARCHAR(255)  NOT NULL,
+    screening_id    BIGINT        NOT NULL,
+    movie_id        BIGINT        NOT NULL,
+    movie_title     VARCHAR(200)  NOT NULL,
+    screening_time  TIMESTAMP(6)  NOT NULL,
+    number_of_seats INTEGER       NOT NULL,
+    total_price     NUMERIC(10, 2) NOT NULL,
+    status          VARCHAR(20)   NOT NULL,
+    created_at      TIMESTAMP(6)  NOT NULL
+);
+
+-- UserBookingViewRepository.findByUserEmailOrderByCreatedAtDesc / streamByUserEmail
+CREATE INDEX idx_user_booking_view_user_created ON user_booking_view (user_email, created_at DESC);
+
+-- UserBookingViewRepository.refreshMovieTitle / refreshScreeningTime
+CREATE INDEX idx_user_booking_view_movie ON user_booking_view (movie_id);
+
+CREATE INDEX idx_user_booking_view_screening ON user_booking_view (screening_id);
+
+-- Backfill delle prenotazioni esistenti
+INSERT INTO user_booking_view (booking_id, user_email, screening_id, movie_id, movie_title, screening_time,
+                               number_of_seats, total_price, status, created_at)
+SELECT b.id, b.user_email, s.id, m.id, m.title, s.start_time,
+       b.number_of_seats, b.total_price, b.status, b.created_at
+FROM bookings b
+JOIN screenings s ON s.id = b.screening_id
+JOIN movies m ON m.id = s.movie_id;
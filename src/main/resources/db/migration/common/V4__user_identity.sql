@@ -0,0 +1,42 @@
+-- Identità utente numerica: bookings e user_booking_view referenziano users.id
+-- invece di ripetere l'email (VARCHAR 255) in ogni riga e in ogni indice.
+
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email      VARCHAR(255)  NOT NULL,
+    created_at TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+INSERT INTO users (email, created_at)
+SELECT user_email, MIN(created_at)
+FROM bookings
+GROUP BY user_email;
+
+-- bookings: user_email -> user_id
+ALTER TABLE bookings ADD COLUMN user_id BIGINT;
+
+UPDATE bookings SET user_id = (SELECT u.id FROM users u WHERE u.email = bookings.user_email);
+
+ALTER TABLE bookings ALTER COLUMN user_id SET NOT NULL;
+
+ALTER TABLE bookings ADD CONSTRAINT fk_bookings_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+DROP INDEX idx_bookings_user_created;
+
+ALTER TABLE bookings DROP COLUMN user_email;
+
+CREATE INDEX idx_bookings_user_created ON bookings (user_id, created_at DESC);
+
+-- user_booking_view: stessa conversione
+ALTER TABLE user_booking_view ADD COLUMN user_id BIGINT;
+
+UPDATE user_booking_view SET user_id = (SELECT u.id FROM users u WHERE u.email = user_booking_view.user_email);
+
+ALTER TABLE user_booking_view ALTER COLUMN user_id SET NOT NULL;
+
+DROP INDEX idx_user_booking_view_user_created;
+
+ALTER TABLE user_booking_view DROP COLUMN user_email;
+
+CREATE INDEX idx_user_booking_view_user_created ON user_booking_view (user_id, created_at DESC);
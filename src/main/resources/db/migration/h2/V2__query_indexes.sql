@@ -0,0 +1,12 @@
+-- Indici per le query dei repository (H2).
+-- Stessi nomi della versione PostgreSQL; H2 non supporta indici parziali né INCLUDE.
+
+CREATE INDEX idx_bookings_user_created ON bookings (user_email, created_at DESC);
+
+CREATE INDEX idx_bookings_pending_created ON bookings (status, created_at);
+
+CREATE INDEX idx_bookings_screening_status ON bookings (screening_id, status);
+
+CREATE INDEX idx_screenings_start_available ON screenings (start_time, available_seats);
+
+CREATE INDEX idx_screenings_movie_start ON screenings (movie_id, start_time);
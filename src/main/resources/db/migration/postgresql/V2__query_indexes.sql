@@ -0,0 +1,17 @@
+-- Indici per le query dei repository (PostgreSQL).
+-- I nomi sono verificati da QueryIndexPlanTest tramite EXPLAIN.
+
+-- BookingRepository.findByUserEmailOrderByCreatedAtDesc / streamByUserEmail
+CREATE INDEX idx_bookings_user_created ON bookings (user_email, created_at DESC);
+
+-- BookingRepository.findExpiredPendingBookings: parziale, contiene solo le PENDING
+CREATE INDEX idx_bookings_pending_created ON bookings (created_at) WHERE status = 'PENDING';
+
+-- BookingRepository.findByScreeningIdAndStatus / countConfirmedSeatsForScreening
+CREATE INDEX idx_bookings_screening_status ON bookings (screening_id, status) INCLUDE (number_of_seats);
+
+-- ScreeningRepository.findAvailableScreenings / findTodayScreenings / streamScheduleFrom
+CREATE INDEX idx_screenings_start_available ON screenings (start_time, available_seats);
+
+-- ScreeningRepository.findByMovieIdOrderByStartTime e join da movies
+CREATE INDEX idx_screenings_movie_start ON screenings (movie_id, start_time);
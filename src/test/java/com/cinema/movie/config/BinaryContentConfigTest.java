@@ -0,0 +1,76 @@
+package com.cinema.movie.config;
+
+import com.cinema.movie.dto.ScreeningResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BinaryContentConfigTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBinaryConvertersFollowJson() {
+        // Given
+        ObjectProvider<Jackson2ObjectMapperBuilder> builders = mock(ObjectProvider.class);
+        when(builders.getIfAvailable(any())).thenAnswer(invocation -> new Jackson2ObjectMapperBuilder());
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(
+                new StringHttpMessageConverter(),
+                new MappingJackson2HttpMessageConverter(),
+                new MappingJackson2CborHttpMessageConverter()
+        ));
+
+        // When
+        new BinaryContentConfig(builders).extendMessageConverters(converters);
+
+        // Then - JSON resta il primo formato negoziabile, niente duplicati
+        assertInstanceOf(MappingJackson2HttpMessageConverter.class, converters.get(1));
+        assertInstanceOf(MappingJackson2CborHttpMessageConverter.class, converters.get(2));
+        assertInstanceOf(MappingJackson2SmileHttpMessageConverter.class, converters.get(3));
+        assertEquals(4, converters.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBinaryPayloadsAreSmallerThanJson() throws Exception {
+        // Given - 200 proiezioni, il caso tipico dei chioschi
+        ObjectProvider<Jackson2ObjectMapperBuilder> builders = mock(ObjectProvider.class);
+        when(builders.getIfAvailable(any())).thenAnswer(invocation -> new Jackson2ObjectMapperBuilder());
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(new MappingJackson2HttpMessageConverter()));
+        new BinaryContentConfig(builders).extendMessageConverters(converters);
+
+        var start = LocalDateTime.of(2030, 1, 1, 18, 0);
+        List<ScreeningResponse> screenings = IntStream.range(0, 200)
+                .mapToObj(i -> new ScreeningResponse((long) i, (long) i % 20, "Movie " + i % 20,
+                        start.plusHours(i), 100 - i % 100, new BigDecimal("9.50")))
+                .toList();
+
+        // When
+        int json = mapperOf(converters.get(0)).writeValueAsBytes(screenings).length;
+        int cbor = mapperOf(converters.get(1)).writeValueAsBytes(screenings).length;
+        int smile = mapperOf(converters.get(2)).writeValueAsBytes(screenings).length;
+
+        // Then
+        assertTrue(cbor < json, () -> "CBOR " + cbor + " byte, JSON " + json + " byte");
+        assertTrue(smile < json, () -> "Smile " + smile + " byte, JSON " + json + " byte");
+    }
+
+    private ObjectMapper mapperOf(HttpMessageConverter<?> converter) {
+        return ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper();
+    }
+}
@@ -0,0 +1,151 @@
+package com.cinema.movie.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Routing verificato con database H2 distinti: ogni database contiene il proprio nome
+ * nella tabella node, così la query rivela dove è stata eseguita.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT lag_seconds FROM replica_status";
+
+    private DataSource primary;
+    private DataSource replicaA;
+    private DataSource replicaB;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replicaA = database("replica-a");
+        replicaB = database("replica-b");
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() {
+        // Given
+        var routing = routing(Map.of("replica-a", replicaA));
+
+        // When & Then
+        assertEquals("replica-a", readNode(routing, true));
+    }
+
+    @Test
+    void testReadWriteTransactionUsesPrimary() {
+        // Given
+        var routing = routing(Map.of("replica-a", replicaA));
+
+        // When & Then
+        assertEquals("primary", readNode(routing, false));
+    }
+
+    @Test
+    void testReplicasAreUsedRoundRobin() {
+        // Given
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-a", replicaA);
+        replicas.put("replica-b", replicaB);
+        var routing = routing(replicas);
+
+        // When
+        List<String> nodes = List.of(readNode(routing, true), readNode(routing, true), readNode(routing, true));
+
+        // Then
+        assertEquals(List.of("replica-a", "replica-b", "replica-a"), nodes);
+    }
+
+    @Test
+    void testUnreachableReplicaFallsBackToPrimary() throws SQLException {
+        // Given
+        DataSource down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("Connection refused"));
+        var routing = routing(Map.of("replica-a", down));
+
+        // When & Then - fallback immediato e replica esclusa
+        assertEquals("primary", readNode(routing, true));
+        assertEquals(List.of(), routing.healthyReplicas());
+    }
+
+    @Test
+    void testLaggingReplicaIsExcludedUntilItCatchesUp() {
+        // Given
+        var routing = routing(Map.of("replica-a", replicaA));
+        setLag(replicaA, 30);
+
+        // When
+        routing.checkReplicas();
+
+        // Then - lag oltre la soglia: letture dal primario
+        assertEquals("primary", readNode(routing, true));
+
+        // When - la replica recupera
+        setLag(replicaA, 0);
+        routing.checkReplicas();
+
+        // Then
+        assertEquals("replica-a", readNode(routing, true));
+    }
+
+    @Test
+    void testDestroyClosesReplicaPools() {
+        // Given
+        HikariDataSource pool = mock(HikariDataSource.class);
+        var routing = routing(Map.of("replica-a", pool));
+
+        // When
+        routing.destroy();
+
+        // Then
+        verify(pool).close();
+    }
+
+    private ReplicaRoutingDataSource routing(Map<String, DataSource> replicas) {
+        return new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(5), LAG_QUERY);
+    }
+
+    /**
+     * Esegue una query in transazione attraverso il proxy usato dall'applicazione.
+     */
+    private String readNode(ReplicaRoutingDataSource routing, boolean readOnly) {
+        var proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(routing);
+
+        var transaction = new TransactionTemplate(new DataSourceTransactionManager(proxy));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(proxy).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private DataSource database(String name) {
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        var jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(32))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        jdbc.execute("CREATE TABLE replica_status (lag_seconds DOUBLE PRECISION)");
+        jdbc.update("INSERT INTO replica_status VALUES (0)");
+        return dataSource;
+    }
+
+    private void setLag(DataSource replica, double seconds) {
+        new JdbcTemplate(replica).update("UPDATE replica_status SET lag_seconds = ?", seconds);
+    }
+}
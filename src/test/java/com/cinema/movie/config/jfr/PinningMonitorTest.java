@@ -0,0 +1,104 @@
+package com.cinema.movie.config.jfr;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stream JFR reale: gli eventi arrivano con il flush periodico, quindi si attende il report.
+ */
+class PinningMonitorTest {
+
+    private final Object lock = new Object();
+    private PinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new PinningMonitor(new JfrProperties(true, Duration.ofMillis(10), Duration.ofMillis(10), 16, 200));
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void testPinnedVirtualThreadIsAggregatedByStack() throws Exception {
+        // When - sleep dentro synchronized: il virtual thread resta sul carrier
+        Thread.ofVirtual().start(this::sleepHoldingLock).join();
+
+        // Then
+        PinningMonitor.Report report = awaitReport(r -> !r.pinned().isEmpty());
+        PinningMonitor.StackSummary pinned = report.pinned().getFirst();
+        assertEquals(1, pinned.count());
+        assertTrue(pinned.maxMs() >= 10);
+        assertTrue(pinned.stack().stream().anyMatch(frame -> frame.contains("PinningMonitorTest.sleepHoldingLock")),
+                () -> String.join("\n", pinned.stack()));
+    }
+
+    @Test
+    void testContendedMonitorIsReported() throws Exception {
+        // Given
+        var held = new CountDownLatch(1);
+        Thread owner = Thread.ofPlatform().start(() -> {
+            synchronized (lock) {
+                held.countDown();
+                pause(100);
+            }
+        });
+        held.await();
+
+        // When
+        Thread waiter = Thread.ofPlatform().start(() -> {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        });
+        owner.join();
+        waiter.join();
+
+        // Then
+        PinningMonitor.Report report = awaitReport(r -> !r.contention().isEmpty());
+        assertEquals(Object.class.getName(), report.contention().getFirst().monitorClass());
+    }
+
+    @Test
+    void testStopEndsStream() {
+        // When
+        monitor.stop();
+
+        // Then
+        assertFalse(monitor.report().running());
+    }
+
+    private void sleepHoldingLock() {
+        synchronized (lock) {
+            pause(50);
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private PinningMonitor.Report awaitReport(Predicate<PinningMonitor.Report> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        PinningMonitor.Report report = monitor.report();
+        while (!condition.test(report) && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            report = monitor.report();
+        }
+        return report;
+    }
+}
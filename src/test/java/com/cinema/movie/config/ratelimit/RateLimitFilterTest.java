@@ -0,0 +1,124 @@
+package com.cinema.movie.config.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    private static final RateLimitProperties.Rule BOOKING = new RateLimitProperties.Rule(
+            "booking", "POST", "/api/bookings/**", 10, Duration.ofSeconds(6), 0, Duration.ofMinutes(1), 5);
+    private static final String BODY = "{\"screeningId\":1,\"userEmail\":\"Mario@Example.com\",\"numberOfSeats\":2}";
+
+    @Mock private RateLimiter rateLimiter;
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RateLimitFilter(rateLimiter, new ObjectMapper().registerModule(new JavaTimeModule()),
+                List.of("partner-key"));
+    }
+
+    @Test
+    void testBookingKeyedByEmailAndBodyStillReadable() throws Exception {
+        // Given
+        when(rateLimiter.ruleFor("POST", "/api/bookings")).thenReturn(Optional.of(BOOKING));
+        when(rateLimiter.tryAcquire(eq(BOOKING), anyString(), anyString())).thenReturn(RateLimiter.Decision.ALLOWED);
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(booking(BODY), new MockHttpServletResponse(), chain);
+        filter.doFilter(booking(BODY.replace("Mario", "mario")), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then - stesso client per email con maiuscole diverse, il controller rilegge il corpo intero
+        ArgumentCaptor<String> client = ArgumentCaptor.forClass(String.class);
+        verify(rateLimiter, times(2)).tryAcquire(eq(BOOKING), client.capture(), eq("ip:127.0.0.1"));
+        assertTrue(client.getValue().startsWith("user:"));
+        assertFalse(client.getValue().contains("example"));
+        assertEquals(client.getAllValues().get(0), client.getAllValues().get(1));
+        assertEquals(BODY, new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRejectedRequestGets429WithRetryAfter() throws Exception {
+        // Given
+        when(rateLimiter.ruleFor("POST", "/api/bookings")).thenReturn(Optional.of(BOOKING));
+        when(rateLimiter.tryAcquire(eq(BOOKING), anyString(), anyString()))
+                .thenReturn(new RateLimiter.Decision(false, TimeUnit.MILLISECONDS.toNanos(5500), RateLimiter.TIER_LOCAL));
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(booking(BODY), response, chain);
+
+        // Then - il controller non viene raggiunto
+        assertEquals(429, response.getStatus());
+        assertEquals("6", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("\"code\":\"RATE_LIMITED\""));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void testClientKeyPrecedence() {
+        // Given
+        MockHttpServletRequest withApiKey = booking(BODY);
+        withApiKey.addHeader(RateLimitFilter.API_KEY_HEADER, "partner-key");
+        MockHttpServletRequest withUnknownKey = new MockHttpServletRequest("GET", "/api/movies/search");
+        withUnknownKey.addHeader(RateLimitFilter.API_KEY_HEADER, "made-up-key");
+        withUnknownKey.setRemoteAddr("203.0.113.7");
+        MockHttpServletRequest withParameter = new MockHttpServletRequest("GET", "/api/bookings");
+        withParameter.setParameter("userEmail", "mario@example.com");
+        MockHttpServletRequest anonymous = new MockHttpServletRequest("GET", "/api/movies/search");
+        anonymous.setRemoteAddr("203.0.113.7");
+
+        // When & Then
+        assertTrue(filter.client(withApiKey).startsWith("key:"));
+        assertFalse(filter.client(withApiKey).contains("partner"));
+        assertEquals("ip:203.0.113.7", filter.client(withUnknownKey));
+        assertTrue(filter.client(withParameter).startsWith("user:"));
+        assertEquals("ip:203.0.113.7", filter.client(anonymous));
+    }
+
+    @Test
+    void testUnlimitedEndpointsPassThrough() throws Exception {
+        // Given
+        when(rateLimiter.ruleFor("GET", "/api/movies/1")).thenReturn(Optional.empty());
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/movies/1"), new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNotNull(chain.getRequest());
+        verify(rateLimiter, never()).tryAcquire(any(), anyString(), anyString());
+    }
+
+    private static MockHttpServletRequest booking(String body) {
+        var request = new MockHttpServletRequest("POST", "/api/bookings");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,228 @@
+package com.cinema.movie.config.ratelimit;
+
+import com.cinema.movie.service.booking.BookingLockProperties;
+import com.cinema.movie.service.booking.LockCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimiterTest {
+
+    private static final RateLimitProperties.Rule BOOKING = new RateLimitProperties.Rule(
+            "booking", "POST", "/api/bookings/**", 2, Duration.ofSeconds(6), 5, Duration.ofMinutes(1), 2);
+    private static final RateLimitProperties.Rule SEARCH = new RateLimitProperties.Rule(
+            "search", "GET", "/api/movies/search", 3, Duration.ofMillis(200), 0, Duration.ofMinutes(1), 1);
+
+    @Mock private RedisTemplate<String, String> redisTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+    private LockCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new LockCircuitBreaker(
+                new BookingLockProperties(3, Duration.ofSeconds(5), Duration.ofMillis(50), 16), meterRegistry);
+    }
+
+    @Test
+    void testRulesMatchMethodAndPath() {
+        // Given
+        RateLimiter rateLimiter = rateLimiter(false, 100);
+
+        // When & Then
+        assertEquals("booking", rateLimiter.ruleFor("POST", "/api/bookings").orElseThrow().name());
+        assertEquals("booking", rateLimiter.ruleFor("POST", "/api/bookings/async").orElseThrow().name());
+        assertEquals("search", rateLimiter.ruleFor("GET", "/api/movies/search").orElseThrow().name());
+        assertTrue(rateLimiter.ruleFor("GET", "/api/bookings").isEmpty());
+        assertTrue(rateLimiter.ruleFor("GET", "/api/movies/1").isEmpty());
+    }
+
+    @Test
+    void testBurstThenRefill() {
+        // Given
+        RateLimiter rateLimiter = rateLimiter(false, 100);
+
+        // When - raffica di 2, la terza aspetta il prossimo token
+        assertTrue(rateLimiter.tryAcquire(BOOKING, "user:a", "ip:1").allowed());
+        assertTrue(rateLimiter.tryAcquire(BOOKING, "user:a", "ip:1").allowed());
+        RateLimiter.Decision rejected = rateLimiter.tryAcquire(BOOKING, "user:a", "ip:1");
+
+        // Then
+        assertFalse(rejected.allowed());
+        assertEquals(RateLimiter.TIER_LOCAL, rejected.tier());
+        assertEquals(TimeUnit.SECONDS.toNanos(6), rejected.retryAfterNanos());
+        assertTrue(rateLimiter.tryAcquire(BOOKING, "user:b", "ip:1").allowed());
+        assertEquals(1, meterRegistry.get("cinema.rate-limit.rejected")
+                .tags("rule", "booking", "tier", "local").counter().count());
+
+        // When - dopo un periodo di riempimento torna un token
+        now.addAndGet(TimeUnit.SECONDS.toNanos(6));
+
+        // Then
+        assertTrue(rateLimiter.tryAcquire(BOOKING, "user:a", "ip:1").allowed());
+        assertFalse(rateLimiter.tryAcquire(BOOKING, "user:a", "ip:1").allowed());
+    }
+
+    @Test
+    void testIpBucketLimitsRotatingEmails() {
+        // Given
+        RateLimiter rateLimiter = rateLimiter(false, 100);
+
+        // When - ogni richiesta con un'email nuova, stesso IP: il bucket dell'IP ha 2 x 2 token
+        for (int i = 0; i < 4; i++) {
+            assertTrue(rateLimiter.tryAcquire(BOOKING, "user:" + i, "ip:1").allowed());
+        }
+        RateLimiter.Decision rejected = rateLimiter.tryAcquire(BOOKING, "user:4", "ip:1");
+
+        // Then - token dell'IP ricaricati al doppio della velocità
+        assertFalse(rejected.allowed());
+        assertEquals(TimeUnit.SECONDS.toNanos(3), rejected.retryAfterNanos());
+        assertTrue(rateLimiter.tryAcquire(BOOKING, "user:4", "ip:2").allowed());
+    }
+
+    @Test
+    void testIpRejectionKeepsClientTokens() {
+        // Given - bucket dell'IP esaurito da altre email
+        RateLimiter rateLimiter = rateLimiter(false, 100);
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.tryAcquire(BOOKING, "user:" + i, "ip:1");
+        }
+
+        // When
+        RateLimiter.Decision rejected = rateLimiter.tryAcquire(BOOKING, "user:a", "ip:1");
+
+        // Then - il client ha ancora la raffica intera da un altro indirizzo
+        assertFalse(rejected.allowed());
+        assertTrue(rateLimiter.tryAcquire(BOOKING, "user:a", "ip:2").allowed());
+        assertTrue(rateLimiter.tryAcquire(BOOKING, "user:a", "ip:2").allowed());
+        assertFalse(rateLimiter.tryAcquire(BOOKING, "user:a", "ip:2").allowed());
+    }
+
+    @Test
+    void testClientsBeyondCapFallBackToIpBucket() {
+        // Given
+        RateLimiter rateLimiter = rateLimiter(false, 3);
+        rateLimiter.tryAcquire(SEARCH, "user:a", "ip:1");
+        rateLimiter.tryAcquire(SEARCH, "ip:2", "ip:2");
+
+        // When - limite raggiunto: nessun bucket nuovo, il client noto all'IP passa, un IP nuovo no
+        RateLimiter.Decision knownIp = rateLimiter.tryAcquire(SEARCH, "user:b", "ip:1");
+        RateLimiter.Decision newIp = rateLimiter.tryAcquire(SEARCH, "user:c", "ip:3");
+
+        // Then
+        assertTrue(knownIp.allowed());
+        assertFalse(newIp.allowed());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), newIp.retryAfterNanos());
+        assertEquals(3, rateLimiter.trackedClients());
+    }
+
+    @Test
+    void testIdleClientsAreEvicted() {
+        // Given
+        RateLimiter rateLimiter = rateLimiter(false, 100);
+        rateLimiter.tryAcquire(SEARCH, "ip:1", "ip:1");
+        rateLimiter.tryAcquire(SEARCH, "ip:2", "ip:2");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        rateLimiter.tryAcquire(SEARCH, "ip:3", "ip:3");
+
+        // When - i bucket tornati pieni vengono rimossi
+        rateLimiter.evictIdle();
+
+        // Then
+        assertEquals(1, rateLimiter.trackedClients());
+    }
+
+    @Test
+    void testFleetTierRejectsWhenRedisWindowIsFull() {
+        // Given
+        RateLimiter rateLimiter = rateLimiter(true, 100);
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(Object[].class))).thenReturn(0L);
+
+        // When
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(BOOKING, "user:a", "ip:1");
+
+        // Then
+        assertFalse(decision.allowed());
+        assertEquals(RateLimiter.TIER_FLEET, decision.tier());
+        assertTrue(decision.retryAfterNanos() > 0 && decision.retryAfterNanos() <= TimeUnit.MINUTES.toNanos(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFleetRejectionChecksClientAndIpTogetherAndKeepsLocalTokens() {
+        // Given
+        RateLimiter rateLimiter = rateLimiter(true, 100);
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(Object[].class)))
+                .thenReturn(0L, 1L, 1L);
+
+        // When - la prima respinta dalla flotta, poi la raffica locale è ancora intera
+        assertFalse(rateLimiter.tryAcquire(BOOKING, "user:a", "ip:1").allowed());
+        assertTrue(rateLimiter.tryAcquire(BOOKING, "user:a", "ip:1").allowed());
+        assertTrue(rateLimiter.tryAcquire(BOOKING, "user:a", "ip:1").allowed());
+
+        // Then - una sola chiamata per richiesta, finestre del client e dell'IP con i rispettivi limiti
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate, times(3)).execute(ArgumentMatchers.<RedisScript<Long>>any(), keys.capture(), args.capture());
+        assertEquals(4, keys.getValue().size());
+        assertTrue(keys.getValue().get(0).startsWith("ratelimit:booking:user:a:"));
+        assertTrue(keys.getValue().get(2).startsWith("ratelimit:booking:ip:1:"));
+        assertEquals("5", args.getValue()[2]);
+        assertEquals("10", args.getValue()[3]);
+    }
+
+    @Test
+    void testFleetTierSkippedForLocalOnlyRules() {
+        // Given
+        RateLimiter rateLimiter = rateLimiter(true, 100);
+
+        // When
+        assertTrue(rateLimiter.tryAcquire(SEARCH, "ip:1", "ip:1").allowed());
+
+        // Then
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void testFleetTierFailsOpenWhenRedisIsDown() {
+        // Given
+        RateLimiter rateLimiter = rateLimiter(true, 100);
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        // When - tre errori aprono il circuito: le richieste seguenti non chiamano Redis
+        for (int i = 0; i < 2; i++) {
+            now.addAndGet(TimeUnit.SECONDS.toNanos(12));
+            assertTrue(rateLimiter.tryAcquire(BOOKING, "user:a", "ip:1").allowed());
+            assertTrue(rateLimiter.tryAcquire(BOOKING, "user:b", "ip:1").allowed());
+        }
+
+        // Then
+        assertFalse(circuitBreaker.allowsRedis());
+        verify(redisTemplate, times(3)).execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(Object[].class));
+    }
+
+    private RateLimiter rateLimiter(boolean fleetEnabled, int maxClients) {
+        var properties = new RateLimitProperties(true, fleetEnabled, maxClients, List.of(), List.of(BOOKING, SEARCH));
+        return new RateLimiter(properties, redisTemplate, circuitBreaker, meterRegistry, now::get);
+    }
+}
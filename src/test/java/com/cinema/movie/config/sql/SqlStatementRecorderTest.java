@@ -0,0 +1,92 @@
+package com.cinema.movie.config.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementRecorderTest {
+
+    private static final long MS = 1_000_000;
+
+    private final SqlStatementRecorder recorder = new SqlStatementRecorder(
+            new SqlTrackingProperties(true, Duration.ofMillis(100), 3, 5));
+
+    @Test
+    void testStatementsAreAccountedPerEndpoint() {
+        // Given
+        for (int request = 0; request < 2; request++) {
+            recorder.beginRequest("GET /api/movies/1");
+            recorder.record("select * from movies where id=?", List.of(1L), 2 * MS);
+            recorder.record("select * from screenings where movie_id=?", List.of(1L), 3 * MS);
+            recorder.endRequest("GET /api/movies/{id}");
+        }
+
+        // When
+        SqlStatementRecorder.EndpointSummary summary = recorder.report().endpoints().getFirst();
+
+        // Then
+        assertEquals("GET /api/movies/{id}", summary.endpoint());
+        assertEquals(2, summary.requests());
+        assertEquals(4, summary.statements());
+        assertEquals(2.0, summary.avgStatements());
+        assertEquals(10, summary.dbTimeMs());
+        assertEquals(0, summary.maxSameStatement());
+    }
+
+    @Test
+    void testRepeatedStatementIsReported() {
+        // Given - un film e poi una query per ciascuna proiezione
+        recorder.beginRequest("GET /api/movies");
+        recorder.record("select * from movies", List.of(), MS);
+        for (long id = 1; id <= 6; id++) {
+            recorder.record("select * from screenings where movie_id=?", List.of(id), MS);
+        }
+        recorder.endRequest("GET /api/movies");
+
+        // When
+        SqlStatementRecorder.EndpointSummary summary = recorder.report().endpoints().getFirst();
+
+        // Then
+        assertEquals(6, summary.maxSameStatement());
+        assertEquals("select * from screenings where movie_id=?", summary.repeatedSql());
+    }
+
+    @Test
+    void testSlowQueriesKeepLatestWithRedactedEmails() {
+        // Given - capacità 3
+        recorder.beginRequest("GET /api/bookings");
+        for (int i = 1; i <= 4; i++) {
+            recorder.record("select * from users where email=?", List.of("user" + i + "@example.com"), 150 * MS);
+        }
+        recorder.record("select 1", List.of(), MS);
+        recorder.endRequest("GET /api/bookings");
+
+        // When
+        List<SqlStatementRecorder.SlowQuery> slowQueries = recorder.slowQueries();
+
+        // Then
+        assertEquals(3, slowQueries.size());
+        assertEquals(List.of("<email>"), slowQueries.getFirst().parameters());
+        assertEquals("GET /api/bookings", slowQueries.getFirst().endpoint());
+        assertEquals(150, slowQueries.getFirst().durationMs());
+    }
+
+    @Test
+    void testEmailLiteralsInSqlAreRedacted() {
+        // When & Then
+        assertEquals("select * from users where email='<email>'",
+                SqlStatementRecorder.redact("select * from users where email='mario.rossi@example.com'"));
+    }
+
+    @Test
+    void testStatementsOutsideRequestsAreNotAccounted() {
+        // When
+        recorder.record("select * from movies", List.of(), MS);
+
+        // Then
+        assertEquals(List.of(), recorder.report().endpoints());
+    }
+}
@@ -0,0 +1,80 @@
+package com.cinema.movie.config.sql;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Proxy JDBC verificato su un database H2 reale.
+ */
+class TrackingDataSourceTest {
+
+    private SqlStatementRecorder recorder;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        var target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:tracking-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        // Soglia zero: ogni statement finisce anche tra le query lente
+        recorder = new SqlStatementRecorder(new SqlTrackingProperties(true, Duration.ZERO, 10, 5));
+        jdbc = new JdbcTemplate(new TrackingDataSource(target, recorder));
+        jdbc.execute("CREATE TABLE users (id BIGINT, email VARCHAR(255))");
+        jdbc.update("INSERT INTO users VALUES (?, ?)", 1L, "mario.rossi@example.com");
+        recorder.reset();
+    }
+
+    @Test
+    void testPreparedStatementsAreCountedWithParameters() {
+        // Given
+        recorder.beginRequest("GET /api/bookings");
+
+        // When
+        List<Long> ids = jdbc.queryForList("SELECT id FROM users WHERE email = ?", Long.class, "mario.rossi@example.com");
+        recorder.endRequest("GET /api/bookings");
+
+        // Then
+        assertEquals(List.of(1L), ids);
+        SqlStatementRecorder.Report report = recorder.report();
+        assertEquals(1, report.endpoints().getFirst().statements());
+        SqlStatementRecorder.SlowQuery query = report.slowQueries().getFirst();
+        assertEquals("SELECT id FROM users WHERE email = ?", query.sql());
+        assertEquals(List.of("<email>"), query.parameters());
+    }
+
+    @Test
+    void testPlainStatementsAreCounted() {
+        // Given
+        recorder.beginRequest("GET /api/movies");
+
+        // When
+        jdbc.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        jdbc.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        recorder.endRequest("GET /api/movies");
+
+        // Then
+        SqlStatementRecorder.EndpointSummary summary = recorder.report().endpoints().getFirst();
+        assertEquals(2, summary.statements());
+        assertEquals(2, summary.maxSameStatement());
+    }
+
+    @Test
+    void testFailingStatementIsStillRecorded() {
+        // Given
+        recorder.beginRequest("GET /api/movies");
+
+        // When
+        assertThrows(Exception.class, () -> jdbc.queryForObject("SELECT missing FROM users", Long.class));
+        recorder.endRequest("GET /api/movies");
+
+        // Then
+        assertEquals(1, recorder.report().endpoints().getFirst().statements());
+    }
+}
@@ -6,6 +6,7 @@ import com.cinema.movie.entity.BookingStatus;
 import com.cinema.movie.service.BookingService;
 import com.cinema.movie.exception.BookingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -18,7 +19,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -52,6 +55,27 @@ class BookingControllerTest {
         verify(bookingService).createBooking(any(BookingRequest.class));
     }
 
+    @Test
+    void testCreateBookingWithCbor() throws Exception {
+        // Given
+        var cbor = new CBORMapper().findAndRegisterModules();
+        var request = new BookingRequest(1L, "test@email.com", 2);
+        var response = createTestBookingResponse();
+        when(bookingService.createBooking(request)).thenReturn(response);
+
+        // When
+        byte[] body = mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cbor.writeValueAsBytes(request)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        assertEquals(response, cbor.readValue(body, BookingResponse.class));
+    }
+
     @Test
     void testCreateBookingAsync() throws Exception {
         // Given
@@ -156,6 +180,33 @@ class BookingControllerTest {
         verify(bookingService).getUserBookings("test@email.com");
     }
 
+    @Test
+    void testStreamUserBookings() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<BookingResponse> consumer = invocation.getArgument(1);
+            consumer.accept(createTestBookingResponse());
+            consumer.accept(createTestBookingResponse());
+            return null;
+        }).when(bookingService).streamUserBookings(eq("test@email.com"), any());
+
+        // When & Then - StreamingResponseBody viene eseguito in async dispatch
+        var result = mockMvc.perform(get("/api/bookings/stream")
+                        .param("userEmail", "test@email.com"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        var lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals("test@email.com",
+                objectMapper.readValue(lines.getFirst(), BookingResponse.class).userEmail());
+    }
+
     @Test
     void testCancelBooking() throws Exception {
         // Given
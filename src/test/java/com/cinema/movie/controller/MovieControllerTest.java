@@ -1,29 +1,59 @@
 package com.cinema.movie.controller;
 
+import com.cinema.movie.dto.MovieField;
 import com.cinema.movie.dto.MovieResponse;
+import com.cinema.movie.dto.MovieSuggestion;
+import com.cinema.movie.dto.MovieSummaryResponse;
+import com.cinema.movie.dto.PopularMovieResponse;
 import com.cinema.movie.dto.ScreeningResponse;
+import com.cinema.movie.dto.SeatAvailability;
+import com.cinema.movie.exception.ServiceOverloadedException;
+import com.cinema.movie.repository.ScreeningWindow;
 import com.cinema.movie.service.MovieService;
+import com.cinema.movie.service.popularity.PopularityWindow;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
-
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(MovieController.class)
 class MovieControllerTest {
 
     @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
     @MockitoBean private MovieService movieService;
 
     @Test
@@ -42,6 +72,106 @@ class MovieControllerTest {
         verify(movieService).getAllMovies();
     }
 
+    @Test
+    void testGetAllMoviesWithSparseFields() throws Exception {
+        // Given
+        var titleOnly = new MovieResponse(1L, "Test Movie", null, null, null, null);
+        when(movieService.getMovies(EnumSet.of(MovieField.TITLE), ScreeningWindow.unbounded()))
+                .thenReturn(List.of(titleOnly));
+
+        // When & Then - i campi non richiesti non compaiono
+        mockMvc.perform(get("/api/movies").param("fields", "Title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Test Movie"))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].screenings").doesNotExist());
+    }
+
+    @Test
+    void testFullResponseKeepsNullFields() throws Exception {
+        // Given - film senza descrizione
+        var movie = new MovieResponse(1L, "Test Movie", "Action", 120, null, List.of());
+        when(movieService.getMovieWithScreenings(1L)).thenReturn(Optional.of(movie));
+
+        // When & Then - senza fields= lo schema resta completo
+        mockMvc.perform(get("/api/movies/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasKey("description")))
+                .andExpect(jsonPath("$.description").value(nullValue()));
+    }
+
+    @Test
+    void testGetMovieWithNextScreenings() throws Exception {
+        // Given
+        var from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(movieService.getMovie(1L, MovieField.all(), new ScreeningWindow(from, null, 3)))
+                .thenReturn(Optional.of(createTestMovieResponse()));
+
+        // When & Then
+        mockMvc.perform(get("/api/movies/1")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("next", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.screenings").isArray());
+
+        verify(movieService).getMovie(1L, MovieField.all(), new ScreeningWindow(from, null, 3));
+    }
+
+    @Test
+    void testUnknownFieldIsBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/movies").param("fields", "title,budget"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_PARAMETER"));
+    }
+
+    @Test
+    void testGetAllMoviesAsCbor() throws Exception {
+        // Given
+        var movies = List.of(createTestMovieResponse());
+        when(movieService.getAllMovies()).thenReturn(movies);
+
+        // When
+        byte[] body = mockMvc.perform(get("/api/movies").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then - stesso schema dei record DTO
+        var decoded = new CBORMapper().findAndRegisterModules()
+                .readValue(body, new TypeReference<List<MovieResponse>>() { });
+        assertEquals(movies, decoded);
+    }
+
+    @Test
+    void testGetAllMoviesAsSmile() throws Exception {
+        // Given
+        var movies = List.of(createTestMovieResponse());
+        when(movieService.getAllMovies()).thenReturn(movies);
+
+        // When
+        byte[] body = mockMvc.perform(get("/api/movies").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        var decoded = new SmileMapper().findAndRegisterModules()
+                .readValue(body, new TypeReference<List<MovieResponse>>() { });
+        assertEquals(movies, decoded);
+    }
+
+    @Test
+    void testJsonIsDefaultFormat() throws Exception {
+        // Given
+        when(movieService.getAllMovies()).thenReturn(List.of(createTestMovieResponse()));
+
+        // When & Then - Accept generico: resta JSON
+        mockMvc.perform(get("/api/movies").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     void testGetMovie() throws Exception {
         // Given
@@ -76,15 +206,34 @@ class MovieControllerTest {
         var movies = List.of(createTestMovieResponse());
         when(movieService.getMoviesWithAvailableScreenings()).thenReturn(movies);
 
-        // When & Then
+        // When & Then - risposta invariata: film con le proiezioni
         mockMvc.perform(get("/api/movies/available"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].title").value("Test Movie"));
+                .andExpect(jsonPath("$[0].title").value("Test Movie"))
+                .andExpect(jsonPath("$[0].screenings").isArray());
 
         verify(movieService).getMoviesWithAvailableScreenings();
     }
 
+    @Test
+    void testGetAvailableMovieSummaries() throws Exception {
+        // Given
+        var summary = new MovieSummaryResponse(1L, "Test Movie", "Action", 120,
+                LocalDateTime.of(2030, 1, 1, 20, 0), 3, new BigDecimal("8.50"), 120);
+        when(movieService.getAvailableMovieSummaries()).thenReturn(List.of(summary));
+
+        // When & Then
+        mockMvc.perform(get("/api/movies/available/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Test Movie"))
+                .andExpect(jsonPath("$[0].nextStartTime").value("2030-01-01T20:00:00"))
+                .andExpect(jsonPath("$[0].minPrice").value(8.5))
+                .andExpect(jsonPath("$[0].seatsLeft").value(120));
+
+        verify(movieService).getAvailableMovieSummaries();
+    }
+
     @Test
     void testGetTodayScreenings() throws Exception {
         // Given
@@ -101,6 +250,108 @@ class MovieControllerTest {
         verify(movieService).getTodayScreenings();
     }
 
+    @Test
+    void testGetScreeningsInRange() throws Exception {
+        // Given
+        var from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        var to = LocalDateTime.of(2030, 1, 8, 0, 0);
+        when(movieService.getScreenings(from, to)).thenReturn(List.of(createTestScreeningResponse()));
+
+        // When & Then
+        mockMvc.perform(get("/api/movies/screenings")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-08T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].movieTitle").value("Test Movie"));
+
+        verify(movieService).getScreenings(from, to);
+    }
+
+    @Test
+    void testInvertedRangeIsBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/movies/screenings")
+                        .param("from", "2030-01-08T00:00:00")
+                        .param("to", "2030-01-01T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_PARAMETER"));
+        mockMvc.perform(get("/api/movies")
+                        .param("from", "2030-01-08T00:00:00")
+                        .param("to", "2030-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(movieService);
+    }
+
+    @Test
+    void testStreamSeatAvailability() throws Exception {
+        // Given
+        var update = new SeatAvailability(1L, 48, LocalDateTime.of(2030, 1, 1, 20, 0));
+        when(movieService.subscribeSeatAvailability(1L)).thenReturn(Optional.of(Flux.just(update)));
+
+        // When & Then
+        var result = mockMvc.perform(get("/api/movies/screenings/1/seats"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.contains("event:seats"));
+        assertTrue(body.contains("\"availableSeats\":48"));
+    }
+
+    @Test
+    void testStreamSeatAvailabilityOverCapacity() throws Exception {
+        // Given
+        when(movieService.subscribeSeatAvailability(1L))
+                .thenThrow(new ServiceOverloadedException("Troppi subscriber", Duration.ofSeconds(5)));
+
+        // When & Then - 503 anche per un client che accetta solo text/event-stream
+        mockMvc.perform(get("/api/movies/screenings/1/seats").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"));
+    }
+
+    @Test
+    void testStreamSeatAvailabilityUnknownScreening() throws Exception {
+        // Given
+        when(movieService.subscribeSeatAvailability(99L)).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/movies/screenings/99/seats"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testStreamSchedule() throws Exception {
+        // Given
+        var from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        doAnswer(invocation -> {
+            Consumer<ScreeningResponse> consumer = invocation.getArgument(1);
+            consumer.accept(createTestScreeningResponse());
+            return null;
+        }).when(movieService).streamSchedule(eq(from), any());
+
+        // When & Then
+        var result = mockMvc.perform(get("/api/movies/screenings/stream")
+                        .param("from", "2030-01-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        var lines = body.lines().toList();
+        assertEquals(1, lines.size());
+        assertEquals("Test Movie",
+                objectMapper.readValue(lines.getFirst(), ScreeningResponse.class).movieTitle());
+        verify(movieService).streamSchedule(eq(from), any());
+    }
+
     @Test
     void testSearchMovies() throws Exception {
         // Given
@@ -148,6 +399,64 @@ class MovieControllerTest {
         verify(movieService).searchMovies("Horror", "NonExistent");
     }
 
+    @Test
+    void testSuggestMovies() throws Exception {
+        // Given
+        when(movieService.suggestMovies("tes", 10))
+                .thenReturn(List.of(new MovieSuggestion(1L, "Test Movie")));
+
+        // When & Then
+        mockMvc.perform(get("/api/movies/suggest").param("q", "tes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].movieId").value(1))
+                .andExpect(jsonPath("$[0].title").value("Test Movie"));
+
+        verify(movieService).suggestMovies("tes", 10);
+    }
+
+    @Test
+    void testSuggestMoviesRejectsLimitOutOfRange() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/movies/suggest").param("q", "tes").param("limit", "-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                .andExpect(jsonPath("$.fieldErrors.limit").value("Minimo 1 suggerimento"));
+        mockMvc.perform(get("/api/movies/suggest").param("q", "tes").param("limit", "11"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(movieService);
+    }
+
+    @Test
+    void testGetPopularMovies() throws Exception {
+        // Given
+        when(movieService.getPopularMovies(PopularityWindow.WEEK, 5))
+                .thenReturn(List.of(new PopularMovieResponse(1L, "Test Movie", 42)));
+
+        // When & Then
+        mockMvc.perform(get("/api/movies/popular")
+                        .param("window", "WEEK")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Test Movie"))
+                .andExpect(jsonPath("$[0].confirmedBookings").value(42));
+
+        verify(movieService).getPopularMovies(PopularityWindow.WEEK, 5);
+    }
+
+    @Test
+    void testGetPopularMoviesRejectsLimitOutOfRange() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/movies/popular").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                .andExpect(jsonPath("$.fieldErrors.limit").value("Minimo 1 film"));
+        mockMvc.perform(get("/api/movies/popular").param("limit", "51"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(movieService);
+    }
+
     private MovieResponse createTestMovieResponse() {
         var screening = createTestScreeningResponse();
 
@@ -2,13 +2,17 @@ package com.cinema.movie.exception;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.lang.reflect.Method;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -35,6 +39,21 @@ class GlobalExceptionHandlerTest {
         assertNotNull(response.getBody().timestamp());
     }
 
+    @Test
+    void testHandleOverloadedReturns503WithRetryAfter() {
+        // Given
+        var exception = new ServiceOverloadedException("Database sovraccarico", Duration.ofMillis(1500));
+
+        // When
+        ResponseEntity<GlobalExceptionHandler.ErrorResponse> response = exceptionHandler.handleOverloaded(exception);
+
+        // Then - Retry-After in secondi interi, arrotondato per eccesso
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals("SERVICE_OVERLOADED", response.getBody().code());
+    }
+
     @Test
     void testHandleValidationException() throws Exception {
         // Given - Create proper MethodParameter for constructor
@@ -62,6 +81,20 @@ class GlobalExceptionHandlerTest {
         assertEquals("Email obbligatoria", response.getBody().fieldErrors().get("userEmail"));
     }
 
+    @Test
+    void testHandleNoResourceReturns404() {
+        // Given - endpoint actuator non esposto nel profilo attivo
+        var exception = new NoResourceFoundException(HttpMethod.GET, "actuator/sql");
+
+        // When
+        ResponseEntity<GlobalExceptionHandler.ErrorResponse> response = exceptionHandler.handleNoResource(exception);
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("NOT_FOUND", response.getBody().code());
+    }
+
     @Test
     void testHandleGenericException() {
         // Given
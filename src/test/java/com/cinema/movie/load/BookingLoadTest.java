@@ -0,0 +1,218 @@
+package com.cinema.movie.load;
+
+import com.cinema.movie.dto.BookingRequest;
+import com.cinema.movie.entity.Movie;
+import com.cinema.movie.entity.Screening;
+import com.cinema.movie.repository.BookingRepository;
+import com.cinema.movie.repository.MovieRepository;
+import com.cinema.movie.repository.ScreeningRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test di carico HTTP sugli endpoint reali, con Redis sostituito da una mappa in memoria.
+ * Esclusi dalla build normale: ./mvnw -Pload-test test
+ * Dimensioni configurabili con -Dload.buyers, -Dload.clients, -Dload.iterations.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        // Migliaia di richieste dallo stesso IP: il test misura la capacità, non i limiti per client
+        "cinema.rate-limit.enabled=false",
+        "logging.level.com.cinema=ERROR",
+        "logging.level.com.cinema.movie.load=INFO"
+})
+class BookingLoadTest {
+
+    private static final int BUYERS = Integer.getInteger("load.buyers", 1000);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 200);
+    private static final int ITERATIONS = Integer.getInteger("load.iterations", 20);
+    private static final int MAX_ATTEMPTS = 200;
+    private static final String BUSY = "Sistema occupato, riprova tra poco";
+
+    @TestConfiguration
+    static class InMemoryRedisConfig {
+        @Bean
+        @Primary
+        RedisTemplate<String, String> inMemoryRedisTemplate() {
+            return new InMemoryRedisTemplate();
+        }
+    }
+
+    @LocalServerPort private int port;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private MovieRepository movieRepository;
+    @Autowired private ScreeningRepository screeningRepository;
+    @Autowired private BookingRepository bookingRepository;
+
+    private LoadDriver driver;
+    private Movie movie;
+
+    @BeforeEach
+    void setUp() {
+        driver = new LoadDriver(port, objectMapper);
+        movie = new Movie();
+        movie.setTitle("Prima nazionale");
+        movie.setGenre("Fantascienza");
+        movie.setDuration(150);
+        movie = movieRepository.save(movie);
+    }
+
+    @Test
+    void premiereRush() throws Exception {
+        // Given - 1000 persone, 10 posti, tutti partono nello stesso istante
+        Screening screening = createScreening(10);
+
+        // When - chi trova il lock occupato riprova finché non prenota o non trova il tutto esaurito
+        LoadReport report = driver.run("premiere rush", BUYERS, (client, session) ->
+                book(session, screening.getId(), "buyer" + client + "@example.com", 1));
+        log.info(report.format());
+
+        // Then
+        assertNoOversell(screening);
+        assertEquals(10, report.count("book", "201"));
+        assertEquals(0, screeningRepository.findAvailableSeatsById(screening.getId()).orElseThrow());
+    }
+
+    @Test
+    void steadyMix() throws Exception {
+        // Given - catalogo letto, storico consultato e prenotazioni su più proiezioni
+        List<Screening> screenings = List.of(createScreening(500), createScreening(500), createScreening(500));
+
+        // When
+        LoadReport report = driver.run("steady mix", CLIENTS, (client, session) -> {
+            String email = "regular" + client + "@example.com";
+            for (int i = 0; i < ITERATIONS; i++) {
+                int dice = ThreadLocalRandom.current().nextInt(100);
+                if (dice < 50) {
+                    session.get("movie", "/api/movies/" + movie.getId());
+                } else if (dice < 65) {
+                    session.get("available", "/api/movies/available");
+                } else if (dice < 80) {
+                    session.get("history", "/api/bookings?userEmail=" + email);
+                } else {
+                    Screening screening = screenings.get(ThreadLocalRandom.current().nextInt(screenings.size()));
+                    book(session, screening.getId(), email, 2);
+                }
+            }
+        });
+        log.info(report.format());
+
+        // Then
+        screenings.forEach(this::assertNoOversell);
+        assertEquals(0, report.count("movie", "500") + report.count("history", "500") + report.count("book", "500"));
+    }
+
+    @Test
+    void cancellations() throws Exception {
+        // Given - metà dei clienti cancella subito, in parallelo con le nuove prenotazioni;
+        // un cliente su quattro invia la stessa cancellazione due volte in contemporanea (doppio clic)
+        Screening screening = createScreening(2 * CLIENTS);
+
+        // When
+        LoadReport report = driver.run("cancellations", CLIENTS, (client, session) -> {
+            String email = "fickle" + client + "@example.com";
+            LoadDriver.Response booked = book(session, screening.getId(), email, 2);
+            if (booked.isSuccess() && client % 2 == 0) {
+                String path = "/api/bookings/" + booked.body().get("id").asLong() + "?userEmail=" + email;
+                if (client % 4 == 0) {
+                    doubleCancel(session, path);
+                } else {
+                    session.delete("cancel", path);
+                }
+            }
+        });
+        log.info(report.format());
+
+        // Then - i posti rilasciati tornano disponibili una sola volta per prenotazione
+        assertNoOversell(screening);
+        long cancelled = report.count("cancel", "200");
+        assertTrue(cancelled <= CLIENTS / 2, () -> cancelled + " cancellazioni riuscite");
+        int kept = (int) (report.count("book", "201") - cancelled);
+        assertEquals(2 * kept, bookingRepository.countConfirmedSeatsForScreening(screening.getId()));
+    }
+
+    /**
+     * Due DELETE della stessa prenotazione partite insieme: al più una deve rilasciare i posti.
+     */
+    private static void doubleCancel(LoadDriver.Session session, String path) throws Exception {
+        var gate = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<LoadDriver.Response>> responses = List.of(
+                    executor.submit(() -> { gate.await(); return session.delete("cancel", path); }),
+                    executor.submit(() -> { gate.await(); return session.delete("cancel", path); }));
+            gate.countDown();
+            long succeeded = 0;
+            for (Future<LoadDriver.Response> response : responses) {
+                succeeded += response.get().isSuccess() ? 1 : 0;
+            }
+            assertTrue(succeeded <= 1, "doppia cancellazione riuscita due volte");
+        }
+    }
+
+    private LoadDriver.Response book(LoadDriver.Session session, Long screeningId, String email, int seats)
+            throws Exception {
+        var request = new BookingRequest(screeningId, email, seats);
+        LoadDriver.Response response = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            response = session.post("book", "/api/bookings", request);
+            if (response.isSuccess() || !isBusy(response)) {
+                return response;
+            }
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 20));
+        }
+        return response;
+    }
+
+    /**
+     * Lock occupato o bulkhead del database pieno (503): entrambi si riprovano.
+     */
+    private static boolean isBusy(LoadDriver.Response response) {
+        return response.status() == 503 || response.body() != null && BUSY.equals(response.body().path("message").asText());
+    }
+
+    /**
+     * Posti confermati mai oltre la capienza e coerenti con i posti disponibili.
+     */
+    private void assertNoOversell(Screening screening) {
+        int confirmed = bookingRepository.countConfirmedSeatsForScreening(screening.getId());
+        int available = screeningRepository.findAvailableSeatsById(screening.getId()).orElseThrow();
+
+        assertTrue(confirmed <= screening.getTotalSeats(),
+                () -> confirmed + " posti confermati su " + screening.getTotalSeats());
+        assertEquals(screening.getTotalSeats(), confirmed + available,
+                () -> "confermati " + confirmed + " + disponibili " + available);
+    }
+
+    private Screening createScreening(int seats) {
+        var screening = new Screening();
+        screening.setMovie(movie);
+        screening.setStartTime(LocalDateTime.now().plusDays(1));
+        screening.setTotalSeats(seats);
+        screening.setAvailableSeats(seats);
+        screening.setPrice(new BigDecimal("12.00"));
+        return screeningRepository.save(screening);
+    }
+}
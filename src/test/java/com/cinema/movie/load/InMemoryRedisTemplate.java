@@ -0,0 +1,48 @@
+package com.cinema.movie.load;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RedisTemplate su una mappa in memoria per i test di carico senza Docker:
+ * SET NX per l'acquisizione, rimozione condizionata come lo script Lua di rilascio.
+ * La scadenza dei lock non è simulata.
+ */
+class InMemoryRedisTemplate extends RedisTemplate<String, String> {
+
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> operations = (ValueOperations<String, String>) Proxy.newProxyInstance(
+            ValueOperations.class.getClassLoader(),
+            new Class<?>[]{ValueOperations.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("setIfAbsent") && args.length == 3 && args[2] instanceof Duration) {
+                    return values.putIfAbsent((String) args[0], (String) args[1]) == null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+
+    @Override
+    public ValueOperations<String, String> opsForValue() {
+        return operations;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+        return (T) (values.remove(keys.getFirst(), args[0]) ? Long.valueOf(1) : Long.valueOf(0));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // Nessuna connessione da configurare
+    }
+}
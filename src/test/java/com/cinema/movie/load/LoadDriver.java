@@ -0,0 +1,115 @@
+package com.cinema.movie.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Client HTTP concorrenti su virtual thread contro l'applicazione avviata sulla porta casuale.
+ * Tutti i client partono insieme da un cancello, come all'apertura delle vendite.
+ */
+class LoadDriver {
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+
+    LoadDriver(int port, ObjectMapper objectMapper) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.baseUrl = "http://localhost:" + port;
+        this.objectMapper = objectMapper;
+    }
+
+    @FunctionalInterface
+    interface ClientScript {
+        void run(int client, Session session) throws Exception;
+    }
+
+    LoadReport run(String scenario, int clients, ClientScript script) throws Exception {
+        var report = new LoadReport(scenario);
+        var gate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(clients);
+
+        long start;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                int client = i;
+                futures.add(executor.submit(() -> {
+                    gate.await();
+                    script.run(client, new Session(report));
+                    return null;
+                }));
+            }
+            start = System.nanoTime();
+            gate.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        report.finish(Duration.ofNanos(System.nanoTime() - start));
+        return report;
+    }
+
+    record Response(int status, JsonNode body) {
+        boolean isSuccess() {
+            return status / 100 == 2;
+        }
+    }
+
+    /**
+     * Richieste di un client: ognuna misurata e classificata per stato HTTP e messaggio d'errore.
+     */
+    class Session {
+
+        private final LoadReport report;
+
+        private Session(LoadReport report) {
+            this.report = report;
+        }
+
+        Response get(String operation, String path) throws IOException, InterruptedException {
+            return send(operation, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET());
+        }
+
+        Response post(String operation, String path, Object body) throws IOException, InterruptedException {
+            return send(operation, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))));
+        }
+
+        Response delete(String operation, String path) throws IOException, InterruptedException {
+            return send(operation, HttpRequest.newBuilder(URI.create(baseUrl + path)).DELETE());
+        }
+
+        private Response send(String operation, HttpRequest.Builder request) throws IOException, InterruptedException {
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = http.send(request.timeout(Duration.ofSeconds(60)).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            long elapsed = System.nanoTime() - start;
+
+            JsonNode body = response.body().length == 0 ? null : objectMapper.readTree(response.body());
+            String outcome = String.valueOf(response.statusCode());
+            if (body != null && body.hasNonNull("message") && response.statusCode() >= 400) {
+                outcome += " " + body.get("message").asText();
+            }
+            report.record(operation, elapsed, outcome);
+            return new Response(response.statusCode(), body);
+        }
+    }
+}
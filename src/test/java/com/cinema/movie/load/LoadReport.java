@@ -0,0 +1,74 @@
+package com.cinema.movie.load;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latenze ed esiti per operazione raccolti durante uno scenario.
+ * Percentili esatti: tutte le misure restano in memoria, adeguato a qualche centinaio di migliaia di richieste.
+ */
+class LoadReport {
+
+    private final String scenario;
+    private final Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private volatile Duration elapsed = Duration.ZERO;
+
+    LoadReport(String scenario) {
+        this.scenario = scenario;
+    }
+
+    void record(String operation, long nanos, String outcome) {
+        latencies.computeIfAbsent(operation, key -> new ConcurrentLinkedQueue<>()).add(nanos);
+        outcomes.computeIfAbsent(operation + " " + outcome, key -> new LongAdder()).increment();
+    }
+
+    void finish(Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    long count(String operation, String outcome) {
+        LongAdder adder = outcomes.get(operation + " " + outcome);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    long total() {
+        return latencies.values().stream().mapToLong(ConcurrentLinkedQueue::size).sum();
+    }
+
+    double throughput() {
+        return elapsed.isZero() ? 0 : total() / (elapsed.toNanos() / 1e9);
+    }
+
+    /**
+     * Latenza al percentile indicato (0-100) in millisecondi.
+     */
+    double percentile(String operation, double percentile) {
+        long[] sorted = latencies.getOrDefault(operation, new ConcurrentLinkedQueue<>()).stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    String format() {
+        var out = new StringBuilder();
+        out.append("%n=== %s: %d richieste in %d ms, %.0f req/s ===%n"
+                .formatted(scenario, total(), elapsed.toMillis(), throughput()));
+        out.append("%-22s %8s %9s %9s %9s %9s%n".formatted("operazione", "n", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        new TreeMap<>(latencies).forEach((operation, values) -> out.append("%-22s %8d %9.2f %9.2f %9.2f %9.2f%n"
+                .formatted(operation, values.size(), percentile(operation, 50), percentile(operation, 99),
+                        percentile(operation, 99.9), percentile(operation, 100))));
+        out.append("esiti: ");
+        new TreeMap<>(outcomes).forEach((key, count) -> out.append("[%s: %d] ".formatted(key, count.sum())));
+        return out.toString();
+    }
+}
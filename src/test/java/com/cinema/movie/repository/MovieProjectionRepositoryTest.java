@@ -0,0 +1,127 @@
+package com.cinema.movie.repository;
+
+import com.cinema.movie.dto.MovieField;
+import com.cinema.movie.dto.MovieResponse;
+import com.cinema.movie.dto.ScreeningResponse;
+import com.cinema.movie.entity.Movie;
+import com.cinema.movie.entity.Screening;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Letture parziali su H2 con lo schema delle migration Flyway.
+ */
+@DataJpaTest
+class MovieProjectionRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 18, 0);
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private MovieRepository movieRepository;
+
+    private Movie avatar;
+    private Movie matrix;
+
+    @BeforeEach
+    void setUp() {
+        avatar = persistMovie("Avatar");
+        matrix = persistMovie("Matrix");
+        for (int day = 0; day < 5; day++) {
+            persistScreening(avatar, BASE.plusDays(day));
+            persistScreening(matrix, BASE.plusDays(day).plusHours(2));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testOnlyRequestedFieldsAreReturned() {
+        // When
+        List<MovieResponse> result = movieRepository.findMovies(
+                EnumSet.of(MovieField.TITLE), ScreeningWindow.unbounded());
+
+        // Then
+        assertEquals(2, result.size());
+        MovieResponse first = result.getFirst();
+        assertEquals(avatar.getId(), first.id());
+        assertEquals("Avatar", first.title());
+        assertNull(first.description());
+        assertNull(first.genre());
+        assertNull(first.screenings());
+    }
+
+    @Test
+    void testScreeningsFilteredByTimeWindow() {
+        // When
+        List<MovieResponse> result = movieRepository.findMovies(
+                EnumSet.of(MovieField.TITLE, MovieField.SCREENINGS),
+                new ScreeningWindow(BASE.plusDays(1), BASE.plusDays(3), null));
+
+        // Then - giorni 1 e 2 per ciascun film (to escluso)
+        assertEquals(List.of(BASE.plusDays(1), BASE.plusDays(2)), startTimes(result.get(0)));
+        assertEquals(List.of(BASE.plusDays(1).plusHours(2), BASE.plusDays(2).plusHours(2)), startTimes(result.get(1)));
+    }
+
+    @Test
+    void testNextScreeningsLimitedPerMovie() {
+        // When
+        List<MovieResponse> result = movieRepository.findMovies(
+                EnumSet.of(MovieField.SCREENINGS), new ScreeningWindow(BASE.plusDays(2), null, 2));
+
+        // Then - i primi 2 da from per ogni film
+        assertEquals(List.of(BASE.plusDays(2), BASE.plusDays(3)), startTimes(result.get(0)));
+        assertEquals(List.of(BASE.plusDays(2).plusHours(2), BASE.plusDays(3).plusHours(2)), startTimes(result.get(1)));
+    }
+
+    @Test
+    void testFindSingleMovie() {
+        // When
+        MovieResponse result = movieRepository.findMovie(matrix.getId(), MovieField.all(),
+                new ScreeningWindow(BASE, null, 1)).orElseThrow();
+
+        // Then
+        assertEquals("Matrix", result.title());
+        assertEquals("Descrizione di Matrix", result.description());
+        assertEquals(1, result.screenings().size());
+        assertEquals("Matrix", result.screenings().getFirst().movieTitle());
+    }
+
+    @Test
+    void testFindMissingMovie() {
+        // When & Then
+        assertTrue(movieRepository.findMovie(999L, MovieField.all(), ScreeningWindow.unbounded()).isEmpty());
+    }
+
+    private List<LocalDateTime> startTimes(MovieResponse movie) {
+        return movie.screenings().stream().map(ScreeningResponse::startTime).toList();
+    }
+
+    private Movie persistMovie(String title) {
+        var movie = new Movie();
+        movie.setTitle(title);
+        movie.setGenre("Fantascienza");
+        movie.setDuration(150);
+        movie.setDescription("Descrizione di " + title);
+        return entityManager.persist(movie);
+    }
+
+    private void persistScreening(Movie movie, LocalDateTime startTime) {
+        var screening = new Screening();
+        screening.setMovie(movie);
+        screening.setStartTime(startTime);
+        screening.setTotalSeats(100);
+        screening.setAvailableSeats(100);
+        screening.setPrice(new BigDecimal("10.00"));
+        entityManager.persist(screening);
+    }
+}
@@ -0,0 +1,223 @@
+package com.cinema.movie.repository;
+
+import com.cinema.movie.entity.BookingStatus;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Verifica che PostgreSQL usi gli indici delle migration per le query generate da Hibernate.
+ * I metodi dei repository vengono eseguiti davvero, con i parametri reali, su un dataset
+ * di dimensioni realistiche e con le impostazioni di default del planner: auto_explain
+ * registra nel log del container il piano scelto per ogni statement.
+ * Richiede Docker, altrimenti viene saltato.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class QueryIndexPlanTest {
+
+    private static final long PLAN_LOG_TIMEOUT_MILLIS = 5_000;
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres",
+                    "-c", "fsync=off",
+                    "-c", "shared_preload_libraries=auto_explain",
+                    "-c", "auto_explain.log_min_duration=0");
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private ScreeningRepository screeningRepository;
+    @Autowired private UserBookingViewRepository userBookingViewRepository;
+
+    /**
+     * Un anno di palinsesto e 100.000 prenotazioni. Le PENDING sono solo le ultime:
+     * il job di scadenza le porta a EXPIRED, quindi in produzione restano poche righe.
+     */
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .load()
+                .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("""
+                INSERT INTO movies (title, genre, duration, created_at)
+                SELECT 'Movie ' || g, 'Action', 120, now()
+                FROM generate_series(1, 200) g
+                """);
+            statement.execute("""
+                INSERT INTO screenings (movie_id, start_time, total_seats, available_seats, price, created_at)
+                SELECT (g % 200) + 1, now() - interval '30 days' + g * interval '30 minutes',
+                       100, g % 100, 10.00, now()
+                FROM generate_series(1, 20000) g
+                """);
+            statement.execute("""
+                INSERT INTO users (email, created_at)
+                SELECT 'user' || g || '@example.com', now()
+                FROM generate_series(0, 4999) g
+                """);
+            statement.execute("""
+                INSERT INTO bookings (screening_id, user_id, number_of_seats, total_price, status,
+                                      created_at, confirmed_at)
+                SELECT (g % 20000) + 1, (g % 5000) + 1, 2, 20.00, status, created_at,
+                       CASE WHEN status = 'CONFIRMED' THEN created_at END
+                FROM (
+                    SELECT g, now() - g * interval '1 minute' AS created_at,
+                           CASE WHEN g <= 30 THEN 'PENDING'
+                                WHEN g % 20 = 0 THEN 'CANCELLED'
+                                WHEN g % 20 = 1 THEN 'EXPIRED'
+                                ELSE 'CONFIRMED' END AS status
+                    FROM generate_series(1, 100000) g
+                ) seed
+                """);
+            statement.execute("""
+                INSERT INTO user_booking_view (booking_id, user_id, screening_id, movie_id, movie_title,
+                                               screening_time, number_of_seats, total_price, status, created_at)
+                SELECT b.id, b.user_id, s.id, m.id, m.title, s.start_time,
+                       b.number_of_seats, b.total_price, b.status, b.created_at
+                FROM bookings b
+                JOIN screenings s ON s.id = b.screening_id
+                JOIN movies m ON m.id = s.movie_id
+                """);
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @Test
+    void testUserMovieBookingsUseUserCreatedIndex() {
+        assertPlanUses("idx_bookings_user_created",
+                () -> bookingRepository.findByUser_IdAndScreening_MovieId(42L, 42L));
+    }
+
+    @Test
+    void testBookingHistoryFirstPageUsesViewUserCreatedIndex() {
+        assertPlanUses("idx_user_booking_view_user_created",
+                () -> userBookingViewRepository.findFirstPageByUserId(42L, Limit.of(500)));
+    }
+
+    @Test
+    void testBookingHistoryNextPageUsesViewUserCreatedIndex() {
+        assertPlanUses("idx_user_booking_view_user_created",
+                () -> userBookingViewRepository.findPageByUserIdBefore(
+                        42L, LocalDateTime.now().minusDays(10), Long.MAX_VALUE, Limit.of(500)));
+    }
+
+    @Test
+    void testUserIdIndexIsSmallerThanEmailIndex() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            // Stesso contenuto indicizzato prima della V4, per confronto
+            statement.execute("""
+                CREATE TABLE bookings_by_email AS
+                SELECT u.email AS user_email, b.created_at
+                FROM bookings b JOIN users u ON u.id = b.user_id
+                """);
+            statement.execute("CREATE INDEX idx_bookings_email_created ON bookings_by_email (user_email, created_at DESC)");
+
+            long emailIndex = relationSize(statement, "idx_bookings_email_created");
+            long userIdIndex = relationSize(statement, "idx_bookings_user_created");
+            assertTrue(userIdIndex < emailIndex,
+                    () -> "Indice user_id " + userIdIndex + " byte, indice email " + emailIndex + " byte");
+        }
+    }
+
+    @Test
+    void testExpiredPendingUsesPartialIndex() {
+        assertPlanUses("idx_bookings_pending_created",
+                () -> bookingRepository.findExpiredPendingBookings(LocalDateTime.now().minusMinutes(15)));
+    }
+
+    @Test
+    void testConfirmedSeatsUsesScreeningStatusIndex() {
+        assertPlanUses("idx_bookings_screening_status",
+                () -> bookingRepository.countConfirmedSeatsForScreening(42L));
+    }
+
+    @Test
+    void testScreeningBookingsUseScreeningStatusIndex() {
+        assertPlanUses("idx_bookings_screening_status",
+                () -> bookingRepository.findByScreeningIdAndStatus(42L, BookingStatus.CONFIRMED));
+    }
+
+    @Test
+    void testTodayScreeningsUsesStartAvailableIndex() {
+        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+        assertPlanUses("idx_screenings_start_available",
+                () -> screeningRepository.findTodayScreenings(startOfDay, startOfDay.plusDays(1)));
+    }
+
+    @Test
+    void testMovieScreeningsUsesMovieStartIndex() {
+        assertPlanUses("idx_screenings_movie_start",
+                () -> screeningRepository.findByMovieIdOrderByStartTime(7L));
+    }
+
+    /**
+     * Esegue la query del repository dopo un marcatore e cerca l'indice nei piani
+     * registrati da auto_explain dopo il marcatore.
+     */
+    private void assertPlanUses(String indexName, Runnable repositoryCall) {
+        String marker = "plan-" + UUID.randomUUID();
+        entityManager.getEntityManager().createNativeQuery("SELECT '" + marker + "'").getSingleResult();
+        repositoryCall.run();
+
+        // Il log del container arriva in modo asincrono
+        String plans = "";
+        long deadline = System.currentTimeMillis() + PLAN_LOG_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            String logs = postgres.getLogs();
+            int start = logs.lastIndexOf(marker);
+            plans = start < 0 ? "" : logs.substring(start);
+            if (plans.contains(indexName)) {
+                return;
+            }
+            sleep();
+        }
+        fail("Indice " + indexName + " non usato:\n" + plans);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail("Interrotto in attesa dei piani");
+        }
+    }
+
+    private static long relationSize(Statement statement, String relation) throws SQLException {
+        try (ResultSet rows = statement.executeQuery("SELECT pg_relation_size('" + relation + "')")) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+}
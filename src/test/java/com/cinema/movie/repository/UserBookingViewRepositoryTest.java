@@ -0,0 +1,171 @@
+package com.cinema.movie.repository;
+
+import com.cinema.movie.entity.Booking;
+import com.cinema.movie.entity.BookingStatus;
+import com.cinema.movie.entity.Movie;
+import com.cinema.movie.entity.Screening;
+import com.cinema.movie.entity.User;
+import com.cinema.movie.entity.UserBookingView;
+import com.cinema.movie.event.BookingEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query del read model storico prenotazioni su H2 con lo schema delle migration Flyway.
+ */
+@DataJpaTest
+class UserBookingViewRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 18, 0);
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private UserBookingViewRepository userBookingViewRepository;
+
+    private Movie movie;
+    private Screening screening;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        movie = new Movie();
+        movie.setTitle("Avatar");
+        movie.setGenre("Fantascienza");
+        movie.setDuration(160);
+        entityManager.persist(movie);
+
+        screening = new Screening();
+        screening.setMovie(movie);
+        screening.setStartTime(BASE);
+        screening.setTotalSeats(100);
+        screening.setAvailableSeats(100);
+        screening.setPrice(new BigDecimal("10.00"));
+        entityManager.persist(screening);
+
+        alice = entityManager.persist(new User(null, "a@example.com"));
+        bob = entityManager.persist(new User(null, "b@example.com"));
+
+        persistBooking(alice, BASE.minusDays(2));
+        persistBooking(alice, BASE.minusDays(1));
+        persistBooking(bob, BASE.minusDays(1));
+        entityManager.flush();
+    }
+
+    @Test
+    void testRebuildCopiesBookingsWithMovieAndScreening() {
+        // When
+        int rows = userBookingViewRepository.insertFromBookings();
+        entityManager.clear();
+
+        // Then - più recenti per prime, titolo e orario senza join in lettura
+        assertEquals(3, rows);
+        List<UserBookingView> history = userBookingViewRepository.findByUserIdOrderByCreatedAtDesc(alice.getId());
+        assertEquals(List.of(BASE.minusDays(1), BASE.minusDays(2)),
+                history.stream().map(UserBookingView::getCreatedAt).toList());
+        assertEquals("Avatar", history.getFirst().getMovieTitle());
+        assertEquals(BASE, history.getFirst().getScreeningTime());
+        assertEquals(new BigDecimal("20.00"), history.getFirst().getTotalPrice());
+    }
+
+    @Test
+    void testHistoryPagesByCreatedAtAndIdWithoutGapsOnTies() {
+        // Given - due prenotazioni di alice con lo stesso createdAt
+        persistBooking(alice, BASE.minusDays(1));
+        entityManager.flush();
+        userBookingViewRepository.insertFromBookings();
+        entityManager.clear();
+
+        // When - pagine da 2 dopo l'ultima riga ricevuta
+        List<UserBookingView> first = userBookingViewRepository.findFirstPageByUserId(alice.getId(), Limit.of(2));
+        UserBookingView last = first.getLast();
+        List<UserBookingView> second = userBookingViewRepository.findPageByUserIdBefore(
+                alice.getId(), last.getCreatedAt(), last.getBookingId(), Limit.of(2));
+
+        // Then - tre righe, nessuna ripetuta né saltata
+        assertEquals(2, first.size());
+        assertEquals(List.of(BASE.minusDays(1), BASE.minusDays(1)), first.stream().map(UserBookingView::getCreatedAt).toList());
+        assertTrue(first.getFirst().getBookingId() > last.getBookingId());
+        assertEquals(1, second.size());
+        assertEquals(BASE.minusDays(2), second.getFirst().getCreatedAt());
+    }
+
+    @Test
+    void testDeleteAllRowsBeforeRebuild() {
+        // Given
+        userBookingViewRepository.insertFromBookings();
+
+        // When
+        userBookingViewRepository.deleteAllRows();
+        int rows = userBookingViewRepository.insertFromBookings();
+
+        // Then
+        assertEquals(3, rows);
+        assertEquals(3, userBookingViewRepository.count());
+    }
+
+    @Test
+    void testCatalogChangesAreCopied() {
+        // Given
+        userBookingViewRepository.insertFromBookings();
+        movie.setTitle("Avatar 2");
+        screening.setStartTime(BASE.plusHours(2));
+        entityManager.flush();
+
+        // When
+        int titles = userBookingViewRepository.refreshMovieTitle(movie.getId());
+        int times = userBookingViewRepository.refreshScreeningTime(screening.getId());
+        int unchanged = userBookingViewRepository.refreshScreeningTime(screening.getId());
+        entityManager.clear();
+
+        // Then - la seconda chiamata non trova righe da aggiornare
+        assertEquals(3, titles);
+        assertEquals(3, times);
+        assertEquals(0, unchanged);
+        UserBookingView row = userBookingViewRepository.findByUserIdOrderByCreatedAtDesc(bob.getId()).getFirst();
+        assertEquals("Avatar 2", row.getMovieTitle());
+        assertEquals(BASE.plusHours(2), row.getScreeningTime());
+    }
+
+    @Test
+    void testNewRowIsInsertedAndCancellationUpdatesIt() {
+        // Given
+        var created = new BookingEvent(99L, screening.getId(), movie.getId(), "Avatar", BASE, bob.getId(),
+                "b@example.com", 1, new BigDecimal("10.00"), BookingStatus.CONFIRMED, BASE, BASE);
+        var cancelled = new BookingEvent(99L, screening.getId(), movie.getId(), "Avatar", BASE, bob.getId(),
+                "b@example.com", 1, new BigDecimal("10.00"), BookingStatus.CANCELLED, BASE, BASE);
+
+        // When
+        UserBookingView inserted = userBookingViewRepository.save(UserBookingView.from(created));
+        entityManager.flush();
+        entityManager.clear();
+        userBookingViewRepository.save(UserBookingView.from(cancelled));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then - dopo il persist la riga non è più nuova, la cancellazione aggiorna la stessa riga
+        assertFalse(inserted.isNew());
+        assertEquals(1, userBookingViewRepository.count());
+        assertEquals(BookingStatus.CANCELLED, userBookingViewRepository.findById(99L).orElseThrow().getStatus());
+    }
+
+    private void persistBooking(User user, LocalDateTime createdAt) {
+        var booking = new Booking();
+        booking.setScreening(screening);
+        booking.setUser(user);
+        booking.setNumberOfSeats(2);
+        booking.setTotalPrice(new BigDecimal("20.00"));
+        booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setCreatedAt(createdAt);
+        entityManager.persist(booking);
+    }
+}
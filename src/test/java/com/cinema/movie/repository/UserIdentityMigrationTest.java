@@ -0,0 +1,66 @@
+package com.cinema.movie.repository;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Conversione user_email -> user_id della V4 su dati esistenti (H2).
+ */
+class UserIdentityMigrationTest {
+
+    @Test
+    void testExistingBookingsAreLinkedToUsers() {
+        // Given - schema alla V3 con prenotazioni identificate dall'email
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:migration-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        var jdbc = new JdbcTemplate(dataSource);
+
+        flyway(dataSource, "3").migrate();
+        jdbc.update("INSERT INTO movies (id, title, genre, duration, created_at) VALUES (1, 'Avatar', 'Fantascienza', 160, now())");
+        jdbc.update("""
+            INSERT INTO screenings (id, movie_id, start_time, total_seats, available_seats, price, created_at)
+            VALUES (1, 1, now(), 100, 94, 10.00, now())
+            """);
+        for (String email : List.of("a@example.com", "b@example.com", "a@example.com")) {
+            jdbc.update("""
+                INSERT INTO bookings (screening_id, user_email, number_of_seats, total_price, status, created_at)
+                VALUES (1, ?, 2, 20.00, 'CONFIRMED', now())
+                """, email);
+        }
+        jdbc.update("""
+            INSERT INTO user_booking_view (booking_id, user_email, screening_id, movie_id, movie_title, screening_time,
+                                           number_of_seats, total_price, status, created_at)
+            SELECT b.id, b.user_email, 1, 1, 'Avatar', now(), 2, 20.00, 'CONFIRMED', b.created_at FROM bookings b
+            """);
+
+        // When
+        flyway(dataSource, "4").migrate();
+
+        // Then - un utente per email, stesse prenotazioni per utente in entrambe le tabelle
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+        String perUser = """
+            SELECT COUNT(*) FROM %s t JOIN users u ON u.id = t.user_id WHERE u.email = 'a@example.com'
+            """;
+        assertEquals(2, jdbc.queryForObject(perUser.formatted("bookings"), Integer.class));
+        assertEquals(2, jdbc.queryForObject(perUser.formatted("user_booking_view"), Integer.class));
+        assertEquals(0, jdbc.queryForObject("""
+            SELECT COUNT(*) FROM information_schema.columns
+            WHERE LOWER(column_name) = 'user_email'
+            """, Integer.class));
+    }
+
+    private Flyway flyway(JdbcDataSource dataSource, String target) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .target(target)
+                .load();
+    }
+}
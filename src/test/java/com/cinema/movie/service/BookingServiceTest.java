@@ -6,21 +6,37 @@ import com.cinema.movie.entity.Booking;
 import com.cinema.movie.entity.BookingStatus;
 import com.cinema.movie.entity.Movie;
 import com.cinema.movie.entity.Screening;
+import com.cinema.movie.entity.User;
+import com.cinema.movie.entity.UserBookingView;
 import com.cinema.movie.entity.domain.BookingDomainService;
-import com.cinema.movie.entity.domain.ScreeningDomainService;
+import com.cinema.movie.event.BookingEvent;
 import com.cinema.movie.repository.BookingRepository;
+import com.cinema.movie.repository.ScreeningRepository;
+import com.cinema.movie.repository.UserBookingViewRepository;
+import com.cinema.movie.service.booking.BookingEventLog;
 import com.cinema.movie.service.booking.BookingFactory;
+import com.cinema.movie.service.booking.BookingMetrics;
 import com.cinema.movie.service.booking.BookingValidator;
 import com.cinema.movie.service.booking.DistributedLockManager;
+import com.cinema.movie.service.bulkhead.DatabaseBulkhead;
+import com.cinema.movie.service.hotspot.HotScreeningDetector;
+import com.cinema.movie.service.user.UserIdentityService;
 import com.cinema.movie.exception.BookingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -33,13 +49,21 @@ import static org.mockito.Mockito.*;
 class BookingServiceTest {
 
     @Mock private BookingRepository bookingRepository;
+    @Mock private ScreeningRepository screeningRepository;
+    @Mock private UserBookingViewRepository userBookingViewRepository;
+    @Mock private UserIdentityService userIdentityService;
     @Mock private BookingFactory bookingFactory;
     @Mock private BookingValidator bookingValidator;
     @Mock private DistributedLockManager lockManager;
+    @Mock private HotScreeningDetector hotScreeningDetector;
+    @Mock private BookingEventLog bookingLog;
+    @Spy private BookingMetrics metrics = new BookingMetrics(new SimpleMeterRegistry());
+    @Mock private DatabaseBulkhead bulkhead;
+    @Spy private TransactionOperations transactionTemplate = TransactionOperations.withoutTransaction();
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     // Nuovi mock per Domain Services
     @Mock private BookingDomainService bookingDomainService;
-    @Mock private ScreeningDomainService screeningDomainService;
 
     @InjectMocks private BookingService bookingService;
 
@@ -55,8 +79,9 @@ class BookingServiceTest {
                     Supplier<BookingResponse> supplier = invocation.getArgument(1);
                     return supplier.get();
                 });
+        when(userIdentityService.resolve("test@email.com")).thenReturn(new User(7L, "test@email.com"));
         when(bookingValidator.validateAndGetScreening(request)).thenReturn(screening);
-        when(bookingFactory.createBooking(request, screening)).thenReturn(booking);
+        when(bookingFactory.createBooking(request, screening, 7L)).thenReturn(booking);
         when(bookingRepository.save(booking)).thenReturn(booking);
 
         // When
@@ -68,8 +93,15 @@ class BookingServiceTest {
         assertEquals(2, result.numberOfSeats());
         verify(lockManager).executeWithLock(eq(1L), any(Supplier.class));
         verify(bookingValidator).validateAndGetScreening(request);
-        verify(bookingFactory).createBooking(request, screening);
+        verify(bookingFactory).createBooking(request, screening, 7L);
+        // Utente risolto prima che la transazione prenda la connessione
+        var order = inOrder(userIdentityService, transactionTemplate);
+        order.verify(userIdentityService).resolve("test@email.com");
+        order.verify(transactionTemplate).execute(any());
         verify(bookingRepository).save(booking);
+        verify(eventPublisher).publishEvent(any(BookingEvent.class));
+        verify(hotScreeningDetector).recordRequest(1L);
+        verify(bookingLog).created(eq(request), anyLong());
     }
 
     @Test
@@ -103,9 +135,9 @@ class BookingServiceTest {
     @Test
     void testGetUserBookings() {
         // Given
-        var bookings = List.of(createTestBooking());
-        when(bookingRepository.findByUserEmailOrderByCreatedAtDesc("test@email.com"))
-                .thenReturn(bookings);
+        var bookings = List.of(createTestView());
+        when(userIdentityService.findId("test@email.com")).thenReturn(Optional.of(1L));
+        when(userBookingViewRepository.findByUserIdOrderByCreatedAtDesc(1L)).thenReturn(bookings);
 
         // When
         List<BookingResponse> result = bookingService.getUserBookings("test@email.com");
@@ -113,7 +145,43 @@ class BookingServiceTest {
         // Then
         assertEquals(1, result.size());
         assertEquals("test@email.com", result.getFirst().userEmail());
-        verify(bookingRepository).findByUserEmailOrderByCreatedAtDesc("test@email.com");
+        assertEquals("Test Movie", result.getFirst().movieTitle());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testUnknownUserHasNoHistory() {
+        // Given - email mai usata per prenotare
+        when(userIdentityService.findId("new@email.com")).thenReturn(Optional.empty());
+
+        // When
+        List<BookingResponse> result = bookingService.getUserBookings("new@email.com");
+
+        // Then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(userBookingViewRepository);
+    }
+
+    @Test
+    void testStreamUserBookingsReadsKeysetPages() {
+        // Given - una pagina piena, poi una vuota
+        var booking = createTestView();
+        var limit = Limit.of(BookingService.STREAM_PAGE_SIZE);
+        runInBulkhead();
+        when(userIdentityService.findId("test@email.com")).thenReturn(Optional.of(1L));
+        when(userBookingViewRepository.findFirstPageByUserId(1L, limit))
+                .thenReturn(Collections.nCopies(BookingService.STREAM_PAGE_SIZE, booking));
+        when(userBookingViewRepository.findPageByUserIdBefore(1L, booking.getCreatedAt(), booking.getBookingId(), limit))
+                .thenReturn(List.of());
+        List<BookingResponse> received = new ArrayList<>();
+
+        // When
+        bookingService.streamUserBookings("test@email.com", received::add);
+
+        // Then - identità e ogni pagina con un permesso proprio
+        assertEquals(BookingService.STREAM_PAGE_SIZE, received.size());
+        assertEquals("Test Movie", received.getFirst().movieTitle());
+        verify(bulkhead, times(3)).execute(eq(DatabaseBulkhead.Lane.READ), any());
     }
 
     @Test
@@ -124,10 +192,11 @@ class BookingServiceTest {
 
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
         doNothing().when(bookingValidator).validateCancellation(booking, "test@email.com");
+        when(bookingRepository.cancelIfActive(1L)).thenReturn(1);
 
         // Mock Domain Services - non più business logic nell'entity
         doNothing().when(bookingDomainService).cancelBooking(booking);
-        doNothing().when(screeningDomainService).releaseSeats(any(Screening.class), eq(2));
+        when(screeningRepository.releaseSeatsAtomically(1L, 2)).thenReturn(1);
 
         when(bookingRepository.save(booking)).thenReturn(booking);
 
@@ -140,9 +209,25 @@ class BookingServiceTest {
 
         // Verifica interazione con Domain Services invece delle entity
         verify(bookingDomainService).cancelBooking(booking);
-        verify(screeningDomainService).releaseSeats(booking.getScreening(), 2);
+        verify(screeningRepository).releaseSeatsAtomically(1L, 2);
 
         verify(bookingRepository).save(booking);
+        verify(eventPublisher).publishEvent(any(BookingEvent.class));
+        verify(bookingLog).cancelled(eq(1L), eq(1L), eq(2), anyLong());
+    }
+
+    @Test
+    void testConcurrentCancellationReleasesSeatsOnce() {
+        // Given - l'altra richiesta ha già cancellato: l'UPDATE condizionato non trova righe
+        var booking = createTestBooking();
+        booking.setStatus(BookingStatus.CONFIRMED);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.cancelIfActive(1L)).thenReturn(0);
+
+        // When & Then
+        assertThrows(BookingException.class, () -> bookingService.cancelBooking(1L, "test@email.com"));
+        verify(screeningRepository, never()).releaseSeatsAtomically(any(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any(BookingEvent.class));
     }
 
     @Test
@@ -157,7 +242,13 @@ class BookingServiceTest {
 
         // Domain Services non dovrebbero essere chiamati
         verify(bookingDomainService, never()).cancelBooking(any());
-        verify(screeningDomainService, never()).releaseSeats(any(), anyInt());
+        verify(screeningRepository, never()).releaseSeatsAtomically(any(), anyInt());
+        verify(bookingLog).cancelRejected(eq(1L), eq("Prenotazione non trovata"), anyLong());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runInBulkhead() {
+        when(bulkhead.execute(any(), any())).thenAnswer(invocation -> ((Supplier<Object>) invocation.getArgument(1)).get());
     }
 
     private Screening createTestScreening() {
@@ -179,11 +270,15 @@ class BookingServiceTest {
         var booking = new Booking();
         booking.setId(1L);
         booking.setScreening(createTestScreening());
-        booking.setUserEmail("test@email.com");
+        booking.setUser(new User(1L, "test@email.com"));
         booking.setNumberOfSeats(2);
         booking.setTotalPrice(BigDecimal.valueOf(20.0));
         booking.setStatus(BookingStatus.CONFIRMED);
         booking.setCreatedAt(LocalDateTime.now());
         return booking;
     }
+
+    private UserBookingView createTestView() {
+        return UserBookingView.from(BookingEvent.from(createTestBooking()));
+    }
 }
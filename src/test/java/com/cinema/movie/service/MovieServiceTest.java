@@ -1,21 +1,38 @@
 package com.cinema.movie.service;
 
+import com.cinema.movie.dto.MovieField;
 import com.cinema.movie.dto.MovieResponse;
+import com.cinema.movie.dto.MovieSuggestion;
+import com.cinema.movie.dto.MovieSummaryResponse;
 import com.cinema.movie.dto.ScreeningResponse;
 import com.cinema.movie.entity.Movie;
 import com.cinema.movie.entity.Screening;
 import com.cinema.movie.repository.MovieRepository;
 import com.cinema.movie.repository.ScreeningRepository;
+import com.cinema.movie.repository.ScreeningWindow;
+import com.cinema.movie.service.bulkhead.DatabaseBulkhead;
+import com.cinema.movie.service.popularity.PopularityService;
+import com.cinema.movie.service.schedule.MovieSummaryService;
+import com.cinema.movie.service.schedule.ScreeningScheduleIndex;
+import com.cinema.movie.service.schedule.SeatAvailabilityBroadcaster;
+import com.cinema.movie.service.search.MovieSearchIndex;
+import com.cinema.movie.service.search.MovieSuggester;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -26,6 +43,13 @@ class MovieServiceTest {
 
     @Mock private MovieRepository movieRepository;
     @Mock private ScreeningRepository screeningRepository;
+    @Mock private DatabaseBulkhead bulkhead;
+    @Mock private MovieSearchIndex movieSearchIndex;
+    @Mock private MovieSuggester movieSuggester;
+    @Mock private PopularityService popularityService;
+    @Mock private ScreeningScheduleIndex scheduleIndex;
+    @Mock private SeatAvailabilityBroadcaster seatAvailabilityBroadcaster;
+    @Mock private MovieSummaryService movieSummaryService;
     @InjectMocks private MovieService movieService;
 
     @Test
@@ -58,6 +82,22 @@ class MovieServiceTest {
         verify(movieRepository).findById(1L);
     }
 
+    @Test
+    void testGetMoviesWithSparseFields() {
+        // Given
+        var fields = EnumSet.of(MovieField.TITLE);
+        var window = ScreeningWindow.unbounded();
+        var titleOnly = new MovieResponse(1L, "Test Movie", null, null, null, null);
+        when(movieRepository.findMovies(fields, window)).thenReturn(List.of(titleOnly));
+
+        // When
+        List<MovieResponse> result = movieService.getMovies(fields, window);
+
+        // Then - nessun caricamento di entity
+        assertEquals(List.of(titleOnly), result);
+        verify(movieRepository, never()).findAll();
+    }
+
     @Test
     void testGetMovieWithScreeningsNotFound() {
         // Given
@@ -74,16 +114,45 @@ class MovieServiceTest {
     @Test
     void testGetMoviesWithAvailableScreenings() {
         // Given
-        var movies = List.of(createTestMovie());
-        when(movieRepository.findMoviesWithAvailableScreenings()).thenReturn(movies);
+        var movie = createTestMovie();
+        var summary = new MovieSummaryResponse(movie.getId(), "Test Movie", "Action", 120,
+                LocalDateTime.now().plusHours(2), 1, new BigDecimal("10.00"), 50);
+        when(movieSummaryService.available()).thenReturn(Optional.of(List.of(summary)));
+        when(movieRepository.findWithScreeningsByIdIn(List.of(movie.getId()))).thenReturn(List.of(movie));
 
         // When
         List<MovieResponse> result = movieService.getMoviesWithAvailableScreenings();
 
-        // Then
+        // Then - film dal read model, proiezioni in una sola query
         assertEquals(1, result.size());
         assertEquals("Test Movie", result.getFirst().title());
-        verify(movieRepository).findMoviesWithAvailableScreenings();
+        assertEquals(1, result.getFirst().screenings().size());
+        verify(movieRepository, never()).findAvailabilitySummaries(any());
+    }
+
+    @Test
+    void testGetAvailableMovieSummaries() {
+        // Given
+        var summary = new MovieSummaryResponse(1L, "Test Movie", "Action", 120,
+                LocalDateTime.now().plusHours(2), 1, new BigDecimal("10.00"), 50);
+        when(movieSummaryService.available()).thenReturn(Optional.of(List.of(summary)));
+
+        // When
+        List<MovieSummaryResponse> result = movieService.getAvailableMovieSummaries();
+
+        // Then - servito dal read model, nessuna query
+        assertEquals(List.of(summary), result);
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    void testGetAvailableMovieSummariesFallsBackToAggregate() {
+        // When - read model non ancora caricato
+        List<MovieSummaryResponse> result = movieService.getAvailableMovieSummaries();
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(movieRepository).findAvailabilitySummaries(any(LocalDateTime.class));
     }
 
     @Test
@@ -103,8 +172,98 @@ class MovieServiceTest {
     }
 
     @Test
-    void testSearchMovies() {
+    void testGetTodayScreeningsFromScheduleIndex() {
+        // Given
+        var cached = new ScreeningResponse(1L, 1L, "Test Movie", LocalDateTime.now(), 50, new BigDecimal("10.00"));
+        when(scheduleIndex.today()).thenReturn(Optional.of(List.of(cached)));
+
+        // When
+        List<ScreeningResponse> result = movieService.getTodayScreenings();
+
+        // Then - nessuna query SQL
+        assertEquals(List.of(cached), result);
+        verifyNoInteractions(screeningRepository);
+    }
+
+    @Test
+    void testSubscribeSeatAvailabilityUnknownScreening() {
         // Given
+        when(scheduleIndex.availableSeats(99L)).thenReturn(Optional.empty());
+        when(screeningRepository.existsById(99L)).thenReturn(false);
+
+        // When & Then - nessun canale aperto
+        assertTrue(movieService.subscribeSeatAvailability(99L).isEmpty());
+        verifyNoInteractions(seatAvailabilityBroadcaster);
+    }
+
+    @Test
+    void testSubscribeSeatAvailabilityIndexedScreening() {
+        // Given
+        when(scheduleIndex.availableSeats(1L)).thenReturn(Optional.of(50));
+        when(seatAvailabilityBroadcaster.subscribe(1L)).thenReturn(Flux.empty());
+
+        // When & Then - proiezione nell'indice: nessuna query
+        assertTrue(movieService.subscribeSeatAvailability(1L).isPresent());
+        verifyNoInteractions(screeningRepository);
+    }
+
+    @Test
+    void testGetScreeningsFallsBackToSql() {
+        // Given - indice non ancora caricato
+        var from = LocalDateTime.now();
+        when(screeningRepository.findAvailableScreenings(from)).thenReturn(List.of(createTestScreening()));
+
+        // When
+        List<ScreeningResponse> result = movieService.getScreenings(from, null);
+
+        // Then
+        assertEquals(1, result.size());
+        verify(screeningRepository).findAvailableScreenings(from);
+    }
+
+    @Test
+    void testStreamScheduleReadsKeysetPages() {
+        // Given - una pagina piena, poi una parziale che chiude lo stream
+        var from = LocalDateTime.now();
+        var screening = createTestScreening();
+        var fullPage = Collections.nCopies(MovieService.STREAM_PAGE_SIZE, screening);
+        runInBulkhead();
+        when(screeningRepository.findSchedulePage(from, 0L, Limit.of(MovieService.STREAM_PAGE_SIZE)))
+                .thenReturn(fullPage);
+        when(screeningRepository.findSchedulePage(screening.getStartTime(), screening.getId(),
+                Limit.of(MovieService.STREAM_PAGE_SIZE))).thenReturn(List.of(screening));
+        List<ScreeningResponse> received = new ArrayList<>();
+
+        // When
+        movieService.streamSchedule(from, received::add);
+
+        // Then - un permesso per pagina, non uno per tutto lo stream
+        assertEquals(MovieService.STREAM_PAGE_SIZE + 1, received.size());
+        assertEquals("Test Movie", received.getFirst().movieTitle());
+        verify(bulkhead, times(2)).execute(eq(DatabaseBulkhead.Lane.READ), any());
+    }
+
+    @Test
+    void testSearchMoviesUsesIndexRanking() {
+        // Given - l'indice restituisce gli id già ordinati per rilevanza
+        var first = createTestMovie();
+        var second = createTestMovie();
+        second.setId(2L);
+        second.setTitle("Another Test Movie");
+        when(movieSearchIndex.search("Action", "Test")).thenReturn(Optional.of(List.of(2L, 1L)));
+        when(movieRepository.findWithScreeningsByIdIn(List.of(2L, 1L))).thenReturn(List.of(first, second));
+
+        // When
+        List<MovieResponse> result = movieService.searchMovies("Action", "Test");
+
+        // Then
+        assertEquals(List.of(2L, 1L), result.stream().map(MovieResponse::id).toList());
+        verify(movieRepository, never()).searchMovies(any(), any(), any(), any());
+    }
+
+    @Test
+    void testSearchMovies() {
+        // Given - indice non pronto, fallback SQL
         var movies = List.of(createTestMovie());
         when(movieRepository.searchMovies("Action", "Test", null, null)).thenReturn(movies);
 
@@ -117,6 +276,19 @@ class MovieServiceTest {
         verify(movieRepository).searchMovies("Action", "Test", null, null);
     }
 
+    @Test
+    void testSuggestMovies() {
+        // Given
+        when(movieSuggester.suggest("tes", 5)).thenReturn(List.of(new MovieSuggestion(1L, "Test Movie")));
+
+        // When
+        List<MovieSuggestion> result = movieService.suggestMovies("tes", 5);
+
+        // Then - nessun accesso al database
+        assertEquals("Test Movie", result.getFirst().title());
+        verifyNoInteractions(movieRepository);
+    }
+
     private Movie createTestMovie() {
         var movie = new Movie();
         movie.setId(1L);
@@ -128,6 +300,11 @@ class MovieServiceTest {
         return movie;
     }
 
+    @SuppressWarnings("unchecked")
+    private void runInBulkhead() {
+        when(bulkhead.execute(any(), any())).thenAnswer(invocation -> ((Supplier<Object>) invocation.getArgument(1)).get());
+    }
+
     private Screening createTestScreening() {
         var movie = new Movie();
         movie.setId(1L);
@@ -0,0 +1,99 @@
+package com.cinema.movie.service.booking;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.cinema.movie.dto.BookingRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingEventLogTest {
+
+    private static final long MS = 1_000_000;
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(BookingEventLog.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final BookingRequest request = new BookingRequest(7L, "mario.rossi@example.com", 2);
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void testEventCarriesStructuredFieldsWithoutEmail() {
+        // Given
+        var bookingLog = new BookingEventLog(new BookingLogProperties(Map.of()), () -> 0.0);
+
+        // When
+        bookingLog.rejected(request, "Sistema occupato, riprova tra poco", 12 * MS);
+
+        // Then
+        ILoggingEvent event = appender.list.getFirst();
+        assertEquals("booking", event.getFormattedMessage());
+        Map<String, Object> fields = fields(event);
+        assertEquals("rejected", fields.get("outcome"));
+        assertEquals(7L, fields.get("screeningId"));
+        assertEquals(2, fields.get("seats"));
+        assertEquals(12L, fields.get("latencyMs"));
+        assertEquals("Sistema occupato, riprova tra poco", fields.get("reason"));
+        assertFalse(fields.values().stream().anyMatch(value -> String.valueOf(value).contains("@")));
+    }
+
+    @Test
+    void testSuccessesAreSampledFailuresAlwaysLogged() {
+        // Given - sequenza pseudo-casuale uniforme: 1 valore su 100 sotto 0.01
+        var next = new AtomicInteger();
+        var bookingLog = new BookingEventLog(new BookingLogProperties(Map.of()),
+                () -> (next.getAndIncrement() % 100) / 100.0);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            bookingLog.created(request, MS);
+            bookingLog.rejected(request, "Proiezione non disponibile", MS);
+        }
+
+        // Then
+        assertEquals(10, count("created"));
+        assertEquals(1000, count("rejected"));
+    }
+
+    @Test
+    void testConfiguredRateOverridesDefault() {
+        // Given
+        var bookingLog = new BookingEventLog(
+                new BookingLogProperties(Map.of("created", 1.0, "cancelled", 0.0)), () -> 0.5);
+
+        // When
+        bookingLog.created(request, MS);
+        bookingLog.cancelled(1L, 7L, 2, MS);
+
+        // Then
+        assertEquals(List.of("created"), appender.list.stream().map(event -> fields(event).get("outcome")).toList());
+    }
+
+    private long count(String outcome) {
+        return appender.list.stream().filter(event -> outcome.equals(fields(event).get("outcome"))).count();
+    }
+
+    private static Map<String, Object> fields(ILoggingEvent event) {
+        return event.getKeyValuePairs().stream()
+                .filter(pair -> pair.value != null)
+                .collect(Collectors.toMap(pair -> pair.key, pair -> pair.value));
+    }
+}
@@ -8,11 +8,14 @@ import com.cinema.movie.entity.Screening;
 import com.cinema.movie.entity.domain.BookingDomainService;
 import com.cinema.movie.repository.ScreeningRepository;
 import com.cinema.movie.exception.BookingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -25,6 +28,8 @@ class BookingFactoryTest {
 
     @Mock private ScreeningRepository screeningRepository;
     @Mock private BookingDomainService bookingDomainService;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy private BookingMetrics metrics = new BookingMetrics(meterRegistry);
 
     @InjectMocks private BookingFactory bookingFactory;
 
@@ -38,11 +43,12 @@ class BookingFactoryTest {
         doNothing().when(bookingDomainService).confirmBooking(any(Booking.class));
 
         // When
-        Booking result = bookingFactory.createBooking(request, screening);
+        Booking result = bookingFactory.createBooking(request, screening, 7L);
 
         // Then
         assertNotNull(result);
-        assertEquals("test@email.com", result.getUserEmail());
+        assertEquals(7L, result.getUser().getId());
+        assertEquals("test@email.com", result.getUser().getEmail());
         assertEquals(2, result.getNumberOfSeats());
         assertEquals(BigDecimal.valueOf(20.0), result.getTotalPrice());
         assertEquals(BookingStatus.PENDING, result.getStatus()); // Prima della conferma
@@ -60,9 +66,33 @@ class BookingFactoryTest {
 
         // When & Then
         assertThrows(BookingException.class,
-                () -> bookingFactory.createBooking(request, screening));
+                () -> bookingFactory.createBooking(request, screening, 7L));
         verify(screeningRepository).reserveSeatsAtomically(1L, 2);
         verify(bookingDomainService, never()).confirmBooking(any());
+
+        // Nessuna riga aggiornata: esito rejected
+        assertEquals(1, meterRegistry.get("cinema.booking.stage")
+                .tag("stage", "reserve").tag("outcome", "rejected")
+                .timer().count());
+    }
+
+    @Test
+    void testReserveSeatsFailureIsTimedAsError() {
+        // Given
+        var request = new BookingRequest(1L, "test@email.com", 2);
+        var screening = createTestScreening();
+
+        when(screeningRepository.reserveSeatsAtomically(1L, 2))
+                .thenThrow(new QueryTimeoutException("statement timeout"));
+
+        // When & Then
+        assertThrows(QueryTimeoutException.class,
+                () -> bookingFactory.createBooking(request, screening, 7L));
+
+        // Anche un errore del database chiude la misura della fase
+        assertEquals(1, meterRegistry.get("cinema.booking.stage")
+                .tag("stage", "reserve").tag("outcome", "error")
+                .timer().count());
     }
 
     private Screening createTestScreening() {
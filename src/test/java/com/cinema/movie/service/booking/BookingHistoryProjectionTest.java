@@ -0,0 +1,98 @@
+package com.cinema.movie.service.booking;
+
+import com.cinema.movie.entity.BookingStatus;
+import com.cinema.movie.entity.UserBookingView;
+import com.cinema.movie.event.BookingEvent;
+import com.cinema.movie.event.CatalogChangedEvent;
+import com.cinema.movie.repository.UserBookingViewRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingHistoryProjectionTest {
+
+    @Mock private UserBookingViewRepository userBookingViewRepository;
+    @InjectMocks private BookingHistoryProjection projection;
+
+    @Test
+    void testBookingEventWritesDenormalizedRow() {
+        // Given
+        var screeningTime = LocalDateTime.now().plusDays(1);
+        var event = new BookingEvent(10L, 2L, 3L, "Avatar", screeningTime, 1L, "test@email.com",
+                2, new BigDecimal("20.00"), BookingStatus.CANCELLED, LocalDateTime.now(), null);
+
+        // When
+        projection.onBookingEvent(event);
+
+        // Then
+        var captor = ArgumentCaptor.forClass(UserBookingView.class);
+        verify(userBookingViewRepository).save(captor.capture());
+        UserBookingView row = captor.getValue();
+        assertEquals(10L, row.getBookingId());
+        assertEquals("Avatar", row.getMovieTitle());
+        assertEquals(screeningTime, row.getScreeningTime());
+        assertEquals(new BigDecimal("20.00"), row.getTotalPrice());
+        assertEquals(BookingStatus.CANCELLED, row.getStatus());
+        assertFalse(row.isNew());
+    }
+
+    @Test
+    void testNewBookingRowIsPersistedWithoutMerge() {
+        // Given
+        var event = new BookingEvent(10L, 2L, 3L, "Avatar", LocalDateTime.now().plusDays(1), 1L, "test@email.com",
+                2, new BigDecimal("20.00"), BookingStatus.CONFIRMED, LocalDateTime.now(), LocalDateTime.now());
+
+        // When
+        projection.onBookingEvent(event);
+
+        // Then - riga nuova: save() fa persist, nessuna SELECT per l'id assegnato
+        var captor = ArgumentCaptor.forClass(UserBookingView.class);
+        verify(userBookingViewRepository).save(captor.capture());
+        assertTrue(captor.getValue().isNew());
+    }
+
+    @Test
+    void testMovieChangeRefreshesTitle() {
+        // When
+        projection.onCatalogChanged(CatalogChangedEvent.movie(3L));
+
+        // Then
+        verify(userBookingViewRepository).refreshMovieTitle(3L);
+        verify(userBookingViewRepository, never()).refreshScreeningTime(any());
+    }
+
+    @Test
+    void testScreeningChangeRefreshesOnlyThatScreening() {
+        // When
+        projection.onCatalogChanged(CatalogChangedEvent.screening(3L, 2L));
+
+        // Then
+        verify(userBookingViewRepository).refreshScreeningTime(2L);
+        verify(userBookingViewRepository, never()).refreshMovieTitle(any());
+    }
+
+    @Test
+    void testRebuildReplacesAllRows() {
+        // Given
+        when(userBookingViewRepository.insertFromBookings()).thenReturn(5);
+
+        // When
+        projection.rebuild();
+
+        // Then
+        var order = inOrder(userBookingViewRepository);
+        order.verify(userBookingViewRepository).deleteAllRows();
+        order.verify(userBookingViewRepository).insertFromBookings();
+    }
+}
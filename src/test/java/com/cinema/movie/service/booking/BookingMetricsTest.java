@@ -0,0 +1,97 @@
+package com.cinema.movie.service.booking;
+
+import com.cinema.movie.exception.BookingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BookingMetrics metrics = new BookingMetrics(meterRegistry);
+
+    @Test
+    void testStageOutcomes() {
+        // When
+        metrics.stage(BookingMetrics.Stage.VALIDATE, 1L, () -> "ok");
+        assertThrows(BookingException.class, () -> metrics.stage(BookingMetrics.Stage.VALIDATE, 1L, () -> {
+            throw new BookingException("Proiezione non disponibile");
+        }));
+        assertThrows(IllegalStateException.class, () -> metrics.stage(BookingMetrics.Stage.SAVE, 1L, () -> {
+            throw new IllegalStateException("connessione persa");
+        }));
+
+        // Then - regola di business: rejected; guasto: error
+        assertEquals(1, stageCount("validate", "success"));
+        assertEquals(1, stageCount("validate", "rejected"));
+        assertEquals(1, stageCount("save", "error"));
+    }
+
+    @Test
+    void testInFlightGaugeDuringBooking() {
+        // Given
+        var observed = new AtomicInteger();
+
+        // When
+        metrics.booking(() -> {
+            observed.set((int) meterRegistry.get("cinema.booking.inflight").gauge().value());
+            return "ok";
+        });
+
+        // Then
+        assertEquals(1, observed.get());
+        assertEquals(0, metrics.inFlight());
+        assertEquals(1, meterRegistry.get("cinema.booking.requests").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testRejectedBookingReleasesInFlight() {
+        // When
+        assertThrows(BookingException.class, () -> metrics.booking(() -> {
+            throw new BookingException("Sistema occupato, riprova tra poco");
+        }));
+
+        // Then
+        assertEquals(0, metrics.inFlight());
+        assertEquals(1, meterRegistry.get("cinema.booking.requests").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    void testStageIsRecordedAsJfrEvent(@TempDir Path dir) throws Exception {
+        // Given
+        Path file = dir.resolve("booking.jfr");
+        try (var recording = new Recording()) {
+            recording.enable("com.cinema.BookingStage");
+            recording.start();
+
+            // When
+            assertThrows(BookingException.class, () -> metrics.stage(BookingMetrics.Stage.RESERVE_SEATS, 7L, () -> {
+                throw new BookingException("Posti non più disponibili");
+            }));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(1, events.size());
+        assertEquals("reserve", events.getFirst().getString("stage"));
+        assertEquals(7L, events.getFirst().getLong("screeningId"));
+        assertEquals("rejected", events.getFirst().getString("outcome"));
+    }
+
+    private long stageCount(String stage, String outcome) {
+        return meterRegistry.get("cinema.booking.stage")
+                .tag("stage", stage).tag("outcome", outcome)
+                .timer().count();
+    }
+}
@@ -5,9 +5,11 @@ import com.cinema.movie.entity.Booking;
 import com.cinema.movie.entity.BookingStatus;
 import com.cinema.movie.entity.Movie;
 import com.cinema.movie.entity.Screening;
+import com.cinema.movie.entity.User;
 import com.cinema.movie.entity.domain.BookingDomainService;
 import com.cinema.movie.entity.domain.ScreeningDomainService;
 import com.cinema.movie.repository.ScreeningRepository;
+import com.cinema.movie.service.user.UserIdentityService;
 import com.cinema.movie.exception.BookingException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,6 +32,7 @@ class BookingValidatorTest {
     // Nuovi mock per Domain Services
     @Mock private BookingDomainService bookingDomainService;
     @Mock private ScreeningDomainService screeningDomainService;
+    @Mock private UserIdentityService userIdentityService;
 
     @InjectMocks private BookingValidator bookingValidator;
 
@@ -153,6 +156,7 @@ class BookingValidatorTest {
     void testValidateCancellation() {
         // Given
         var booking = createValidBooking();
+        when(userIdentityService.findId("test@email.com")).thenReturn(Optional.of(1L));
         when(bookingDomainService.isNotCancellable(booking)).thenReturn(false);
 
         // When & Then
@@ -167,7 +171,8 @@ class BookingValidatorTest {
     void testValidateCancellationWrongUser() {
         // Given
         var booking = createValidBooking();
-        booking.setUserEmail("other@email.com");
+        booking.setUser(new User(2L, "other@email.com"));
+        when(userIdentityService.findId("test@email.com")).thenReturn(Optional.of(1L));
 
         // When & Then
         assertThrows(BookingException.class, () ->
@@ -181,6 +186,7 @@ class BookingValidatorTest {
     void testValidateCancellationNotCancellable() {
         // Given
         var booking = createValidBooking();
+        when(userIdentityService.findId("test@email.com")).thenReturn(Optional.of(1L));
         when(bookingDomainService.isNotCancellable(booking)).thenReturn(true);
         when(bookingDomainService.getStatusMessage(booking)).thenReturn("Prenotazione confermata!");
 
@@ -211,7 +217,7 @@ class BookingValidatorTest {
         var booking = new Booking();
         booking.setId(1L);
         booking.setScreening(createValidScreening());
-        booking.setUserEmail("test@email.com");
+        booking.setUser(new User(1L, "test@email.com"));
         booking.setNumberOfSeats(2);
         booking.setStatus(BookingStatus.CONFIRMED);
         return booking;
@@ -1,15 +1,24 @@
 package com.cinema.movie.service.booking;
 
 import com.cinema.movie.exception.BookingException;
+import com.cinema.movie.service.hotspot.HotScreeningDetector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 
 import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,8 +30,19 @@ class DistributedLockManagerTest {
 
     @Mock private RedisTemplate<String, String> redisTemplate;
     @Mock private ValueOperations<String, String> valueOperations;
-
-    @InjectMocks private DistributedLockManager lockManager;
+    @Mock private HotScreeningDetector hotScreeningDetector;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy private BookingMetrics metrics = new BookingMetrics(meterRegistry);
+
+    private LockCircuitBreaker circuitBreaker;
+    private DistributedLockManager lockManager;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new BookingLockProperties(3, Duration.ofSeconds(5), Duration.ofMillis(50), 16);
+        circuitBreaker = new LockCircuitBreaker(properties, meterRegistry);
+        lockManager = new DistributedLockManager(redisTemplate, metrics, hotScreeningDetector, circuitBreaker, properties);
+    }
 
     @Test
     void testExecuteWithLock() {
@@ -54,6 +74,7 @@ class DistributedLockManagerTest {
         assertThrows(BookingException.class,
                 () -> lockManager.executeWithLock(1L, operation));
         verify(valueOperations).setIfAbsent(anyString(), anyString(), any(Duration.class));
+        verify(hotScreeningDetector).recordLockFailure(1L);
     }
 
     @Test
@@ -65,8 +86,127 @@ class DistributedLockManagerTest {
 
         Supplier<String> operation = () -> "success";
 
-        // When & Then
-        assertThrows(BookingException.class,
-                () -> lockManager.executeWithLock(1L, operation));
+        // When - un guasto di Redis non è contesa: la prenotazione prosegue con il lock locale
+        String result = lockManager.executeWithLock(1L, operation);
+
+        // Then
+        assertEquals("success", result);
+        assertEquals(1, stageCount("lock.acquire", "local"));
+        verify(hotScreeningDetector, never()).recordLockFailure(anyLong());
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), anyString());
+    }
+
+    @Test
+    void testCircuitOpensAfterConsecutiveFailuresAndSkipsRedis() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        // When - tre errori aprono il circuito, le prenotazioni seguenti non chiamano Redis
+        for (int i = 0; i < 5; i++) {
+            assertEquals("success", lockManager.executeWithLock(1L, () -> "success"));
+        }
+
+        // Then
+        assertEquals(LockCircuitBreaker.Mode.LOCAL, circuitBreaker.mode());
+        verify(valueOperations, times(3)).setIfAbsent(anyString(), anyString(), any(Duration.class));
+        assertEquals(5, stageCount("lock.acquire", "local"));
+    }
+
+    @Test
+    void testProbeClosesCircuitWhenRedisRecovers() {
+        // Given - circuito aperto
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordFailure(new RedisConnectionFailureException("connection refused"));
+        }
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn("PONG");
+
+        // When
+        lockManager.probeRedis();
+
+        // Then
+        assertEquals(LockCircuitBreaker.Mode.REDIS, circuitBreaker.mode());
+    }
+
+    @Test
+    void testProbeSkippedWhileCircuitIsClosed() {
+        // When
+        lockManager.probeRedis();
+
+        // Then
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void testLocalLockRejectsConcurrentBookingOnSameScreening() throws Exception {
+        // Given - circuito aperto e una prenotazione in corso sulla proiezione 1
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordFailure(new RedisConnectionFailureException("connection refused"));
+        }
+        var holding = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var first = executor.submit(() -> lockManager.executeWithLock(1L, () -> {
+                holding.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }));
+            assertTrue(holding.await(2, TimeUnit.SECONDS));
+
+            // When & Then - la seconda trova il lock occupato
+            var exception = assertThrows(BookingException.class,
+                    () -> lockManager.executeWithLock(1L, () -> "success"));
+            assertEquals("Sistema occupato, riprova tra poco", exception.getMessage());
+            verify(hotScreeningDetector).recordLockFailure(1L);
+
+            release.countDown();
+            assertTrue(first.get(2, TimeUnit.SECONDS));
+        }
+        assertEquals("success", lockManager.executeWithLock(1L, () -> "success"));
+    }
+
+    @Test
+    void testLockStagesAreTimedByOutcome() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenReturn(true, false);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyString())).thenReturn(1L);
+
+        // When - la seconda prenotazione trova il lock occupato
+        lockManager.executeWithLock(1L, () -> "success");
+        assertThrows(BookingException.class, () -> lockManager.executeWithLock(1L, () -> "success"));
+
+        // Then
+        assertEquals(1, stageCount("lock.acquire", "success"));
+        assertEquals(1, stageCount("lock.acquire", "busy"));
+        assertEquals(1, stageCount("lock.release", "success"));
+        assertEquals(1, meterRegistry.get("cinema.booking.lock.held").timer().count());
+    }
+
+    @Test
+    void testExpiredLockIsReportedOnRelease() {
+        // Given - la chiave non contiene più il nostro token
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyString())).thenReturn(0L);
+
+        // When
+        lockManager.executeWithLock(1L, () -> "success");
+
+        // Then
+        assertEquals(1, stageCount("lock.release", "expired"));
+    }
+
+    private long stageCount(String stage, String outcome) {
+        return meterRegistry.get("cinema.booking.stage")
+                .tag("stage", stage).tag("outcome", outcome)
+                .timer().count();
     }
 }
@@ -0,0 +1,81 @@
+package com.cinema.movie.service.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockCircuitBreakerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LockCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new LockCircuitBreaker(
+                new BookingLockProperties(3, Duration.ofSeconds(5), Duration.ofMillis(50), 16), meterRegistry);
+    }
+
+    @Test
+    void testSuccessResetsConsecutiveFailures() {
+        // When - gli errori non sono consecutivi
+        circuitBreaker.recordFailure(failure());
+        circuitBreaker.recordFailure(failure());
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure(failure());
+        circuitBreaker.recordFailure(failure());
+
+        // Then
+        assertTrue(circuitBreaker.allowsRedis());
+        assertEquals(0, meterRegistry.get("cinema.booking.lock.degraded").gauge().value());
+    }
+
+    @Test
+    void testModeChangesAreExported() {
+        // When
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordFailure(failure());
+        }
+
+        // Then
+        assertEquals(LockCircuitBreaker.Mode.LOCAL, circuitBreaker.mode());
+        assertEquals(1, meterRegistry.get("cinema.booking.lock.degraded").gauge().value());
+        assertEquals(1, meterRegistry.get("cinema.booking.lock.mode.changes").tag("mode", "local").counter().count());
+
+        // When - Redis torna disponibile
+        circuitBreaker.recordSuccess();
+
+        // Then
+        assertEquals(LockCircuitBreaker.Mode.REDIS, circuitBreaker.mode());
+        assertEquals(1, meterRegistry.get("cinema.booking.lock.mode.changes").tag("mode", "redis").counter().count());
+    }
+
+    @Test
+    void testHealthIsDegradedWithLocalLocks() {
+        // Given
+        var healthIndicator = new BookingLockHealthIndicator(circuitBreaker);
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordFailure(failure());
+        }
+
+        // When
+        Health health = healthIndicator.health();
+
+        // Then
+        assertEquals(BookingLockHealthIndicator.DEGRADED, health.getStatus());
+        assertEquals("local", health.getDetails().get("mode"));
+        assertEquals("RedisConnectionFailureException: connection refused", health.getDetails().get("lastFailure"));
+    }
+
+    private static RedisConnectionFailureException failure() {
+        return new RedisConnectionFailureException("connection refused");
+    }
+}
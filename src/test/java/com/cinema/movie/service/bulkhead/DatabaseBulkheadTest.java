@@ -0,0 +1,152 @@
+package com.cinema.movie.service.bulkhead;
+
+import com.cinema.movie.exception.ServiceOverloadedException;
+import com.cinema.movie.service.bulkhead.DatabaseBulkhead.Lane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseBulkheadTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DatabaseBulkhead bulkhead;
+    private ExecutorService executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 3 connessioni, 1 riservata alle scritture: al massimo 2 letture insieme
+        bulkhead = new DatabaseBulkhead(properties(true, 3, 1), meterRegistry);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testReadsCannotTakeReservedWritePermit() throws Exception {
+        // Given - la corsia di lettura è piena
+        hold(Lane.READ, 2);
+
+        // When & Then - una terza lettura va in timeout, la prenotazione entra
+        assertThrows(ServiceOverloadedException.class, () -> bulkhead.execute(Lane.READ, () -> "read"));
+        assertEquals("write", bulkhead.execute(Lane.WRITE, () -> "write"));
+        assertEquals(1, meterRegistry.get("cinema.db.bulkhead.wait")
+                .tags("lane", "read", "outcome", "rejected").timer().count());
+    }
+
+    @Test
+    void testWritesFailFastWhenAllConnectionsAreBusy() throws Exception {
+        // Given
+        hold(Lane.WRITE, 3);
+
+        // When
+        var exception = assertThrows(ServiceOverloadedException.class,
+                () -> bulkhead.execute(Lane.WRITE, () -> "write"));
+
+        // Then
+        assertEquals(Duration.ofSeconds(1), exception.getRetryAfter());
+        assertEquals(0, bulkhead.availablePermits());
+        assertEquals(0, bulkhead.queued(Lane.WRITE));
+    }
+
+    @Test
+    void testQueuedCallersAreExported() throws Exception {
+        // Given - tutte le connessioni occupate e una prenotazione in attesa
+        meterRegistry = new SimpleMeterRegistry();
+        bulkhead = new DatabaseBulkhead(new DatabaseBulkheadProperties(true, 3, 1,
+                Duration.ofSeconds(5), Duration.ofMillis(50), Duration.ofSeconds(1)), meterRegistry);
+        hold(Lane.WRITE, 3);
+        var waiting = executor.submit(() -> bulkhead.execute(Lane.WRITE, () -> "write"));
+
+        // When
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (bulkhead.queued(Lane.WRITE) == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // Then
+        assertEquals(1, meterRegistry.get("cinema.db.bulkhead.queued").tag("lane", "write").gauge().value());
+        release.countDown();
+        assertEquals("write", waiting.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testNestedCallsReuseThePermit() {
+        // When - la lettura annidata non chiede un secondo permesso
+        String result = bulkhead.execute(Lane.WRITE, () -> {
+            assertEquals(2, bulkhead.availablePermits());
+            return bulkhead.execute(Lane.READ, () -> "nested");
+        });
+
+        // Then
+        assertEquals("nested", result);
+        assertEquals(3, bulkhead.availablePermits());
+    }
+
+    @Test
+    void testPermitsReleasedOnFailure() {
+        // When
+        assertThrows(IllegalStateException.class, () -> bulkhead.execute(Lane.READ, () -> {
+            throw new IllegalStateException("query fallita");
+        }));
+
+        // Then - la corsia di lettura è di nuovo libera
+        assertEquals(3, bulkhead.availablePermits());
+        assertEquals("a", bulkhead.execute(Lane.READ, () -> "a"));
+        assertEquals("b", bulkhead.execute(Lane.READ, () -> "b"));
+    }
+
+    @Test
+    void testDisabledBulkheadDoesNotLimit() throws Exception {
+        // Given
+        bulkhead = new DatabaseBulkhead(properties(false, 3, 1), meterRegistry);
+        hold(Lane.WRITE, 3);
+
+        // When & Then
+        assertEquals("write", bulkhead.execute(Lane.WRITE, () -> "write"));
+    }
+
+    @Test
+    void testReservationMustLeaveRoomForReads() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DatabaseBulkhead(properties(true, 3, 3), new SimpleMeterRegistry()));
+    }
+
+    /**
+     * Occupa count permessi della corsia fino alla fine del test.
+     */
+    private void hold(Lane lane, int count) throws InterruptedException {
+        CountDownLatch acquired = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            executor.submit(() -> bulkhead.execute(lane, () -> {
+                acquired.countDown();
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }));
+        }
+        assertTrue(acquired.await(2, TimeUnit.SECONDS));
+    }
+
+    private static DatabaseBulkheadProperties properties(boolean enabled, int permits, int writeReserved) {
+        return new DatabaseBulkheadProperties(enabled, permits, writeReserved,
+                Duration.ofMillis(100), Duration.ofMillis(50), Duration.ofSeconds(1));
+    }
+}
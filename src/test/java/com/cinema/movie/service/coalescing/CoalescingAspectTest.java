@@ -0,0 +1,67 @@
+package com.cinema.movie.service.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogReader reader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        var factory = new AspectJProxyFactory(new CatalogReader());
+        factory.addAspect(new CoalescingAspect(new RequestCoalescer(meterRegistry)));
+        reader = factory.getProxy();
+    }
+
+    @Test
+    void testAnnotatedMethodIsCoalescedByClassAndMethod() {
+        // When
+        assertEquals("film-1", reader.movie(1L));
+
+        // Then
+        assertEquals(1.0, meterRegistry.get("cinema.coalescing.calls")
+                .tags("operation", "CatalogReader.movie", "outcome", "executed")
+                .counter().count());
+    }
+
+    @Test
+    void testMethodWithoutAnnotationIsNotIntercepted() {
+        // When
+        reader.count();
+
+        // Then
+        assertNull(meterRegistry.find("cinema.coalescing.calls").counter());
+    }
+
+    @Test
+    void testExceptionReachesCallerUnwrapped() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> reader.movie(-1L));
+    }
+
+    static class CatalogReader {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Coalesced
+        public String movie(Long id) {
+            if (id < 0) {
+                throw new IllegalArgumentException("id non valido");
+            }
+            return "film-" + id;
+        }
+
+        public int count() {
+            return calls.incrementAndGet();
+        }
+    }
+}
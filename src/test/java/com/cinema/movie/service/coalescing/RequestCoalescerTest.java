@@ -0,0 +1,145 @@
+package com.cinema.movie.service.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 50;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(meterRegistry);
+    }
+
+    @Test
+    void testConcurrentIdenticalCallsShareOneExecution() throws Exception {
+        // Given - il leader resta bloccato finché tutti gli altri non sono in attesa
+        var release = new CountDownLatch(1);
+        var executions = new AtomicInteger();
+
+        // When
+        List<String> results = runConcurrently(() -> coalescer.execute("movie", List.of(1L), () -> {
+            executions.incrementAndGet();
+            await(release);
+            return "Avatar";
+        }), release);
+
+        // Then
+        assertEquals(1, executions.get());
+        assertTrue(results.stream().allMatch("Avatar"::equals));
+        assertEquals(1.0, count("executed"));
+        assertEquals(CALLERS - 1.0, count("collapsed"));
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void testDifferentArgumentsAreNotCoalesced() {
+        // When
+        String first = coalescer.execute("movie", List.of(1L), () -> "Avatar");
+        String second = coalescer.execute("movie", List.of(2L), () -> "Matrix");
+
+        // Then
+        assertEquals("Avatar", first);
+        assertEquals("Matrix", second);
+        assertEquals(2.0, count("executed"));
+    }
+
+    @Test
+    void testSequentialCallsExecuteAgain() {
+        // Given
+        var executions = new AtomicInteger();
+
+        // When - nessuna cache: la chiave sparisce a lettura completata
+        coalescer.execute("movie", List.of(1L), executions::incrementAndGet);
+        coalescer.execute("movie", List.of(1L), executions::incrementAndGet);
+
+        // Then
+        assertEquals(2, executions.get());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void testFailureIsPropagatedToAllCallers() throws Exception {
+        // Given
+        var release = new CountDownLatch(1);
+
+        // When
+        List<String> results = runConcurrently(() -> {
+            try {
+                return coalescer.execute("movie", List.of(1L), () -> {
+                    await(release);
+                    throw new IllegalStateException("database non disponibile");
+                });
+            } catch (IllegalStateException e) {
+                return e.getMessage();
+            }
+        }, release);
+
+        // Then - stessa eccezione per tutti e chiave rimossa
+        assertTrue(results.stream().allMatch("database non disponibile"::equals));
+        assertEquals(0, coalescer.inFlightCount());
+        assertEquals("ok", coalescer.execute("movie", List.of(1L), () -> "ok"));
+    }
+
+    /**
+     * Avvia i chiamanti su virtual thread e sblocca il leader quando tutti sono in volo.
+     */
+    private List<String> runConcurrently(java.util.concurrent.Callable<String> call,
+                                         CountDownLatch release) throws Exception {
+        var started = new CountDownLatch(CALLERS);
+        List<Future<String>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    started.countDown();
+                    return call.call();
+                }));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // I follower si sono agganciati al future del leader prima del rilascio
+            while (count("collapsed") + count("executed") < CALLERS) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            List<String> results = new ArrayList<>();
+            for (Future<String> future : futures) {
+                results.add(future.get(5, TimeUnit.SECONDS));
+            }
+            return results;
+        }
+    }
+
+    private double count(String outcome) {
+        var counter = meterRegistry.find("cinema.coalescing.calls")
+                .tags("operation", "movie", "outcome", outcome)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
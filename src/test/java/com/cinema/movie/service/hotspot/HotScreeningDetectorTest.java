@@ -0,0 +1,99 @@
+package com.cinema.movie.service.hotspot;
+
+import com.cinema.movie.event.HotScreeningEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotScreeningDetectorTest {
+
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    private HotScreeningDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new HotScreeningDetector(new HotScreeningProperties(8, 10, Duration.ofSeconds(10)), eventPublisher);
+    }
+
+    @Test
+    void testContendedScreeningBecomesHot() {
+        // Given
+        record(1L, 40, 12);
+        record(2L, 5, 1);
+
+        // When
+        detector.evaluate();
+
+        // Then
+        assertTrue(detector.isHot(1L));
+        assertFalse(detector.isHot(2L));
+        verify(eventPublisher).publishEvent(HotScreeningEvent.heated(1L, 40, 12));
+    }
+
+    @Test
+    void testHotScreeningIsAnnouncedOnce() {
+        // Given
+        record(1L, 20, 20);
+        detector.evaluate();
+
+        // When - ancora sopra soglia dopo il decadimento
+        record(1L, 20, 10);
+        detector.evaluate();
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(HotScreeningEvent.class));
+    }
+
+    @Test
+    void testScreeningCoolsDownWhenContentionStops() {
+        // Given
+        record(1L, 20, 12);
+        detector.evaluate();
+
+        // When - 12 -> 6 -> 3: sotto metà soglia al secondo intervallo
+        detector.evaluate();
+        detector.evaluate();
+
+        // Then
+        assertFalse(detector.isHot(1L));
+        verify(eventPublisher).publishEvent(HotScreeningEvent.cooled(1L, 5, 3));
+    }
+
+    @Test
+    void testReportListsTopScreenings() {
+        // Given
+        record(1L, 30, 0);
+        record(2L, 50, 15);
+        detector.evaluate();
+
+        // When
+        HotScreeningDetector.Report report = detector.report();
+
+        // Then - contatori già dimezzati dopo la valutazione
+        assertEquals(List.of(2L, 1L), report.requests().stream().map(HotScreeningDetector.ScreeningHits::screeningId).toList());
+        assertEquals(7, report.lockFailures().getFirst().count());
+        assertEquals(Set.of(2L), report.hot());
+    }
+
+    private void record(Long screeningId, int requests, int lockFailures) {
+        for (int i = 0; i < requests; i++) {
+            detector.recordRequest(screeningId);
+        }
+        for (int i = 0; i < lockFailures; i++) {
+            detector.recordLockFailure(screeningId);
+        }
+    }
+}
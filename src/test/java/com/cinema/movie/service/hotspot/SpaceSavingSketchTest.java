@@ -0,0 +1,96 @@
+package com.cinema.movie.service.hotspot;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void testExactCountsWithinCapacity() {
+        // Given
+        var sketch = new SpaceSavingSketch(4);
+
+        // When
+        sketch.offer(1, 5);
+        sketch.offer(2, 3);
+        sketch.offer(1, 2);
+
+        // Then
+        assertEquals(List.of(new SpaceSavingSketch.Entry(1, 7, 0), new SpaceSavingSketch.Entry(2, 3, 0)),
+                sketch.top(10));
+    }
+
+    @Test
+    void testHeavyHitterSurvivesLongTail() {
+        // Given - 3 contatori, una proiezione calda tra mille occasionali
+        var sketch = new SpaceSavingSketch(3);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            sketch.offer(42, 1);
+            sketch.offer(1000 + i, 1);
+        }
+
+        // Then - frequenza reale 1000, stima con errore dichiarato
+        SpaceSavingSketch.Entry top = sketch.top(1).getFirst();
+        assertEquals(42, top.key());
+        assertTrue(top.count() >= 1000);
+        assertTrue(top.count() - top.error() <= 1000);
+    }
+
+    @Test
+    void testNewKeyInheritsMinimumAsError() {
+        // Given
+        var sketch = new SpaceSavingSketch(2);
+        sketch.offer(1, 10);
+        sketch.offer(2, 4);
+
+        // When
+        sketch.offer(3, 1);
+
+        // Then - 3 prende il posto di 2
+        assertEquals(5, sketch.estimate(3));
+        assertEquals(0, sketch.estimate(2));
+        assertEquals(new SpaceSavingSketch.Entry(3, 5, 4), sketch.top(2).get(1));
+    }
+
+    @Test
+    void testDecayHalvesAndFreesSlots() {
+        // Given
+        var sketch = new SpaceSavingSketch(2);
+        sketch.offer(1, 10);
+        sketch.offer(2, 1);
+
+        // When
+        sketch.decay();
+
+        // Then
+        assertEquals(5, sketch.estimate(1));
+        assertEquals(List.of(new SpaceSavingSketch.Entry(1, 5, 0)), sketch.top(10));
+    }
+
+    @Test
+    void testOfferDoesNotAllocate() {
+        // Given
+        var sketch = new SpaceSavingSketch(64);
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 100_000; i++) {
+            sketch.offer(i % 200, 1);
+        }
+        long threadId = Thread.currentThread().threadId();
+
+        // When
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            sketch.offer(i % 200, 1);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Then - tolleranza per la misura stessa
+        assertTrue(allocated < 1024, () -> allocated + " byte allocati");
+    }
+}
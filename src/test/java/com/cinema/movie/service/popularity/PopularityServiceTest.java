@@ -0,0 +1,148 @@
+package com.cinema.movie.service.popularity;
+
+import com.cinema.movie.entity.BookingStatus;
+import com.cinema.movie.event.BookingEvent;
+import com.cinema.movie.repository.BookingConfirmation;
+import com.cinema.movie.repository.BookingRepository;
+import com.cinema.movie.repository.MovieBookingCount;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PopularityServiceTest {
+
+    @Mock private BookingRepository bookingRepository;
+    @InjectMocks private PopularityService popularityService;
+
+    @Test
+    void testConfirmationsAndCancellations() {
+        // Given
+        var now = LocalDateTime.now();
+        popularityService.onBookingEvent(event(1L, "Avatar", BookingStatus.CONFIRMED, now));
+        popularityService.onBookingEvent(event(1L, "Avatar", BookingStatus.CONFIRMED, now));
+        popularityService.onBookingEvent(event(2L, "Matrix", BookingStatus.CONFIRMED, now));
+        popularityService.onBookingEvent(event(2L, "Matrix", BookingStatus.CANCELLED, now));
+
+        // When
+        var result = popularityService.topMovies(PopularityWindow.HOUR, 10);
+
+        // Then - Matrix torna a zero e sparisce dalla classifica
+        assertEquals(1, result.size());
+        assertEquals("Avatar", result.getFirst().title());
+        assertEquals(2, result.getFirst().confirmedBookings());
+    }
+
+    @Test
+    void testLimitIsClamped() {
+        // Given
+        var now = LocalDateTime.now();
+        popularityService.onBookingEvent(event(1L, "Avatar", BookingStatus.CONFIRMED, now));
+        popularityService.onBookingEvent(event(2L, "Matrix", BookingStatus.CONFIRMED, now));
+
+        // When & Then - limite negativo: almeno un film, nessun errore
+        assertEquals(1, popularityService.topMovies(PopularityWindow.HOUR, -1).size());
+        assertEquals(2, popularityService.topMovies(PopularityWindow.HOUR, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    void testWindowsSeparateOldConfirmations() {
+        // Given
+        var now = LocalDateTime.now();
+        popularityService.onBookingEvent(event(1L, "Avatar", BookingStatus.CONFIRMED, now.minusHours(3)));
+
+        // When & Then
+        assertTrue(popularityService.topMovies(PopularityWindow.HOUR, 10).isEmpty());
+        assertEquals(1, popularityService.topMovies(PopularityWindow.DAY, 10).getFirst().confirmedBookings());
+    }
+
+    @Test
+    void testPendingCancellationIsIgnored() {
+        // Given - cancellata prima della conferma
+        var event = new BookingEvent(1L, 1L, 1L, "Avatar", LocalDateTime.now(), 1L, "test@email.com",
+                2, new BigDecimal("20.00"), BookingStatus.CANCELLED, LocalDateTime.now(), null);
+
+        // When
+        popularityService.onBookingEvent(event);
+
+        // Then
+        assertTrue(popularityService.topMovies(PopularityWindow.ALL_TIME, 10).isEmpty());
+    }
+
+    @Test
+    void testRebuildFromDatabase() {
+        // Given
+        var now = LocalDateTime.now();
+        when(bookingRepository.countConfirmedByMovie()).thenReturn(List.of(count(1L, "Avatar", 500L)));
+        when(bookingRepository.findConfirmationsSince(any(LocalDateTime.class)))
+                .thenReturn(List.of(confirmation(1L, now.minusMinutes(5))));
+
+        // When
+        popularityService.rebuild();
+
+        // Then
+        assertEquals(500, popularityService.topMovies(PopularityWindow.ALL_TIME, 10).getFirst().confirmedBookings());
+        assertEquals(1, popularityService.topMovies(PopularityWindow.HOUR, 10).getFirst().confirmedBookings());
+    }
+
+    @Test
+    void testEventsDuringRebuildAreReplayed() {
+        // Given - una conferma arriva dopo la lettura dei totali, prima della sostituzione
+        var now = LocalDateTime.now();
+        when(bookingRepository.countConfirmedByMovie()).thenReturn(List.of(count(1L, "Avatar", 500L)));
+        when(bookingRepository.findConfirmationsSince(any(LocalDateTime.class))).thenAnswer(invocation -> {
+            popularityService.onBookingEvent(event(1L, "Avatar", BookingStatus.CONFIRMED, now));
+            return List.of();
+        });
+
+        // When
+        popularityService.rebuild();
+
+        // Then
+        assertEquals(501, popularityService.topMovies(PopularityWindow.ALL_TIME, 10).getFirst().confirmedBookings());
+        assertEquals(1, popularityService.topMovies(PopularityWindow.HOUR, 10).getFirst().confirmedBookings());
+    }
+
+    @Test
+    void testFailedRebuildKeepsCounters() {
+        // Given
+        popularityService.onBookingEvent(event(1L, "Avatar", BookingStatus.CONFIRMED, LocalDateTime.now()));
+        when(bookingRepository.countConfirmedByMovie()).thenThrow(new RuntimeException("db down"));
+
+        // When
+        popularityService.rebuild();
+
+        // Then
+        assertEquals(1, popularityService.topMovies(PopularityWindow.ALL_TIME, 10).getFirst().confirmedBookings());
+    }
+
+    private BookingEvent event(Long movieId, String title, BookingStatus status, LocalDateTime confirmedAt) {
+        return new BookingEvent(1L, 1L, movieId, title, confirmedAt.plusDays(1), 1L, "test@email.com",
+                2, new BigDecimal("20.00"), status, confirmedAt, confirmedAt);
+    }
+
+    private MovieBookingCount count(Long movieId, String title, Long bookings) {
+        return new MovieBookingCount() {
+            @Override public Long getMovieId() { return movieId; }
+            @Override public String getTitle() { return title; }
+            @Override public Long getBookings() { return bookings; }
+        };
+    }
+
+    private BookingConfirmation confirmation(Long movieId, LocalDateTime confirmedAt) {
+        return new BookingConfirmation() {
+            @Override public Long getMovieId() { return movieId; }
+            @Override public LocalDateTime getConfirmedAt() { return confirmedAt; }
+        };
+    }
+}
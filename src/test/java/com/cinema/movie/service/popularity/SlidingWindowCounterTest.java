@@ -0,0 +1,52 @@
+package com.cinema.movie.service.popularity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 30);
+
+    @Test
+    void testSumWithinWindow() {
+        // Given
+        var counter = new SlidingWindowCounter(60, Duration.ofMinutes(1));
+        counter.add(NOW, NOW, 2);
+        counter.add(NOW.minusMinutes(10), NOW, 3);
+
+        // When & Then
+        assertEquals(5, counter.sum(NOW, 60));
+        assertEquals(2, counter.sum(NOW, 5));
+    }
+
+    @Test
+    void testExpiredBucketsAreIgnoredAndReused() {
+        // Given
+        var counter = new SlidingWindowCounter(60, Duration.ofMinutes(1));
+        counter.add(NOW, NOW, 4);
+
+        // When - un'ora dopo lo stesso slot dell'anello viene riusato
+        var later = NOW.plusMinutes(60);
+        counter.add(later, later, 1);
+
+        // Then
+        assertEquals(1, counter.sum(later, 60));
+    }
+
+    @Test
+    void testEventsOutsideWindowAreDropped() {
+        // Given
+        var counter = new SlidingWindowCounter(24, Duration.ofHours(1));
+
+        // When
+        counter.add(NOW.minusDays(2), NOW, 10);
+        counter.add(NOW.plusHours(1), NOW, 10);
+
+        // Then
+        assertEquals(0, counter.sum(NOW, 24));
+    }
+}
@@ -0,0 +1,245 @@
+package com.cinema.movie.service.schedule;
+
+import com.cinema.movie.dto.MovieSummaryResponse;
+import com.cinema.movie.event.ScheduleChangedEvent;
+import com.cinema.movie.event.ScheduleChangedEvent.SeatChange;
+import com.cinema.movie.repository.MovieAvailabilitySummary;
+import com.cinema.movie.repository.MovieRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieSummaryServiceTest {
+
+    private static final LocalDateTime TOMORROW = LocalDateTime.now().plusDays(1);
+
+    @Mock private MovieRepository movieRepository;
+    @InjectMocks private MovieSummaryService summaryService;
+
+    @Test
+    void testAvailableBeforeLoadFallsBack() {
+        // When & Then - read model vuoto: il service deve usare la query aggregata
+        assertTrue(summaryService.available().isEmpty());
+    }
+
+    @Test
+    void testReloadReconcilesFromDatabase() {
+        // Given
+        when(movieRepository.findAvailabilitySummaries(any(LocalDateTime.class)))
+                .thenReturn(List.of(summary(2L, "Matrix", 50), summary(1L, "Avatar", 50)));
+
+        // When
+        summaryService.onScheduleChanged(ScheduleChangedEvent.reloaded());
+
+        // Then - ordinati per titolo
+        List<MovieSummaryResponse> result = summaryService.available().orElseThrow();
+        assertEquals(List.of("Avatar", "Matrix"), result.stream().map(MovieSummaryResponse::title).toList());
+    }
+
+    @Test
+    void testBookingRereadsSummaryFromDatabase() {
+        // Given
+        when(movieRepository.findAvailabilitySummaries(any(LocalDateTime.class)))
+                .thenReturn(List.of(summary(1L, "Avatar", 50)));
+        summaryService.reconcile();
+        when(movieRepository.findAvailabilitySummary(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(summary(1L, "Avatar", 43)));
+
+        // When
+        summaryService.onScheduleChanged(ScheduleChangedEvent.movies(Set.of(1L)));
+
+        // Then - solo il film coinvolto, dal database
+        MovieSummaryResponse result = summaryService.available().orElseThrow().getFirst();
+        assertEquals(43, result.seatsLeft());
+        assertEquals("Action", result.genre());
+        verify(movieRepository, times(1)).findAvailabilitySummaries(any(LocalDateTime.class));
+    }
+
+    @Test
+    void testSeatChangeIsAppliedWithoutQuery() {
+        // Given
+        when(movieRepository.findAvailabilitySummaries(any(LocalDateTime.class)))
+                .thenReturn(List.of(summary(1L, "Avatar", 50)));
+        summaryService.reconcile();
+
+        // When
+        summaryService.onScheduleChanged(ScheduleChangedEvent.seats(List.of(seatChange(TOMORROW, "10.00", 50, 43))));
+
+        // Then - differenza applicata al riepilogo, nessuna lettura del film
+        MovieSummaryResponse result = summaryService.available().orElseThrow().getFirst();
+        assertEquals(43, result.seatsLeft());
+        assertEquals(1, result.bookableScreenings());
+        verify(movieRepository, never()).findAvailabilitySummary(any(), any());
+    }
+
+    @Test
+    void testLastScreeningSoldOutRemovesMovieWithoutQuery() {
+        // Given
+        when(movieRepository.findAvailabilitySummaries(any(LocalDateTime.class)))
+                .thenReturn(List.of(summary(1L, "Avatar", 50)));
+        summaryService.reconcile();
+
+        // When
+        summaryService.onScheduleChanged(ScheduleChangedEvent.seats(List.of(seatChange(TOMORROW, "10.00", 50, 0))));
+
+        // Then
+        assertEquals(List.of(), summaryService.available().orElseThrow());
+        verify(movieRepository, never()).findAvailabilitySummary(any(), any());
+    }
+
+    @Test
+    void testReopenedScreeningUpdatesNextStartAndMinPrice() {
+        // Given
+        when(movieRepository.findAvailabilitySummaries(any(LocalDateTime.class)))
+                .thenReturn(List.of(summary(1L, "Avatar", 50)));
+        summaryService.reconcile();
+
+        // When - una cancellazione libera posti in una proiezione esaurita, prima e più economica
+        summaryService.onScheduleChanged(ScheduleChangedEvent.seats(List.of(
+                seatChange(TOMORROW.minusHours(2), "8.00", 0, 3))));
+
+        // Then
+        MovieSummaryResponse result = summaryService.available().orElseThrow().getFirst();
+        assertEquals(53, result.seatsLeft());
+        assertEquals(2, result.bookableScreenings());
+        assertEquals(TOMORROW.minusHours(2), result.nextStartTime());
+        assertEquals(new BigDecimal("8.00"), result.minPrice());
+        verify(movieRepository, never()).findAvailabilitySummary(any(), any());
+    }
+
+    @Test
+    void testNextScreeningSoldOutRereadsFromDatabase() {
+        // Given - due proiezioni: esaurisce quella del prossimo spettacolo
+        when(movieRepository.findAvailabilitySummaries(any(LocalDateTime.class)))
+                .thenReturn(List.of(summary(1L, "Avatar", 50, 2)));
+        summaryService.reconcile();
+        when(movieRepository.findAvailabilitySummary(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(summary(1L, "Avatar", 20)));
+
+        // When
+        summaryService.onScheduleChanged(ScheduleChangedEvent.seats(List.of(seatChange(TOMORROW, "10.00", 30, 0))));
+
+        // Then - la differenza non basta a sapere il nuovo prossimo spettacolo
+        assertEquals(20, summaryService.available().orElseThrow().getFirst().seatsLeft());
+        verify(movieRepository).findAvailabilitySummary(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testChangesDuringReconcileAreReplayed() {
+        // Given - la prenotazione arriva mentre la riconciliazione legge uno snapshot precedente
+        when(movieRepository.findAvailabilitySummaries(any(LocalDateTime.class)))
+                .thenReturn(List.of(summary(1L, "Avatar", 50)))
+                .thenAnswer(invocation -> {
+                    summaryService.onScheduleChanged(ScheduleChangedEvent.seats(
+                            List.of(seatChange(TOMORROW, "10.00", 50, 43))));
+                    return List.of(summary(1L, "Avatar", 50));
+                });
+        summaryService.reconcile();
+        when(movieRepository.findAvailabilitySummary(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(summary(1L, "Avatar", 43)));
+
+        // When
+        summaryService.reconcile();
+
+        // Then - il film cambiato viene riletto dopo la sostituzione
+        assertEquals(43, summaryService.available().orElseThrow().getFirst().seatsLeft());
+    }
+
+    @Test
+    void testSoldOutMovieIsRemoved() {
+        // Given
+        when(movieRepository.findAvailabilitySummaries(any(LocalDateTime.class)))
+                .thenReturn(List.of(summary(1L, "Avatar", 50)));
+        summaryService.reconcile();
+        when(movieRepository.findAvailabilitySummary(eq(1L), any(LocalDateTime.class))).thenReturn(Optional.empty());
+
+        // When
+        summaryService.onScheduleChanged(ScheduleChangedEvent.movies(Set.of(1L)));
+
+        // Then
+        assertEquals(List.of(), summaryService.available().orElseThrow());
+    }
+
+    @Test
+    void testNewlyBookableMovieIsAdded() {
+        // Given
+        when(movieRepository.findAvailabilitySummaries(any(LocalDateTime.class))).thenReturn(List.of());
+        summaryService.reconcile();
+        when(movieRepository.findAvailabilitySummary(eq(3L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(summary(3L, "Dune", 100)));
+
+        // When
+        summaryService.onScheduleChanged(ScheduleChangedEvent.movies(Set.of(3L)));
+
+        // Then
+        MovieSummaryResponse result = summaryService.available().orElseThrow().getFirst();
+        assertEquals("Dune", result.title());
+        assertEquals(100, result.seatsLeft());
+    }
+
+    @Test
+    void testRecomputeErrorKeepsPreviousSummary() {
+        // Given
+        when(movieRepository.findAvailabilitySummaries(any(LocalDateTime.class)))
+                .thenReturn(List.of(summary(1L, "Avatar", 50)));
+        summaryService.reconcile();
+        when(movieRepository.findAvailabilitySummary(eq(1L), any(LocalDateTime.class)))
+                .thenThrow(new RuntimeException("Database non raggiungibile"));
+
+        // When
+        summaryService.onScheduleChanged(ScheduleChangedEvent.movies(Set.of(1L)));
+
+        // Then
+        assertEquals(50, summaryService.available().orElseThrow().getFirst().seatsLeft());
+    }
+
+    @Test
+    void testReconcileErrorKeepsPreviousModel() {
+        // Given
+        when(movieRepository.findAvailabilitySummaries(any(LocalDateTime.class)))
+                .thenReturn(List.of(summary(1L, "Avatar", 50)))
+                .thenThrow(new RuntimeException("Database non raggiungibile"));
+        summaryService.reconcile();
+
+        // When
+        summaryService.reconcile();
+
+        // Then
+        assertEquals(1, summaryService.available().orElseThrow().size());
+    }
+
+    private static SeatChange seatChange(LocalDateTime startTime, String price, int previousSeats, int availableSeats) {
+        return new SeatChange(10L, 1L, startTime, new BigDecimal(price), previousSeats, availableSeats);
+    }
+
+    private MovieAvailabilitySummary summary(Long movieId, String title, long seatsLeft) {
+        return summary(movieId, title, seatsLeft, 1);
+    }
+
+    private MovieAvailabilitySummary summary(Long movieId, String title, long seatsLeft, long screenings) {
+        return new MovieAvailabilitySummary() {
+            @Override public Long getMovieId() { return movieId; }
+            @Override public String getTitle() { return title; }
+            @Override public String getGenre() { return "Action"; }
+            @Override public Integer getDuration() { return 120; }
+            @Override public LocalDateTime getNextStartTime() { return TOMORROW; }
+            @Override public Long getBookableScreenings() { return screenings; }
+            @Override public BigDecimal getMinPrice() { return new BigDecimal("10.00"); }
+            @Override public Long getSeatsLeft() { return seatsLeft; }
+        };
+    }
+}
@@ -0,0 +1,265 @@
+package com.cinema.movie.service.schedule;
+
+import com.cinema.movie.dto.ScreeningResponse;
+import com.cinema.movie.entity.BookingStatus;
+import com.cinema.movie.entity.Movie;
+import com.cinema.movie.entity.Screening;
+import com.cinema.movie.event.BookingEvent;
+import com.cinema.movie.event.CatalogChangedEvent;
+import com.cinema.movie.event.ScheduleChangedEvent;
+import com.cinema.movie.event.ScheduleChangedEvent.SeatChange;
+import com.cinema.movie.repository.ScreeningRepository;
+import com.cinema.movie.repository.ScreeningSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScreeningScheduleIndexTest {
+
+    private static final LocalDateTime TODAY = LocalDate.now().atStartOfDay();
+
+    @Mock private ScreeningRepository screeningRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @InjectMocks private ScreeningScheduleIndex scheduleIndex;
+
+    @Test
+    void testQueriesBeforeReloadFallBack() {
+        // When & Then - indice non caricato: il service deve usare SQL
+        assertTrue(scheduleIndex.today().isEmpty());
+        assertTrue(scheduleIndex.between(TODAY, null).isEmpty());
+    }
+
+    @Test
+    void testTodayIsSortedAndSkipsSoldOut() {
+        // Given
+        when(screeningRepository.findScheduleFrom(TODAY)).thenReturn(List.of(
+                createScreening(2L, TODAY.plusHours(21), 30),
+                createScreening(1L, TODAY.plusHours(18), 50),
+                createScreening(3L, TODAY.plusHours(20), 0),
+                createScreening(4L, TODAY.plusDays(1).plusHours(18), 50)
+        ));
+        scheduleIndex.reload();
+
+        // When
+        List<ScreeningResponse> result = scheduleIndex.today().orElseThrow();
+
+        // Then - solo oggi, ordinate per orario, senza le esaurite
+        assertEquals(List.of(1L, 2L), result.stream().map(ScreeningResponse::id).toList());
+    }
+
+    @Test
+    void testBetweenSpansDaysAndExcludesUpperBound() {
+        // Given
+        when(screeningRepository.findScheduleFrom(TODAY)).thenReturn(List.of(
+                createScreening(1L, TODAY.plusDays(1).plusHours(18), 50),
+                createScreening(2L, TODAY.plusDays(2).plusHours(18), 50),
+                createScreening(3L, TODAY.plusDays(3).plusHours(18), 50)
+        ));
+        scheduleIndex.reload();
+
+        // When
+        List<ScreeningResponse> result = scheduleIndex
+                .between(TODAY.plusDays(1), TODAY.plusDays(3).plusHours(18))
+                .orElseThrow();
+
+        // Then
+        assertEquals(List.of(1L, 2L), result.stream().map(ScreeningResponse::id).toList());
+    }
+
+    @Test
+    void testBetweenBeforeLoadedRangeFallsBack() {
+        // Given
+        when(screeningRepository.findScheduleFrom(TODAY)).thenReturn(List.of());
+        scheduleIndex.reload();
+
+        // When & Then - i giorni passati non sono in memoria
+        assertTrue(scheduleIndex.between(TODAY.minusDays(1), TODAY).isEmpty());
+    }
+
+    @Test
+    void testBookingOverlaysLiveSeats() {
+        // Given
+        when(screeningRepository.findScheduleFrom(TODAY)).thenReturn(List.of(
+                createScreening(1L, TODAY.plusHours(18), 2)));
+        scheduleIndex.reload();
+        when(screeningRepository.findAvailableSeatsById(1L)).thenReturn(Optional.of(0));
+
+        // When
+        scheduleIndex.onBookingEvent(bookingEvent(1L));
+
+        // Then - esaurita, non più elencata; l'evento porta la differenza di posti
+        assertEquals(List.of(), scheduleIndex.today().orElseThrow());
+        verify(eventPublisher).publishEvent(ScheduleChangedEvent.seats(List.of(
+                new SeatChange(1L, 1L, TODAY.plusHours(18), new BigDecimal("10.00"), 2, 0))));
+    }
+
+    @Test
+    void testReloadNotifiesReadModels() {
+        // Given
+        when(screeningRepository.findScheduleFrom(TODAY)).thenReturn(List.of(
+                createScreening(1L, TODAY.plusDays(1).plusHours(18), 50)));
+
+        // When
+        scheduleIndex.reload();
+
+        // Then
+        verify(eventPublisher).publishEvent(ScheduleChangedEvent.reloaded());
+    }
+
+    @Test
+    void testBookingOnUnknownScreeningIsIgnored() {
+        // Given
+        when(screeningRepository.findScheduleFrom(TODAY)).thenReturn(List.of());
+        scheduleIndex.reload();
+
+        // When
+        scheduleIndex.onBookingEvent(bookingEvent(99L));
+
+        // Then
+        verify(screeningRepository, never()).findAvailableSeatsById(any());
+    }
+
+    @Test
+    void testScreeningChangeMovesSlot() {
+        // Given
+        when(screeningRepository.findScheduleFrom(TODAY)).thenReturn(List.of(
+                createScreening(1L, TODAY.plusHours(18), 50)));
+        scheduleIndex.reload();
+        when(screeningRepository.findWithMovieById(1L))
+                .thenReturn(Optional.of(createScreening(1L, TODAY.plusDays(1).plusHours(18), 50)));
+        when(screeningRepository.findAvailableSeatsById(1L)).thenReturn(Optional.of(50));
+
+        // When - proiezione spostata a domani
+        scheduleIndex.onCatalogChanged(CatalogChangedEvent.screening(1L, 1L));
+
+        // Then
+        assertEquals(List.of(), scheduleIndex.today().orElseThrow());
+        assertEquals(1, scheduleIndex.between(TODAY.plusDays(1), null).orElseThrow().size());
+    }
+
+    @Test
+    void testScreeningRemoval() {
+        // Given
+        when(screeningRepository.findScheduleFrom(TODAY)).thenReturn(List.of(
+                createScreening(1L, TODAY.plusHours(18), 50)));
+        scheduleIndex.reload();
+        when(screeningRepository.findWithMovieById(1L)).thenReturn(Optional.empty());
+
+        // When
+        scheduleIndex.onCatalogChanged(CatalogChangedEvent.screening(1L, 1L));
+
+        // Then
+        assertEquals(List.of(), scheduleIndex.between(TODAY, null).orElseThrow());
+    }
+
+    @Test
+    void testInvertedRangeIsEmpty() {
+        // Given
+        when(screeningRepository.findScheduleFrom(TODAY)).thenReturn(List.of(
+                createScreening(1L, TODAY.plusHours(18), 50)));
+        scheduleIndex.reload();
+
+        // When & Then - nessuna IllegalArgumentException da subMap
+        assertEquals(List.of(), scheduleIndex.between(TODAY.plusDays(1), TODAY).orElseThrow());
+    }
+
+    @Test
+    void testReconcileAppliesSeatsBookedOnOtherNodes() {
+        // Given
+        when(screeningRepository.findScheduleFrom(TODAY)).thenReturn(List.of(
+                createScreening(1L, TODAY.plusHours(18), 50),
+                createScreening(2L, TODAY.plusHours(21), 50)));
+        scheduleIndex.reload();
+        when(screeningRepository.findScheduleSnapshotFrom(TODAY)).thenReturn(List.of(
+                snapshot(createScreening(1L, TODAY.plusHours(18), 0)),
+                snapshot(createScreening(2L, TODAY.plusHours(21), 50))));
+
+        // When
+        scheduleIndex.reconcile();
+
+        // Then - solo i posti aggiornati, senza ricaricare il palinsesto
+        assertEquals(List.of(2L), scheduleIndex.today().orElseThrow().stream().map(ScreeningResponse::id).toList());
+        verify(screeningRepository, times(1)).findScheduleFrom(TODAY);
+        verify(eventPublisher).publishEvent(ScheduleChangedEvent.seats(List.of(
+                new SeatChange(1L, 1L, TODAY.plusHours(18), new BigDecimal("10.00"), 50, 0))));
+    }
+
+    @Test
+    void testReconcileReloadsWhenScreeningsChangedElsewhere() {
+        // Given
+        when(screeningRepository.findScheduleFrom(TODAY)).thenReturn(List.of(
+                createScreening(1L, TODAY.plusHours(18), 50)));
+        scheduleIndex.reload();
+        when(screeningRepository.findScheduleSnapshotFrom(TODAY)).thenReturn(List.of(
+                snapshot(createScreening(1L, TODAY.plusHours(18), 50)),
+                snapshot(createScreening(2L, TODAY.plusHours(21), 50))));
+
+        // When - proiezione aggiunta da un altro nodo
+        scheduleIndex.reconcile();
+
+        // Then
+        verify(screeningRepository, times(2)).findScheduleFrom(TODAY);
+    }
+
+    @Test
+    void testReconcileWithoutChangesPublishesNothing() {
+        // Given
+        when(screeningRepository.findScheduleFrom(TODAY)).thenReturn(List.of(
+                createScreening(1L, TODAY.plusHours(18), 50)));
+        scheduleIndex.reload();
+        when(screeningRepository.findScheduleSnapshotFrom(TODAY)).thenReturn(List.of(
+                snapshot(createScreening(1L, TODAY.plusHours(18), 50))));
+
+        // When
+        scheduleIndex.reconcile();
+
+        // Then - solo l'evento del caricamento iniziale
+        verify(eventPublisher, times(1)).publishEvent(any(ScheduleChangedEvent.class));
+    }
+
+    private static ScreeningSnapshot snapshot(Screening screening) {
+        return new ScreeningSnapshot() {
+            public Long getId() { return screening.getId(); }
+            public Long getMovieId() { return screening.getMovie().getId(); }
+            public String getMovieTitle() { return screening.getMovie().getTitle(); }
+            public LocalDateTime getStartTime() { return screening.getStartTime(); }
+            public Integer getTotalSeats() { return screening.getTotalSeats(); }
+            public BigDecimal getPrice() { return screening.getPrice(); }
+            public Integer getAvailableSeats() { return screening.getAvailableSeats(); }
+        };
+    }
+
+    private Screening createScreening(Long id, LocalDateTime startTime, int availableSeats) {
+        var movie = new Movie();
+        movie.setId(1L);
+        movie.setTitle("Test Movie");
+
+        var screening = new Screening();
+        screening.setId(id);
+        screening.setMovie(movie);
+        screening.setStartTime(startTime);
+        screening.setTotalSeats(100);
+        screening.setAvailableSeats(availableSeats);
+        screening.setPrice(new BigDecimal("10.00"));
+        return screening;
+    }
+
+    private BookingEvent bookingEvent(Long screeningId) {
+        return new BookingEvent(10L, screeningId, 1L, "Test Movie", TODAY.plusHours(18),
+                1L, "user@example.com", 2, new BigDecimal("20.00"), BookingStatus.CONFIRMED, LocalDateTime.now(), LocalDateTime.now());
+    }
+}
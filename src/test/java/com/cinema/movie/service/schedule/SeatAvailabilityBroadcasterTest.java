@@ -0,0 +1,198 @@
+package com.cinema.movie.service.schedule;
+
+import com.cinema.movie.entity.BookingStatus;
+import com.cinema.movie.event.BookingEvent;
+import com.cinema.movie.exception.ServiceOverloadedException;
+import com.cinema.movie.repository.ScreeningRepository;
+import com.cinema.movie.repository.ScreeningSeats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatAvailabilityBroadcasterTest {
+
+    @Mock private ScreeningRepository screeningRepository;
+    @Mock private ScreeningScheduleIndex scheduleIndex;
+
+    private SeatAvailabilityBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        // Executor sincrono: consegna deterministica nei test
+        broadcaster = new SeatAvailabilityBroadcaster(screeningRepository, scheduleIndex,
+                new SeatAvailabilityProperties(2, Duration.ofSeconds(5), Duration.ofSeconds(15)), Runnable::run);
+    }
+
+    @Test
+    void testSubscriberReceivesCurrentSeatsFromIndex() {
+        // Given
+        when(scheduleIndex.availableSeats(1L)).thenReturn(Optional.of(50));
+
+        // When & Then
+        StepVerifier.create(broadcaster.subscribe(1L))
+                .assertNext(update -> assertEquals(50, update.availableSeats()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void testBurstOfBookingsIsCoalesced() {
+        // Given
+        when(scheduleIndex.availableSeats(1L)).thenReturn(Optional.of(500));
+        when(screeningRepository.findSeatsByIds(List.of(1L))).thenReturn(List.of(seats(1L, 0)));
+
+        // When & Then - 500 prenotazioni, un solo messaggio
+        StepVerifier.create(broadcaster.subscribe(1L))
+                .assertNext(update -> assertEquals(500, update.availableSeats()))
+                .then(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        broadcaster.onBookingEvent(bookingEvent(1L));
+                    }
+                    broadcaster.flush();
+                })
+                .assertNext(update -> assertEquals(0, update.availableSeats()))
+                .thenCancel()
+                .verify();
+        verify(screeningRepository, times(1)).findSeatsByIds(any());
+    }
+
+    @Test
+    void testUnchangedSeatsAreNotResent() {
+        // Given
+        when(scheduleIndex.availableSeats(1L)).thenReturn(Optional.of(50));
+        when(screeningRepository.findSeatsByIds(List.of(1L))).thenReturn(List.of(seats(1L, 50)));
+
+        // When & Then - il valore letto al flush coincide con quello già inviato
+        StepVerifier.create(broadcaster.subscribe(1L))
+                .expectNextCount(1)
+                .then(broadcaster::flush)
+                .expectNoEvent(Duration.ZERO)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void testSeatsLoadedFromDatabaseWhenIndexMisses() {
+        // Given
+        when(scheduleIndex.availableSeats(1L)).thenReturn(Optional.empty());
+        when(screeningRepository.findSeatsByIds(List.of(1L))).thenReturn(List.of(seats(1L, 42)));
+
+        // When & Then
+        StepVerifier.create(broadcaster.subscribe(1L))
+                .then(broadcaster::flush)
+                .assertNext(update -> assertEquals(42, update.availableSeats()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void testRefreshPicksUpBookingsFromOtherNodes() {
+        // Given
+        when(scheduleIndex.availableSeats(1L)).thenReturn(Optional.of(50));
+        when(screeningRepository.findSeatsByIds(List.of(1L)))
+                .thenReturn(List.of(seats(1L, 50)), List.of(seats(1L, 47)));
+
+        // When & Then - nessun evento locale, il refresh periodico rilegge la proiezione seguita
+        StepVerifier.create(broadcaster.subscribe(1L))
+                .expectNextCount(1)
+                .then(broadcaster::flush)
+                .then(() -> {
+                    broadcaster.refreshSubscribed();
+                    broadcaster.flush();
+                })
+                .assertNext(update -> assertEquals(47, update.availableSeats()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void testChannelReleasedWhenLastSubscriberLeaves() {
+        // Given
+        when(scheduleIndex.availableSeats(1L)).thenReturn(Optional.of(50));
+        var subscription = broadcaster.subscribe(1L).subscribe();
+        assertEquals(1, broadcaster.subscriberCount(1L));
+
+        // When
+        subscription.dispose();
+        broadcaster.onBookingEvent(bookingEvent(1L));
+        broadcaster.flush();
+
+        // Then - nessun subscriber: nessuna lettura dal database
+        assertEquals(0, broadcaster.subscriberCount(1L));
+        verify(screeningRepository, never()).findSeatsByIds(any());
+    }
+
+    @Test
+    void testHeartbeatRepeatsLastValue() {
+        // Given
+        when(scheduleIndex.availableSeats(1L)).thenReturn(Optional.of(50));
+
+        // When & Then - nessun cambio: l'ultimo valore torna a ogni heartbeat
+        StepVerifier.withVirtualTime(() -> broadcaster.subscribe(1L))
+                .assertNext(update -> assertEquals(50, update.availableSeats()))
+                .thenAwait(Duration.ofSeconds(15))
+                .assertNext(update -> assertEquals(50, update.availableSeats()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void testSubscribersBeyondCapacityAreRejected() {
+        // Given - limite di 2 subscriber per nodo, su proiezioni diverse
+        when(scheduleIndex.availableSeats(any())).thenReturn(Optional.of(50));
+        var first = broadcaster.subscribe(1L).subscribe();
+        broadcaster.subscribe(2L).subscribe();
+
+        // When & Then
+        var exception = assertThrows(ServiceOverloadedException.class, () -> broadcaster.subscribe(3L));
+        assertEquals(Duration.ofSeconds(5), exception.getRetryAfter());
+
+        // Then - chi si disconnette libera il posto
+        first.dispose();
+        assertEquals(1, broadcaster.totalSubscribers());
+        assertDoesNotThrow(() -> broadcaster.subscribe(3L));
+    }
+
+    @Test
+    void testBookingsWithoutSubscribersAreIgnored() {
+        // When
+        broadcaster.onBookingEvent(bookingEvent(1L));
+        broadcaster.flush();
+
+        // Then
+        verifyNoInteractions(screeningRepository);
+    }
+
+    private ScreeningSeats seats(Long screeningId, int availableSeats) {
+        return new ScreeningSeats() {
+            @Override
+            public Long getScreeningId() {
+                return screeningId;
+            }
+
+            @Override
+            public Integer getAvailableSeats() {
+                return availableSeats;
+            }
+        };
+    }
+
+    private BookingEvent bookingEvent(Long screeningId) {
+        return new BookingEvent(10L, screeningId, 1L, "Test Movie", LocalDateTime.now().plusDays(1),
+                1L, "user@example.com", 1, new BigDecimal("10.00"), BookingStatus.CONFIRMED, LocalDateTime.now(), LocalDateTime.now());
+    }
+}
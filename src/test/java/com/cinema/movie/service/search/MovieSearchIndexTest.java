@@ -0,0 +1,165 @@
+package com.cinema.movie.service.search;
+
+import com.cinema.movie.entity.Movie;
+import com.cinema.movie.event.CatalogChangedEvent;
+import com.cinema.movie.repository.MovieRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieSearchIndexTest {
+
+    @Mock private MovieRepository movieRepository;
+    @InjectMocks private MovieSearchIndex searchIndex;
+
+    @Test
+    void testSearchBeforeRebuildFallsBack() {
+        // When & Then - indice vuoto: il service deve usare SQL
+        assertTrue(searchIndex.search("Action", "test").isEmpty());
+    }
+
+    @Test
+    void testSearchIsAccentAndCaseInsensitive() {
+        // Given
+        when(movieRepository.findAll()).thenReturn(List.of(
+                createMovie(1L, "Perché no?", "Commedia", "Una storia d'amore"),
+                createMovie(2L, "Avatar", "Fantascienza", "Pandora")
+        ));
+        searchIndex.rebuild();
+
+        // When
+        List<Long> result = searchIndex.search(null, "PERCHE").orElseThrow();
+
+        // Then
+        assertEquals(List.of(1L), result);
+    }
+
+    @Test
+    void testSearchRanksExactTitleBeforeSubstring() {
+        // Given
+        when(movieRepository.findAll()).thenReturn(List.of(
+                createMovie(1L, "Il ritorno di Avatar", "Fantascienza", null),
+                createMovie(2L, "Avatar", "Fantascienza", null),
+                createMovie(3L, "Avatar 2", "Fantascienza", null)
+        ));
+        searchIndex.rebuild();
+
+        // When
+        List<Long> result = searchIndex.search(null, "avatar").orElseThrow();
+
+        // Then - esatto, prefisso, parola interna
+        assertEquals(List.of(2L, 3L, 1L), result);
+    }
+
+    @Test
+    void testSearchMatchesDescriptionTerms() {
+        // Given
+        when(movieRepository.findAll()).thenReturn(List.of(
+                createMovie(1L, "Nuovo Cinema Paradiso", "Drammatico", "Un proiezionista siciliano"),
+                createMovie(2L, "La vita è bella", "Commedia", "Un padre e il figlio")
+        ));
+        searchIndex.rebuild();
+
+        // When
+        List<Long> result = searchIndex.search(null, "Siciliano").orElseThrow();
+
+        // Then
+        assertEquals(List.of(1L), result);
+    }
+
+    @Test
+    void testSearchFiltersByGenre() {
+        // Given
+        when(movieRepository.findAll()).thenReturn(List.of(
+                createMovie(1L, "Test Movie", "Action", null),
+                createMovie(2L, "Test Comedy", "Commedia", null)
+        ));
+        searchIndex.rebuild();
+
+        // When
+        List<Long> result = searchIndex.search("action", "test").orElseThrow();
+
+        // Then
+        assertEquals(List.of(1L), result);
+    }
+
+    @Test
+    void testIncrementalUpdate() {
+        // Given
+        when(movieRepository.findAll()).thenReturn(List.of(createMovie(1L, "Old Title", "Action", null)));
+        searchIndex.rebuild();
+        when(movieRepository.findById(1L)).thenReturn(Optional.of(createMovie(1L, "New Title", "Action", null)));
+
+        // When
+        searchIndex.onCatalogChanged(CatalogChangedEvent.movie(1L));
+
+        // Then
+        assertEquals(List.of(), searchIndex.search(null, "old").orElseThrow());
+        assertEquals(List.of(1L), searchIndex.search(null, "new").orElseThrow());
+    }
+
+    @Test
+    void testScreeningChangesAreIgnored() {
+        // Given
+        when(movieRepository.findAll()).thenReturn(List.of());
+        searchIndex.rebuild();
+
+        // When
+        searchIndex.onCatalogChanged(CatalogChangedEvent.screening(1L, 10L));
+
+        // Then
+        verify(movieRepository, never()).findById(any());
+    }
+
+    @Test
+    void testChangesDuringRebuildAreReappliedAfterSwap() {
+        // Given - titolo cambiato mentre la ricostruzione legge il catalogo
+        when(movieRepository.findAll()).thenAnswer(invocation -> {
+            searchIndex.onCatalogChanged(CatalogChangedEvent.movie(1L));
+            return List.of(createMovie(1L, "Old Title", "Action", null));
+        });
+        when(movieRepository.findById(1L)).thenReturn(Optional.of(createMovie(1L, "New Title", "Action", null)));
+
+        // When
+        searchIndex.rebuild();
+
+        // Then - lo snapshot superato non resta nell'indice
+        assertEquals(List.of(), searchIndex.search(null, "old").orElseThrow());
+        assertEquals(List.of(1L), searchIndex.search(null, "new").orElseThrow());
+    }
+
+    @Test
+    void testFailedRebuildKeepsPreviousIndex() {
+        // Given
+        when(movieRepository.findAll())
+                .thenReturn(List.of(createMovie(1L, "Avatar", "Fantascienza", null)))
+                .thenThrow(new IllegalStateException("database non raggiungibile"));
+        searchIndex.rebuild();
+
+        // When
+        searchIndex.rebuild();
+
+        // Then
+        assertEquals(List.of(1L), searchIndex.search(null, "avatar").orElseThrow());
+    }
+
+    private Movie createMovie(Long id, String title, String genre, String description) {
+        var movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        movie.setGenre(genre);
+        movie.setDuration(120);
+        movie.setDescription(description);
+        return movie;
+    }
+}
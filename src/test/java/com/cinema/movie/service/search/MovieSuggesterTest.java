@@ -0,0 +1,85 @@
+package com.cinema.movie.service.search;
+
+import com.cinema.movie.event.CatalogChangedEvent;
+import com.cinema.movie.repository.MovieRepository;
+import com.cinema.movie.repository.MovieSuggestionStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieSuggesterTest {
+
+    @Mock private MovieRepository movieRepository;
+
+    private MovieSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        // Executor sincrono per rendere deterministica la ricostruzione
+        suggester = new MovieSuggester(movieRepository, Runnable::run);
+    }
+
+    @Test
+    void testBookableMoviesRankFirst() {
+        // Given - il film più venduto non ha proiezioni future
+        when(movieRepository.findSuggestionStats(any(LocalDateTime.class))).thenReturn(List.of(
+                stats(1L, "Matrix", 5000L, 0L),
+                stats(2L, "Matrix Resurrections", 10L, 3L)
+        ));
+
+        // When
+        suggester.onCatalogChanged(CatalogChangedEvent.movie(1L));
+        var result = suggester.suggest("matr", 10);
+
+        // Then
+        assertEquals(List.of(2L, 1L), result.stream().map(s -> s.movieId()).toList());
+    }
+
+    @Test
+    void testFailedRebuildKeepsPreviousTrie() {
+        // Given
+        when(movieRepository.findSuggestionStats(any(LocalDateTime.class)))
+                .thenReturn(List.of(stats(1L, "Matrix", 1L, 1L)))
+                .thenThrow(new RuntimeException("DB down"));
+        suggester.onStartup();
+
+        // When
+        suggester.refresh();
+
+        // Then
+        assertEquals(1, suggester.suggest("mat", 10).size());
+    }
+
+    @Test
+    void testLimitIsClamped() {
+        // Given
+        when(movieRepository.findSuggestionStats(any(LocalDateTime.class))).thenReturn(List.of(
+                stats(1L, "Matrix", 1L, 1L),
+                stats(2L, "Matrix Reloaded", 1L, 1L)
+        ));
+        suggester.onStartup();
+
+        // When & Then - limite non positivo: almeno un suggerimento, nessun errore
+        assertEquals(1, suggester.suggest("matr", -5).size());
+        assertEquals(2, suggester.suggest("matr", 1000).size());
+    }
+
+    private MovieSuggestionStats stats(Long id, String title, Long booked, Long bookable) {
+        return new MovieSuggestionStats() {
+            @Override public Long getMovieId() { return id; }
+            @Override public String getTitle() { return title; }
+            @Override public Long getBookedSeats() { return booked; }
+            @Override public Long getBookableScreenings() { return bookable; }
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.cinema.movie.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionTrieTest {
+
+    private final SuggestionTrie trie = SuggestionTrie.build(List.of(
+            new SuggestionTrie.Entry(1L, "Avatar", 5.0),
+            new SuggestionTrie.Entry(2L, "Avatar: La via dell'acqua", 50.0),
+            new SuggestionTrie.Entry(3L, "Il Signore degli Anelli", 20.0),
+            new SuggestionTrie.Entry(4L, "Perché no?", 1.0)
+    ), 10);
+
+    @Test
+    void testPrefixOrderedByWeight() {
+        // When
+        var result = trie.suggest("ava", 10);
+
+        // Then
+        assertEquals(List.of(2L, 1L), result.stream().map(SuggestionTrie.Entry::movieId).toList());
+    }
+
+    @Test
+    void testWordStartMatchesWithoutDuplicates() {
+        // When - "anel" è inizio di parola, non del titolo
+        var result = trie.suggest("anel", 10);
+
+        // Then
+        assertEquals(List.of(3L), result.stream().map(SuggestionTrie.Entry::movieId).toList());
+    }
+
+    @Test
+    void testAccentFolding() {
+        // When
+        var result = trie.suggest("PERCHE", 10);
+
+        // Then
+        assertEquals("Perché no?", result.getFirst().title());
+    }
+
+    @Test
+    void testLimitAndMisses() {
+        assertEquals(1, trie.suggest("a", 1).size());
+        assertTrue(trie.suggest("zzz", 10).isEmpty());
+        assertTrue(trie.suggest("", 10).isEmpty());
+        assertTrue(SuggestionTrie.empty().suggest("ava", 10).isEmpty());
+    }
+}
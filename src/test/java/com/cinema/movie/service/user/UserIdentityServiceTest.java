@@ -0,0 +1,105 @@
+package com.cinema.movie.service.user;
+
+import com.cinema.movie.entity.User;
+import com.cinema.movie.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserIdentityServiceTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private UserIdentityService userIdentityService;
+
+    @BeforeEach
+    void setUp() {
+        userIdentityService = new UserIdentityService(userRepository, transactionManager);
+    }
+
+    @Test
+    void testKnownEmailIsCachedAfterFirstLookup() {
+        // Given
+        when(userRepository.findIdByEmail("test@email.com")).thenReturn(Optional.of(7L));
+
+        // When
+        userIdentityService.findId("test@email.com");
+        Optional<Long> result = userIdentityService.findId("test@email.com");
+
+        // Then - una sola query
+        assertEquals(Optional.of(7L), result);
+        verify(userRepository, times(1)).findIdByEmail("test@email.com");
+    }
+
+    @Test
+    void testUnknownEmailIsNotCached() {
+        // Given
+        when(userRepository.findIdByEmail("new@email.com")).thenReturn(Optional.empty());
+
+        // When
+        userIdentityService.findId("new@email.com");
+        userIdentityService.findId("new@email.com");
+
+        // Then - la prima prenotazione deve poterlo creare
+        verify(userRepository, times(2)).findIdByEmail("new@email.com");
+        assertEquals(0, userIdentityService.cachedCount());
+    }
+
+    @Test
+    void testResolveCreatesUserOnFirstBooking() {
+        // Given
+        when(userRepository.findIdByEmail("new@email.com")).thenReturn(Optional.empty());
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(new User(9L, "new@email.com"));
+
+        // When
+        User user = userIdentityService.resolve("new@email.com");
+
+        // Then
+        assertEquals(9L, user.getId());
+        assertEquals("new@email.com", user.getEmail());
+        assertEquals(Optional.of(9L), userIdentityService.findId("new@email.com"));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testConcurrentCreationReadsExistingUser() {
+        // Given - un'altra richiesta ha inserito la stessa email
+        when(userRepository.findIdByEmail("new@email.com"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(9L));
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_users_email"));
+
+        // When
+        User user = userIdentityService.resolve("new@email.com");
+
+        // Then
+        assertEquals(9L, user.getId());
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        // Given
+        when(userRepository.findIdByEmail(any())).thenReturn(Optional.of(1L));
+
+        // When
+        for (int i = 0; i <= UserIdentityService.MAX_CACHED; i++) {
+            userIdentityService.findId("user" + i + "@email.com");
+        }
+
+        // Then
+        assertEquals(UserIdentityService.MAX_CACHED, userIdentityService.cachedCount());
+    }
+}